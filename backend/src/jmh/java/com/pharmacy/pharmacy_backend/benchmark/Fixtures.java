@@ -0,0 +1,77 @@
+package com.pharmacy.pharmacy_backend.benchmark;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.User;
+import com.pharmacy.pharmacy_backend.security.JwtTokenProvider;
+import com.pharmacy.pharmacy_backend.security.UserDetailsImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup for the benchmarks: beans wired by hand the way Spring would wire them, and
+ * realistic-looking entities.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private Fixtures() {
+    }
+
+    static JwtTokenProvider tokenProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86_400_000);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    static User user() {
+        User user = new User("pharmacist", "pharmacist@pharmacy.com", "$2a$10$placeholderplaceholderplaceholderplaceholderplace");
+        user.setId(42L);
+        user.setRole("USER");
+        return user;
+    }
+
+    static Authentication authentication() {
+        UserDetailsImpl principal = UserDetailsImpl.build(user());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    static List<Medicine> medicines(int count) {
+        List<Medicine> medicines = new ArrayList<>(count);
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < count; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setId((long) i + 1);
+            medicine.setName("Medicine " + i);
+            medicine.setCompany("Company " + (i % 50));
+            medicine.setCategory(i % 3 == 0 ? "prescription" : "otc");
+            medicine.setPrice(1.5 + (i % 100));
+            medicine.setQuantity(i % 500);
+            medicine.setReorderLevel(10);
+            medicine.setExpiryDate(base.plusDays(i % 900));
+            medicines.add(medicine);
+        }
+        return medicines;
+    }
+
+    static List<Sale> sales(int count) {
+        List<Sale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sale sale = new Sale();
+            sale.setId((long) i + 1);
+            sale.setCustomerName("Customer " + (i % 1000));
+            sale.setTotalAmount(10.0 + (i % 250));
+            sale.setSaleDate(LocalDate.of(2026, 3, 1 + i % 28).atTime(9, i % 60));
+            sales.add(sale);
+        }
+        return sales;
+    }
+}
@@ -0,0 +1,80 @@
+package com.pharmacy.pharmacy_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-body serialization of list endpoints, written to a discarding stream so only the
+ * Jackson work is measured. The mapper is configured like Spring Boot's default one.
+ * {@code writeMedicinesSnapshot} is the pre-serialized catalog path for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Medicine> medicines;
+    private List<Sale> sales;
+    private byte[] medicinesSnapshot;
+    private ByteArrayOutputStream responseBuffer;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        medicines = Fixtures.medicines(size);
+        sales = Fixtures.sales(size);
+        try {
+            medicinesSnapshot = objectMapper.writeValueAsBytes(medicines);
+            responseBuffer = new ByteArrayOutputStream(medicinesSnapshot.length);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void serializeMedicines() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), medicines);
+    }
+
+    @Benchmark
+    public int writeMedicinesSnapshot() {
+        // Copied into a reused buffer: a discarding stream would make the copy free.
+        responseBuffer.reset();
+        responseBuffer.write(medicinesSnapshot, 0, medicinesSnapshot.length);
+        return responseBuffer.size();
+    }
+
+    @Benchmark
+    public void serializeSales() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), sales);
+    }
+}
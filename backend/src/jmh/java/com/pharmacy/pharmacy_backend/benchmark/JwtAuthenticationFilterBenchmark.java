@@ -0,0 +1,77 @@
+package com.pharmacy.pharmacy_backend.benchmark;
+
+import com.pharmacy.pharmacy_backend.model.User;
+import com.pharmacy.pharmacy_backend.security.JwtAuthenticationFilter;
+import com.pharmacy.pharmacy_backend.security.JwtTokenProvider;
+import com.pharmacy.pharmacy_backend.security.TokenPrincipalCache;
+import com.pharmacy.pharmacy_backend.security.UserDetailsImpl;
+import com.pharmacy.pharmacy_backend.security.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter}. With {@code cached=false}
+ * the principal cache is disabled, so every pass parses the token and loads the user (from an
+ * in-memory stand-in, so database latency is not part of the number).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = Fixtures.tokenProvider();
+        User user = Fixtures.user();
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return UserDetailsImpl.build(user);
+            }
+        };
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new TokenPrincipalCache(cached ? 10_000 : 0));
+        authorization = "Bearer " + tokenProvider.generateToken(Fixtures.authentication());
+    }
+
+    @Benchmark
+    public Object filterPass() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/medicines");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.pharmacy.pharmacy_backend.benchmark;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.service.MedicineSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory ranking behind the till's type-ahead at catalog scale, without the primary-key
+ * fetch of the winning rows. Queries cover a short prefix that matches everything, a full
+ * name, a company word and a mid-word substring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MedicineSearchBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"me", "medicine 4242", "company 7", "icine 9999"})
+    public String query;
+
+    private MedicineSearchService search;
+
+    @Setup
+    public void setUp() {
+        search = new MedicineSearchService(null);
+        for (Medicine medicine : Fixtures.medicines(size)) {
+            search.update(medicine.getId(), medicine.getName(), medicine.getCompany(), medicine.getCategory());
+        }
+    }
+
+    @Benchmark
+    public List<Long> searchIds() {
+        return search.searchIds(query, MedicineSearchService.DEFAULT_LIMIT);
+    }
+}
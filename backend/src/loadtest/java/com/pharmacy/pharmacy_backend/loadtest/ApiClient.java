@@ -0,0 +1,94 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+/** Thin blocking HTTP client for the backend's JSON API, shared by all terminals. */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /** Status, body and the two headers the terminals care about. */
+    static final class Response {
+        final int status;
+        final byte[] body;
+        final String etag;
+        final String nextCursor;
+
+        Response(HttpResponse<byte[]> response) {
+            this.status = response.statusCode();
+            this.body = response.body();
+            Optional<String> etagHeader = response.headers().firstValue("ETag");
+            this.etag = etagHeader.orElse(null);
+            this.nextCursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    ApiClient(String baseUrl, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    Response get(String path, String token, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(path, token).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return send(request.build());
+    }
+
+    Response postJson(String path, String token, Object body) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build());
+    }
+
+    Response post(String path, String token, String contentType, byte[] body) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build());
+    }
+
+    JsonNode json(Response response) {
+        try {
+            return objectMapper.readTree(response.body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        return new Response(http.send(request, HttpResponse.BodyHandlers.ofByteArray()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The seeded medicines as the terminals see them. Popularity is skewed the way a till's is: a
+ * small hot set takes most basket lines, so those medicines run low and sell out during a run.
+ */
+final class Catalog {
+
+    private static final String[] STEMS = {"Amoxi", "Parace", "Ibupro", "Cetiri", "Lorata", "Omepra", "Metfor", "Atorva",
+            "Amlodi", "Losart", "Azithro", "Doxycy", "Salbu", "Predni", "Diclo", "Naproxo"};
+    private static final String[] SUFFIXES = {"cillin", "tamol", "fen", "zine", "dine", "zole", "min", "statin",
+            "pine", "tan", "mycin", "cline", "tamol", "solone", "fenac", "xen"};
+    private static final String[] CATEGORIES = {"prescription", "otc", "supplement", "cosmetic"};
+
+    // Share of basket lines that go to the hot set, and the hot set's share of the catalog.
+    private static final int HOT_LINE_PERCENT = 80;
+    private static final int HOT_CATALOG_PERCENT = 5;
+
+    static final class Item {
+        final long id;
+        final String name;
+        final double price;
+
+        Item(long id, String name, double price) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+        }
+    }
+
+    private final List<Item> items;
+    private final int hotCount;
+
+    Catalog(List<Item> items) {
+        if (items.isEmpty()) {
+            throw new IllegalStateException("The catalog was not seeded");
+        }
+        this.items = List.copyOf(items);
+        this.hotCount = Math.max(1, items.size() * HOT_CATALOG_PERCENT / 100);
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    Item any(SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    // Hot medicines come first in id order, so the skew needs no extra bookkeeping.
+    Item forBasket(SplittableRandom random) {
+        if (random.nextInt(100) < HOT_LINE_PERCENT) {
+            return items.get(random.nextInt(hotCount));
+        }
+        return any(random);
+    }
+
+    // A few letters of a real name, as someone typing into the search box would send.
+    String searchPrefix(SplittableRandom random) {
+        String name = any(random).name;
+        return name.substring(0, Math.min(name.length(), 3 + random.nextInt(3))).toLowerCase(Locale.ROOT);
+    }
+
+    /** CSV for POST /api/medicines/import; stock is deliberately tight on the hot set. */
+    static byte[] seedCsv(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        int hot = Math.max(1, size * HOT_CATALOG_PERCENT / 100);
+        StringBuilder csv = new StringBuilder("name,company,category,price,quantity,reorderlevel,expirydate\n");
+        for (int i = 0; i < size; i++) {
+            String name = STEMS[i % STEMS.length] + SUFFIXES[(i / STEMS.length) % SUFFIXES.length] + " " + (i + 1) + "mg";
+            int quantity = i < hot ? 50 + random.nextInt(150) : 200 + random.nextInt(800);
+            csv.append(name).append(',')
+                    .append("Company ").append(i % 40).append(',')
+                    .append(CATEGORIES[i % CATEGORIES.length]).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", 1 + random.nextInt(9900) / 100.0)).append(',')
+                    .append(quantity).append(',')
+                    .append(10).append(',')
+                    .append(today.plusDays(random.nextInt(720) - 30)).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
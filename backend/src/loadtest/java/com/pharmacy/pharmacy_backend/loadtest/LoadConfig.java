@@ -0,0 +1,67 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties (the loadtest profile passes its
+ * {@code load.*} properties through).
+ */
+final class LoadConfig {
+
+    final int terminals;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final Map<Scenario, Integer> mix;
+    final long paceMillis;
+    final int catalogSize;
+    final String reportPath;
+
+    private LoadConfig(int terminals, int durationSeconds, int warmupSeconds, Map<Scenario, Integer> mix,
+                       long paceMillis, int catalogSize, String reportPath) {
+        this.terminals = terminals;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.mix = mix;
+        this.paceMillis = paceMillis;
+        this.catalogSize = catalogSize;
+        this.reportPath = reportPath;
+    }
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Math.max(1, Integer.getInteger("load.terminals", 32)),
+                Math.max(1, Integer.getInteger("load.duration", 60)),
+                Math.max(0, Integer.getInteger("load.warmup", 10)),
+                parseMix(System.getProperty("load.mix", "browse:60,checkout:30,dashboard:10")),
+                Math.max(0, Long.getLong("load.pace-ms", 0)),
+                Math.max(1, Integer.getInteger("load.catalog-size", 2000)),
+                System.getProperty("load.report", "target/loadtest-report.txt"));
+    }
+
+    // "browse:60,checkout:30,dashboard:10" -> relative weights per scenario
+    static Map<Scenario, Integer> parseMix(String spec) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like browse:60, got '" + part + "'");
+            }
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.of(nameAndWeight[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no scenario with a positive weight");
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return terminals + " terminals, " + durationSeconds + " s measured after " + warmupSeconds + " s warm-up, mix "
+                + mix + ", " + (paceMillis > 0 ? "one iteration per " + paceMillis + " ms per terminal" : "back-to-back")
+                + ", " + catalogSize + " medicines";
+    }
+}
@@ -0,0 +1,106 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counters per operation (one HTTP call, e.g. "catalog.page").
+ * Latencies are kept in microseconds in HDR histograms, so percentiles stay exact to three
+ * significant digits however long the run. Recording is lock-free; {@link #reset} starts the
+ * measured window after warm-up.
+ */
+final class LoadStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private static final class Operation {
+        final Recorder latency = new Recorder(HIGHEST_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final ConcurrentMap<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+    }
+
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void recordSuccess(String operation, long nanos) {
+        operation(operation).latency.recordValue(Math.min(HIGHEST_MICROS, Math.max(1, nanos / 1000)));
+    }
+
+    // An expected refusal (e.g. a basket the stock cannot cover): counted, and its latency kept.
+    void recordRejected(String operation, long nanos) {
+        recordSuccess(operation, nanos);
+        operation(operation).rejected.increment();
+    }
+
+    void recordError(String operation, String cause) {
+        Operation stats = operation(operation);
+        stats.errors.increment();
+        stats.errorsByCause.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    void reset() {
+        for (Operation stats : operations.values()) {
+            stats.latency.reset();
+            stats.errors.reset();
+            stats.rejected.reset();
+            stats.errorsByCause.clear();
+        }
+    }
+
+    /** One row per operation plus a total; rates are per second of {@code elapsedSeconds}. */
+    String report(double elapsedSeconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-20s %9s %9s %9s %9s %9s %9s %9s %8s %8s%n",
+                "operation", "count", "per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "rejected", "errors"));
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        long totalErrors = 0;
+        long totalRejected = 0;
+        Map<String, Long> causes = new TreeMap<>();
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            Operation stats = entry.getValue();
+            Histogram histogram = stats.latency.getIntervalHistogram();
+            total.add(histogram);
+            totalErrors += stats.errors.sum();
+            totalRejected += stats.rejected.sum();
+            stats.errorsByCause.forEach((cause, count) -> causes.merge(entry.getKey() + " " + cause, count.sum(), Long::sum));
+            row(out, entry.getKey(), histogram, elapsedSeconds, stats.rejected.sum(), stats.errors.sum());
+        }
+        row(out, "TOTAL", total, elapsedSeconds, totalRejected, totalErrors);
+        if (!causes.isEmpty()) {
+            out.append(String.format("%nErrors:%n"));
+            causes.forEach((cause, count) -> out.append(String.format(Locale.ROOT, "  %-40s %d%n", cause, count)));
+        }
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String name, Histogram histogram, double elapsedSeconds,
+                            long rejected, long errors) {
+        out.append(String.format(Locale.ROOT, "%-20s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d %8d%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                rejected,
+                errors));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, key -> new Operation());
+    }
+}
@@ -0,0 +1,211 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.PharmacyBackendApplication;
+import com.pharmacy.pharmacy_backend.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load driver for checkout and catalog capacity: boots the backend on an in-memory H2 database
+ * (profile {@code loadtest}, random port), registers and signs in one account per virtual
+ * terminal through {@code /api/auth/signin}, imports a catalog, then runs every terminal through
+ * the configured mix of browsing, checkouts and dashboard polling over real HTTP.
+ *
+ * The report (stdout and {@code load.report}) has throughput, HDR latency percentiles, rejected
+ * baskets and errors per operation, and a stock check: pending write-behind stock is flushed and
+ * every medicine's stock is compared with what the terminals were told they sold. An oversell or
+ * a lost sale makes the run exit non-zero, which fails the Maven build.
+ *
+ * H2 is a stand-in: numbers compare builds and settings on one machine, not production capacity.
+ */
+public final class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final long CATALOG_SEED = 20261018L;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        logger.info("Load test: {}", config);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PharmacyBackendApplication.class)
+                .profiles("loadtest")
+                .run(withRandomPort(args));
+        boolean passed;
+        try {
+            passed = run(config, context);
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    // A command-line argument, because default properties lose to application.properties.
+    private static String[] withRandomPort(String[] args) {
+        String[] withPort = Arrays.copyOf(args, args.length + 1);
+        withPort[args.length] = "--server.port=0";
+        return withPort;
+    }
+
+    private static boolean run(LoadConfig config, ConfigurableApplicationContext context) throws Exception {
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        ApiClient client = new ApiClient("http://localhost:" + port, context.getBean(ObjectMapper.class));
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        registerTills(client, config.terminals);
+        seedCatalog(client, config.catalogSize);
+        Catalog catalog = readCatalog(jdbc);
+        StockLedger ledger = new StockLedger(readStock(jdbc));
+        logger.info("Seeded {} medicines and {} tills", catalog.size(), config.terminals);
+
+        LoadStats stats = new LoadStats();
+        LoadStats signInStats = new LoadStats();
+        List<VirtualTerminal> terminals = new ArrayList<>(config.terminals);
+        for (int i = 1; i <= config.terminals; i++) {
+            terminals.add(new VirtualTerminal(i, client, catalog, config.mix, stats, ledger, config.paceMillis));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(config.terminals, task -> {
+            Thread thread = new Thread(task, "terminal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Every till signs in at once, as at the start of a shift.
+            long signInStarted = System.nanoTime();
+            List<Future<?>> signIns = new ArrayList<>();
+            for (VirtualTerminal terminal : terminals) {
+                signIns.add(pool.submit(() -> {
+                    terminal.signIn(signInStats);
+                    return null;
+                }));
+            }
+            for (Future<?> signIn : signIns) {
+                signIn.get();
+            }
+            double signInSeconds = (System.nanoTime() - signInStarted) / 1e9;
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds + config.durationSeconds);
+            List<Future<?>> running = new ArrayList<>();
+            for (VirtualTerminal terminal : terminals) {
+                running.add(pool.submit(() -> terminal.runUntil(deadline)));
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.warmupSeconds));
+            stats.reset();
+            long measuredFrom = System.nanoTime();
+            logger.info("Warm-up done, measuring for {} s", config.durationSeconds);
+            for (Future<?> terminal : running) {
+                terminal.get();
+            }
+            double measuredSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+            StockLedger.Verdict verdict = ledger.verify(flushAndReadStock(context, jdbc), countSales(jdbc));
+            String report = "Load test: " + config + System.lineSeparator() + System.lineSeparator()
+                    + String.format(Locale.ROOT, "Sign-in (%d tills at once, %.1f s)%n", config.terminals, signInSeconds)
+                    + signInStats.report(signInSeconds) + System.lineSeparator()
+                    + String.format(Locale.ROOT, "Measured window (%.1f s)%n", measuredSeconds)
+                    + stats.report(measuredSeconds) + System.lineSeparator()
+                    + verdict
+                    + (verdict.passed() ? "PASSED" : "FAILED: stock or sales do not add up") + System.lineSeparator();
+            System.out.println();
+            System.out.print(report);
+            writeReport(config.reportPath, report);
+            return verdict.passed();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void registerTills(ApiClient client, int count) throws IOException, InterruptedException {
+        for (int i = 1; i <= count; i++) {
+            Map<String, String> user = Map.of(
+                    "username", VirtualTerminal.username(i),
+                    "email", VirtualTerminal.username(i) + "@loadtest.local",
+                    "password", VirtualTerminal.PASSWORD);
+            ApiClient.Response response = client.postJson("/api/auth/signup", null, user);
+            if (!response.ok()) {
+                throw new IllegalStateException("Sign-up failed for " + user.get("username") + ": HTTP " + response.status);
+            }
+        }
+    }
+
+    private static void seedCatalog(ApiClient client, int size) throws IOException, InterruptedException {
+        Map<String, String> credentials = Map.of("username", VirtualTerminal.username(1), "password", VirtualTerminal.PASSWORD);
+        ApiClient.Response signIn = client.postJson("/api/auth/signin", null, credentials);
+        if (!signIn.ok()) {
+            throw new IllegalStateException("Seeding sign-in failed: HTTP " + signIn.status);
+        }
+        String token = client.json(signIn).path("accessToken").asText();
+        ApiClient.Response imported = client.post("/api/medicines/import", token, "text/csv", Catalog.seedCsv(size, CATALOG_SEED));
+        if (!imported.ok()) {
+            throw new IllegalStateException("Catalog import failed: HTTP " + imported.status + " "
+                    + new String(imported.body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Catalog readCatalog(JdbcTemplate jdbc) {
+        return new Catalog(jdbc.query("SELECT id, name, price FROM medicines ORDER BY id",
+                (rs, rowNum) -> new Catalog.Item(rs.getLong(1), rs.getString(2), rs.getDouble(3))));
+    }
+
+    private static Map<Long, Integer> readStock(JdbcTemplate jdbc) {
+        Map<Long, Integer> stock = new HashMap<>();
+        jdbc.query("SELECT id, quantity FROM medicines", rs -> {
+            stock.put(rs.getLong(1), rs.getInt(2));
+        });
+        return stock;
+    }
+
+    // Applies every line the write-behind flush has not reached yet, then reads the stock back.
+    private static Map<Long, Integer> flushAndReadStock(ConfigurableApplicationContext context, JdbcTemplate jdbc)
+            throws InterruptedException {
+        StockReservationService reservations = context.getBean(StockReservationService.class);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Integer pending = jdbc.queryForObject("SELECT COUNT(*) FROM sales_items WHERE stock_applied = FALSE", Integer.class);
+            if (pending == null || pending == 0) {
+                break;
+            }
+            reservations.flush();
+            Thread.sleep(50);
+        }
+        return readStock(jdbc);
+    }
+
+    private static long countSales(JdbcTemplate jdbc) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM sales", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static void writeReport(String reportPath, String report) throws IOException {
+        Path path = Paths.get(reportPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, report);
+        logger.info("Report written to {}", path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,21 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import java.util.Locale;
+
+/** What one terminal iteration does; see {@link VirtualTerminal} for the requests each sends. */
+enum Scenario {
+    // A page walk, a single medicine or a type-ahead search, as the catalog screens do
+    BROWSE,
+    // One basket posted to /api/sales
+    CHECKOUT,
+    // The dashboard's three polls: summary, low stock and recent sales
+    DASHBOARD;
+
+    static Scenario of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scenario '" + name + "' (use browse, checkout or dashboard)");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What the terminals were told they sold, per medicine, checked against the stock left in the
+ * database after the run. A medicine below zero was oversold; one whose stock is not exactly
+ * "seeded minus acknowledged" lost or double-applied a sale. Medicines in a basket whose outcome
+ * is unknown (timeout, dropped connection) are left out of the exact check.
+ */
+final class StockLedger {
+
+    private final Map<Long, Integer> initial;
+    private final ConcurrentHashMap<Long, LongAdder> sold = new ConcurrentHashMap<>();
+    private final Set<Long> uncertain = ConcurrentHashMap.newKeySet();
+    private final LongAdder acknowledgedSales = new LongAdder();
+    private final LongAdder uncertainSales = new LongAdder();
+
+    StockLedger(Map<Long, Integer> initial) {
+        this.initial = Map.copyOf(initial);
+    }
+
+    void recordSale(Map<Long, Integer> basket) {
+        basket.forEach((id, quantity) -> sold.computeIfAbsent(id, key -> new LongAdder()).add(quantity));
+        acknowledgedSales.increment();
+    }
+
+    void recordUncertain(Collection<Long> medicineIds) {
+        uncertain.addAll(medicineIds);
+        uncertainSales.increment();
+    }
+
+    /** Result of comparing the ledger with the stock and sale count read back from the database. */
+    static final class Verdict {
+        final int checked;
+        final int oversold;
+        final int mismatched;
+        final String firstProblem;
+        final long acknowledged;
+        final long uncertain;
+        final long salesInDatabase;
+
+        Verdict(int checked, int oversold, int mismatched, String firstProblem,
+                long acknowledged, long uncertain, long salesInDatabase) {
+            this.checked = checked;
+            this.oversold = oversold;
+            this.mismatched = mismatched;
+            this.firstProblem = firstProblem;
+            this.acknowledged = acknowledged;
+            this.uncertain = uncertain;
+            this.salesInDatabase = salesInDatabase;
+        }
+
+        boolean passed() {
+            return oversold == 0 && mismatched == 0
+                    && salesInDatabase >= acknowledged && salesInDatabase <= acknowledged + uncertain;
+        }
+
+        @Override
+        public String toString() {
+            String result = String.format(Locale.ROOT,
+                    "Sales: %d acknowledged, %d with unknown outcome, %d in the database%n"
+                            + "Stock: %d medicines checked, %d oversold, %d not matching acknowledged sales%n",
+                    acknowledged, uncertain, salesInDatabase, checked, oversold, mismatched);
+            return firstProblem == null ? result : result + "First problem: " + firstProblem + System.lineSeparator();
+        }
+    }
+
+    Verdict verify(Map<Long, Integer> stockInDatabase, long salesInDatabase) {
+        int checked = 0;
+        int oversold = 0;
+        int mismatched = 0;
+        String firstProblem = null;
+        for (Map.Entry<Long, Integer> entry : initial.entrySet()) {
+            Long id = entry.getKey();
+            Integer left = stockInDatabase.get(id);
+            if (left == null) {
+                continue;
+            }
+            checked++;
+            LongAdder units = sold.get(id);
+            long expected = entry.getValue() - (units == null ? 0 : units.sum());
+            if (left < 0 || expected < 0) {
+                oversold++;
+                firstProblem = firstProblem != null ? firstProblem
+                        : "medicine " + id + " seeded " + entry.getValue() + ", sold " + (entry.getValue() - expected) + ", left " + left;
+            } else if (left != expected && !uncertain.contains(id)) {
+                mismatched++;
+                firstProblem = firstProblem != null ? firstProblem
+                        : "medicine " + id + " expected " + expected + " left, database has " + left;
+            }
+        }
+        return new Verdict(checked, oversold, mismatched, firstProblem,
+                acknowledgedSales.sum(), uncertainSales.sum(), salesInDatabase);
+    }
+}
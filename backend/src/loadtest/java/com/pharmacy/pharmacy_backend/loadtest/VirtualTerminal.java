@@ -0,0 +1,213 @@
+package com.pharmacy.pharmacy_backend.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One till: signs in once, then loops over the scenario mix until a deadline. Each HTTP call is
+ * recorded under its own operation name.
+ *
+ * With a pace set, iterations are scheduled at fixed intervals and the first call of an
+ * iteration is timed from when it should have started, so a stall shows up in the percentiles
+ * instead of silently lowering the request rate (coordinated omission). Back-to-back terminals
+ * measure service time under that concurrency.
+ */
+final class VirtualTerminal {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_BASKET_LINES = 8;
+
+    private final int number;
+    private final ApiClient client;
+    private final Catalog catalog;
+    private final Scenario[] weightedScenarios;
+    private final LoadStats stats;
+    private final StockLedger ledger;
+    private final long paceNanos;
+    private final SplittableRandom random;
+    private String token;
+    private String firstPageEtag;
+    private String firstPageCursor;
+
+    VirtualTerminal(int number, ApiClient client, Catalog catalog, Map<Scenario, Integer> mix,
+                    LoadStats stats, StockLedger ledger, long paceMillis) {
+        this.number = number;
+        this.client = client;
+        this.catalog = catalog;
+        this.stats = stats;
+        this.ledger = ledger;
+        this.paceNanos = TimeUnit.MILLISECONDS.toNanos(paceMillis);
+        this.random = new SplittableRandom(number * 7919L);
+        List<Scenario> weighted = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        this.weightedScenarios = weighted.toArray(new Scenario[0]);
+    }
+
+    static String username(int number) {
+        return "till-" + number;
+    }
+
+    /** Signs in through /api/auth/signin, retrying while the hashing pool is saturated (503). */
+    void signIn(LoadStats signInStats) throws IOException, InterruptedException {
+        Map<String, String> credentials = Map.of("username", username(number), "password", PASSWORD);
+        for (int attempt = 1; ; attempt++) {
+            long started = System.nanoTime();
+            ApiClient.Response response = client.postJson("/api/auth/signin", null, credentials);
+            if (response.ok()) {
+                signInStats.recordSuccess("auth.signin", System.nanoTime() - started);
+                token = client.json(response).path("accessToken").asText();
+                return;
+            }
+            // A 503 is the hashing pool shedding load as designed, so it counts as rejected.
+            if (response.status == 503) {
+                signInStats.recordRejected("auth.signin", System.nanoTime() - started);
+            } else {
+                signInStats.recordError("auth.signin", "HTTP " + response.status);
+            }
+            if (response.status != 503 || attempt == 10) {
+                throw new IllegalStateException(username(number) + " could not sign in: HTTP " + response.status);
+            }
+            Thread.sleep(50L * attempt);
+        }
+    }
+
+    // Loops over the mix until System.nanoTime() passes the deadline.
+    void runUntil(long deadline) {
+        long nextStart = System.nanoTime();
+        while (nextStart < deadline) {
+            long intendedStart = paceNanos > 0 ? nextStart : System.nanoTime();
+            Scenario scenario = weightedScenarios[random.nextInt(weightedScenarios.length)];
+            try {
+                switch (scenario) {
+                    case BROWSE: browse(intendedStart); break;
+                    case CHECKOUT: checkout(intendedStart); break;
+                    case DASHBOARD: pollDashboard(intendedStart); break;
+                    default: throw new IllegalStateException(scenario.name());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (paceNanos > 0) {
+                nextStart += paceNanos;
+                long wait = nextStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                nextStart = System.nanoTime();
+            }
+        }
+    }
+
+    private void browse(long startedAt) throws InterruptedException {
+        int kind = random.nextInt(100);
+        if (kind < 50) {
+            // First page revalidated with its ETag like a browser would, then maybe a page or two more.
+            ApiClient.Response first = get("catalog.page", "/api/medicines?limit=" + PAGE_SIZE, firstPageEtag, startedAt);
+            if (first == null) {
+                return;
+            }
+            if (first.status == 200) {
+                firstPageEtag = first.etag;
+                firstPageCursor = first.nextCursor;
+            }
+            String cursor = firstPageCursor;
+            for (int pages = random.nextInt(3); pages > 0 && cursor != null; pages--) {
+                ApiClient.Response next = get("catalog.page", "/api/medicines?limit=" + PAGE_SIZE + "&after=" + cursor,
+                        null, System.nanoTime());
+                cursor = next == null ? null : next.nextCursor;
+            }
+        } else if (kind < 80) {
+            get("catalog.item", "/api/medicines/" + catalog.any(random).id, null, startedAt);
+        } else {
+            String query = URLEncoder.encode(catalog.searchPrefix(random), StandardCharsets.UTF_8);
+            get("catalog.search", "/api/medicines/search?q=" + query + "&limit=10", null, startedAt);
+        }
+    }
+
+    private void pollDashboard(long startedAt) throws InterruptedException {
+        get("dashboard.summary", "/api/dashboard/summary", null, startedAt);
+        get("dashboard.lowstock", "/api/dashboard/low-stock", null, System.nanoTime());
+        get("dashboard.recent", "/api/dashboard/recent-sales", null, System.nanoTime());
+    }
+
+    private void checkout(long startedAt) throws InterruptedException {
+        int lines = random.nextInt(100) < 60 ? 1 + random.nextInt(2) : 3 + random.nextInt(MAX_BASKET_LINES - 2);
+        Map<Long, Integer> basket = new LinkedHashMap<>();
+        List<Map<String, Object>> items = new ArrayList<>(lines);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            Catalog.Item item = catalog.forBasket(random);
+            int quantity = 1 + random.nextInt(3);
+            basket.merge(item.id, quantity, Integer::sum);
+            items.add(Map.of("medicineId", item.id, "quantity", quantity, "price", item.price));
+            total += quantity * item.price;
+        }
+        Map<String, Object> sale = Map.of("customerName", "Walk-in " + number, "totalAmount", total);
+        Map<String, Object> request = Map.of("sale", sale, "items", items);
+
+        ApiClient.Response response;
+        try {
+            response = client.postJson("/api/sales", token, request);
+        } catch (IOException e) {
+            stats.recordError("checkout", e.getClass().getSimpleName());
+            ledger.recordUncertain(basket.keySet());
+            return;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        if (response.ok()) {
+            stats.recordSuccess("checkout", elapsed);
+            ledger.recordSale(basket);
+        } else if (response.status == 400 && new String(response.body, StandardCharsets.UTF_8).contains("Insufficient stock")) {
+            stats.recordRejected("checkout", elapsed);
+        } else {
+            stats.recordError("checkout", cause(response));
+        }
+    }
+
+    // Null when the call failed; 304 counts as a success.
+    private ApiClient.Response get(String operation, String path, String ifNoneMatch, long startedAt)
+            throws InterruptedException {
+        try {
+            ApiClient.Response response = client.get(path, token, ifNoneMatch);
+            if (response.ok() || response.status == 304) {
+                stats.recordSuccess(operation, System.nanoTime() - startedAt);
+                return response;
+            }
+            stats.recordError(operation, cause(response));
+        } catch (IOException e) {
+            stats.recordError(operation, e.getClass().getSimpleName());
+        }
+        return null;
+    }
+
+    // Status plus the start of the server's message, so different failures are counted apart.
+    private String cause(ApiClient.Response response) {
+        String message;
+        try {
+            message = client.json(response).path("message").asText("");
+        } catch (UncheckedIOException e) {
+            message = "";
+        }
+        if (message.length() > 60) {
+            message = message.substring(0, 60) + "...";
+        }
+        return message.isEmpty() ? "HTTP " + response.status : "HTTP " + response.status + " " + message;
+    }
+}
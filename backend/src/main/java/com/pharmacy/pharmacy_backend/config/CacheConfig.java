@@ -0,0 +1,49 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.List;
+
+/**
+ * Bounded read-through caches in front of the catalog reads. Single entities and whole lists
+ * get separate size and TTL limits, since one list entry can hold hundreds of rows.
+ *
+ * Puts and evictions made inside a transaction are held back until it commits, so a rolled-back
+ * write never evicts and a reader cannot re-cache the old row between the eviction and the
+ * commit. For that the caching advice has to run inside the transaction, so the transaction
+ * advice is ordered first. Statistics are recorded for actuator's cache.gets / cache.evictions
+ * metrics.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE)
+@EnableTransactionManagement(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String MEDICINES = "medicines";
+    public static final String MEDICINE_PAGES = "medicinePages";
+    public static final String SUPPLIERS = "suppliers";
+    public static final String CUSTOMERS = "customers";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.entity-spec:maximumSize=20000,expireAfterWrite=10m}") String entitySpec,
+            @Value("${app.cache.list-spec:maximumSize=200,expireAfterWrite=5m}") String listSpec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        // Only the caches below; a mistyped cache name fails instead of creating an unbounded cache.
+        caffeine.setCacheNames(List.of());
+        caffeine.registerCustomCache(MEDICINES, Caffeine.from(entitySpec).recordStats().build());
+        caffeine.registerCustomCache(MEDICINE_PAGES, Caffeine.from(listSpec).recordStats().build());
+        caffeine.registerCustomCache(SUPPLIERS, Caffeine.from(listSpec).recordStats().build());
+        caffeine.registerCustomCache(CUSTOMERS, Caffeine.from(listSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Moves id sequences past the ids already in their table. Tables that used IDENTITY columns
+ * before switching to a pooled sequence get a fresh sequence starting at 1, which would hand
+ * out ids that are already taken. Runs once the schema update is done and before the web
+ * server accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAlignment {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAlignment.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void align() {
+        align("medicines", Medicine.ID_SEQUENCE, Medicine.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String table, String sequence, int allocationSize) {
+        String nextValue = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceNextValString(sequence);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject(nextValue, Long.class);
+
+        // A pooled sequence value v stands for the block (v - allocationSize, v].
+        if (maxId != null && maxId > 0 && next != null && next - allocationSize < maxId) {
+            long restart = maxId + allocationSize;
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+            log.info("Restarted {} at {} to clear existing {} ids", sequence, restart, table);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Copies dates that older versions stored as free text into the typed columns that replaced
+ * them. Hibernate's schema update adds the new column but cannot convert the old one, so this
+ * runs once the schema update is done and before the web server accepts requests, walking the
+ * old column in id-ordered chunks. When a pass completes, the old column is renamed to
+ * {@code <column>_legacy}, so later startups find nothing to do and never re-read it. Values that
+ * cannot be parsed are logged and skipped; they stay in the renamed column, such sales keep an
+ * empty timestamp, are listed by {@code GET /api/sales?undated=true} and count towards no day.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class LegacyDateMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyDateMigration.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LegacyDateMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs before anything that loads dates into memory at startup.
+    @PostConstruct
+    public void migrate() {
+        migrateDates("medicines", "expiry_date", "expiry_on", text -> {
+            LocalDate date = parse(text);
+            return date == null ? null : Date.valueOf(date);
+        });
+        migrateDates("sales", "sale_date", "sold_at", text -> {
+            LocalDateTime timestamp = parseTimestamp(text);
+            return timestamp == null ? null : Timestamp.valueOf(timestamp);
+        });
+    }
+
+    private void migrateDates(String table, String legacyColumn, String typedColumn, Function<String, Object> converter) {
+        if (!columnExists(table, legacyColumn)) {
+            return;
+        }
+        String select = "SELECT id, " + legacyColumn + " AS legacy FROM " + table
+                + " WHERE id > ? AND " + typedColumn + " IS NULL AND " + legacyColumn + " IS NOT NULL"
+                + " ORDER BY id LIMIT " + CHUNK_SIZE;
+        String update = "UPDATE " + table + " SET " + typedColumn + " = ? WHERE id = ?";
+
+        long after = 0;
+        int migrated = 0;
+        int skipped = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, after);
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Object value = converter.apply(String.valueOf(row.get("legacy")));
+                if (value == null) {
+                    skipped++;
+                } else {
+                    updates.add(new Object[]{value, row.get("id")});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(update, updates);
+                migrated += updates.size();
+            }
+            if (rows.size() < CHUNK_SIZE) {
+                break;
+            }
+            after = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME COLUMN " + legacyColumn + " TO " + legacyColumn + "_legacy");
+        log.info("Migrated {} {}.{} values to {}, {} unparseable; kept the old values in {}_legacy",
+                migrated, table, legacyColumn, typedColumn, skipped, legacyColumn);
+    }
+
+    private boolean columnExists(String table, String column) {
+        Boolean found = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Postgres folds unquoted identifiers to lower case, H2 to upper case.
+            for (String name : List.of(table.toLowerCase(), table.toUpperCase())) {
+                try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, name, null)) {
+                    while (columns.next()) {
+                        if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    // Full ISO timestamps keep their time of day; bare dates become the start of that day.
+    static LocalDateTime parseTimestamp(String value) {
+        String text = value.trim();
+        if (text.length() > 10 && text.charAt(4) == '-' && text.charAt(10) == 'T') {
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException ignored) {
+                // fall back to the date part
+            }
+        }
+        LocalDate date = parse(text);
+        return date == null ? null : date.atStartOfDay();
+    }
+
+    static LocalDate parse(String value) {
+        String text = value.trim();
+        // Timestamps such as 2025-01-31T00:00:00 keep just the date part.
+        if (text.length() > 10 && text.charAt(4) == '-' && text.charAt(10) == 'T') {
+            text = text.substring(0, 10);
+        }
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Trigram index behind the medicine list's name filter ({@code LOWER(name) LIKE '%x%'}), which no
+ * B-tree can serve. JPA cannot declare an expression or GIN index, so it is created here once the
+ * schema update is done and before the web server accepts requests. PostgreSQL only; elsewhere
+ * (H2 in tests) the filter scans. If pg_trgm cannot be installed the filter still works, just
+ * without the index.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MedicineNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicineNameIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MedicineNameIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void create() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_medicines_name_trgm"
+                    + " ON medicines USING gin (LOWER(name) gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            log.warn("Could not create the medicine name trigram index; name filters will scan", e);
+        }
+    }
+}
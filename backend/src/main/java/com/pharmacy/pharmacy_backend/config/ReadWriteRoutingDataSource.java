@@ -0,0 +1,88 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The application's DataSource when a read replica is configured. A connection comes from the
+ * replica pool only when all of these hold: the current transaction is read-only, it was started
+ * by a read-only service method ({@link ReplicaReadAspect}), and {@link ReplicaLagMonitor} reports
+ * the replica within its lag limit. Everything else, including the read-only transactions Spring
+ * Data opens around bare repository calls (sign-in lookups, cache fills, snapshot builds), uses
+ * the primary, so nothing that must see its own writes reads stale rows.
+ *
+ * The connection is fetched lazily, on the first statement, because the transaction manager asks
+ * for one before it has marked the transaction read-only. A replica that refuses a connection is
+ * reported to the monitor and the statement goes to the primary instead.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        super(new Router(primary, replica, lagMonitor));
+    }
+
+    /** Sets whether this thread's read-only transactions may use the replica; returns the previous value. */
+    static boolean allowReplica(boolean allowed) {
+        boolean previous = isReplicaAllowed();
+        if (allowed) {
+            REPLICA_ALLOWED.set(Boolean.TRUE);
+        } else {
+            REPLICA_ALLOWED.remove();
+        }
+        return previous;
+    }
+
+    static boolean isReplicaAllowed() {
+        return REPLICA_ALLOWED.get() != null;
+    }
+
+    private static final class Router extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final DataSource replica;
+        private final ReplicaLagMonitor lagMonitor;
+
+        Router(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+            this.primary = primary;
+            this.replica = replica;
+            this.lagMonitor = lagMonitor;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (useReplica()) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    lagMonitor.markUnavailable(e);
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            if (useReplica()) {
+                try {
+                    return replica.getConnection(username, password);
+                } catch (SQLException e) {
+                    lagMonitor.markUnavailable(e);
+                }
+            }
+            return primary.getConnection(username, password);
+        }
+
+        private boolean useReplica() {
+            return isReplicaAllowed()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    && lagMonitor.isReplicaUsable();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, on when {@code app.datasource.replica.jdbc-url} is set. The primary pool is
+ * built from {@code spring.datasource.*} as Boot would build it; the replica pool takes Hikari
+ * settings from {@code app.datasource.replica.*}. Both stay beans, so the pool metrics and the
+ * SQL statistics see each one under its own name, and the routing DataSource over them is the
+ * one JPA and JdbcTemplate use.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica-lag.query:}") String lagQuery,
+                                               @Value("${app.datasource.replica-lag.max-ms:5000}") long maxLagMillis,
+                                               @Value("${app.datasource.replica-lag.check-interval-ms:1000}") long checkIntervalMillis) {
+        return new ReplicaLagMonitor(replica,
+                StringUtils.hasText(lagQuery) ? lagQuery : ReplicaLagMonitor.POSTGRES_LAG_QUERY,
+                maxLagMillis, checkIntervalMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        return new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+}
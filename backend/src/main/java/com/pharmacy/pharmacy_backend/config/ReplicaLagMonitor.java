@@ -0,0 +1,113 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for how far it is behind the primary, on its own thread so a hung replica
+ * never delays the application's scheduled jobs. The replica counts as usable only while the last
+ * check succeeded, was recent (three intervals) and found the lag within the limit; until the
+ * first check, and whenever one fails, reads go to the primary.
+ *
+ * The default query is for a Postgres streaming replica. It reports 0 while the replica has
+ * replayed everything it received, since the last replay time alone grows on an idle primary, and
+ * null (taken as 0) on a server that is not a standby.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    public static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                    + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final long checkIntervalMillis;
+    private final long staleAfterNanos;
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "replica-lag");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile double lagSeconds = Double.NaN;
+    private volatile long checkedAt;
+    private volatile boolean withinLimit;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long checkIntervalMillis) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagMillis / 1000.0;
+        this.checkIntervalMillis = Math.max(1, checkIntervalMillis);
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(3 * this.checkIntervalMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        checker.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return withinLimit && System.nanoTime() - checkedAt <= staleAfterNanos;
+    }
+
+    // Seconds behind the primary at the last successful check; NaN before the first one.
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        double seconds;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            seconds = lag == null ? 0 : lag;
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return;
+        }
+        boolean wasUsable = isReplicaUsable();
+        lagSeconds = seconds;
+        checkedAt = System.nanoTime();
+        withinLimit = seconds <= maxLagSeconds;
+        if (wasUsable && !withinLimit) {
+            logger.warn("Read replica is {} s behind (limit {} s); reading from the primary", seconds, maxLagSeconds);
+        } else if (!wasUsable && withinLimit) {
+            logger.info("Read replica is {} s behind; read-only service calls use it", seconds);
+        }
+    }
+
+    void markUnavailable(Exception cause) {
+        if (withinLimit) {
+            logger.warn("Read replica unavailable, reading from the primary: {}", cause.toString());
+        }
+        withinLimit = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .description("Seconds the read replica is behind the primary at the last check")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("db.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only service calls are routed to the replica")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checker.shutdownNow();
+    }
+}
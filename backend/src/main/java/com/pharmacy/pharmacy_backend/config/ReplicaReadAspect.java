@@ -0,0 +1,29 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lets {@code @Transactional(readOnly = true)} methods of {@code @Service} beans read from the
+ * replica ({@link ReadWriteRoutingDataSource}). Nested calls restore the outer setting on return;
+ * a read-write transaction opened inside still uses the primary, since routing also requires the
+ * transaction itself to be read-only.
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@within(org.springframework.stereotype.Service) && @annotation(transactional)")
+    public Object allowReplica(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        boolean previous = ReadWriteRoutingDataSource.allowReplica(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.allowReplica(previous);
+        }
+    }
+}
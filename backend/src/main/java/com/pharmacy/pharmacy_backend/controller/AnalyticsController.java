@@ -0,0 +1,67 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.service.SalesAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Every window is ?from=&to= (yyyy-MM-dd, both inclusive), defaulting to the last 30 days.
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final SalesAnalyticsService analytics;
+
+    public AnalyticsController(SalesAnalyticsService analytics) {
+        this.analytics = analytics;
+    }
+
+    // Sale count and revenue per day or per month (?interval=day|month)
+    @GetMapping("/revenue")
+    public List<Map<String, Object>> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String interval) {
+        return analytics.getRevenue(from, to, SalesAnalyticsService.Interval.of(interval));
+    }
+
+    // Units sold per day for one medicine
+    @GetMapping("/medicines/{id}/daily")
+    public List<Map<String, Object>> getMedicineDaily(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analytics.getMedicineDaily(id, from, to);
+    }
+
+    // Best sellers (?by=units|revenue&limit=)
+    @GetMapping("/top-medicines")
+    public List<Map<String, Object>> getTopMedicines(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "units") String by) {
+        return analytics.getTopMedicines(from, to, limit, SalesAnalyticsService.Ranking.of(by));
+    }
+
+    // Best-selling categories (?by=units|revenue&limit=)
+    @GetMapping("/top-categories")
+    public List<Map<String, Object>> getTopCategories(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "units") String by) {
+        return analytics.getTopCategories(from, to, limit, SalesAnalyticsService.Ranking.of(by));
+    }
+
+    // ADMIN ONLY: recompute the per-medicine rollup from the raw tables (whole history by default)
+    @PostMapping("/rollups/backfill")
+    public Map<String, Object> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analytics.backfill(from, to);
+    }
+}
@@ -6,6 +6,7 @@ import com.pharmacy.pharmacy_backend.payload.response.JwtResponse;
 import com.pharmacy.pharmacy_backend.payload.response.MessageResponse;
 import com.pharmacy.pharmacy_backend.repository.UserRepository;
 import com.pharmacy.pharmacy_backend.security.JwtTokenProvider;
+import com.pharmacy.pharmacy_backend.security.PasswordHashingExecutor;
 import com.pharmacy.pharmacy_backend.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -32,11 +33,15 @@ public class AuthController {
     @Autowired
     JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    PasswordHashingExecutor hashingExecutor;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        // BCrypt runs on the hashing pool; a saturated pool answers 503 right away.
+        Authentication authentication = hashingExecutor.call("signin", () -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtTokenProvider.generateToken(authentication);
@@ -62,7 +67,7 @@ public class AuthController {
         User user = new User();
         user.setUsername(signUpRequest.getUsername());
         user.setEmail(signUpRequest.getEmail());
-        user.setPassword(encoder.encode(signUpRequest.getPassword()));
+        user.setPassword(hashingExecutor.call("signup", () -> encoder.encode(signUpRequest.getPassword())));
         user.setRole(signUpRequest.getRole() != null ? signUpRequest.getRole() : "USER");
 
         userRepository.save(user);
@@ -1,8 +1,12 @@
 package com.pharmacy.pharmacy_backend.controller;
 
 import com.pharmacy.pharmacy_backend.model.Customer;
+import com.pharmacy.pharmacy_backend.service.CatalogVersions;
 import com.pharmacy.pharmacy_backend.service.CustomerService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -11,9 +15,11 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService service;
+    private final CatalogVersions versions;
 
-    public CustomerController(CustomerService service) {
+    public CustomerController(CustomerService service, CatalogVersions versions) {
         this.service = service;
+        this.versions = versions;
     }
 
     @PostMapping
@@ -22,8 +28,13 @@ public class CustomerController {
     }
 
     @GetMapping
-    public List<Customer> getCustomers() {
-        return service.getAllCustomers();
+    public ResponseEntity<List<Customer>> getCustomers(WebRequest request) {
+        if (request.checkNotModified(versions.etag(CatalogVersions.Collection.CUSTOMERS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(service.getAllCustomers());
     }
 
     @PutMapping("/{id}")
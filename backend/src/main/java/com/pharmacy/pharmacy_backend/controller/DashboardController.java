@@ -1,11 +1,11 @@
 package com.pharmacy.pharmacy_backend.controller;
-import com.pharmacy.pharmacy_backend.model.Medicine;
 import com.pharmacy.pharmacy_backend.model.Sale;
-import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
-import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import com.pharmacy.pharmacy_backend.payload.response.LowStockItem;
+import com.pharmacy.pharmacy_backend.service.DashboardAggregateService;
+import com.pharmacy.pharmacy_backend.service.LowStockService;
+import com.pharmacy.pharmacy_backend.service.RecentSalesService;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,57 +13,60 @@ import java.util.Map;
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
-    private final MedicineRepository medicineRepository;
-    private final SaleRepository saleRepository;
+    private final DashboardAggregateService aggregates;
+    private final LowStockService lowStock;
+    private final RecentSalesService recentSales;
 
-    public DashboardController(MedicineRepository medicineRepository,
-                               SaleRepository saleRepository) {
-        this.medicineRepository = medicineRepository;
-        this.saleRepository = saleRepository;
+    public DashboardController(DashboardAggregateService aggregates,
+                               LowStockService lowStock,
+                               RecentSalesService recentSales) {
+        this.aggregates = aggregates;
+        this.lowStock = lowStock;
+        this.recentSales = recentSales;
     }
 
     @GetMapping("/total-medicines")
     public long getTotalMedicines() {
-        return medicineRepository.count();
+        return aggregates.getTotalMedicines();
     }
 
     @GetMapping("/total-sales")
     public long getTotalSales() {
-        return saleRepository.count();
+        return aggregates.getTotalSales();
     }
 
+    // Most urgent first: least stock relative to each medicine's reorder level
     @GetMapping("/low-stock")
-    public List<Medicine> getLowStockMedicines() {
-        return medicineRepository.findAll()
-                .stream()
-                .filter(m -> m.getQuantity() < 10)
-                .toList();
+    public List<LowStockItem> getLowStockMedicines(@RequestParam(defaultValue = "500") int limit) {
+        return lowStock.getLowStock(Math.max(limit, 0));
     }
 
+    // Newest first, straight from the in-memory ring buffer
     @GetMapping("/recent-sales")
-    public List<Sale> getRecentSales() {
-        return saleRepository.findAll()
-                .stream()
-                .limit(5)
-                .toList();
+    public List<Sale> getRecentSales(@RequestParam(defaultValue = "5") int limit) {
+        return recentSales.getRecentSales(limit);
     }
 
     @GetMapping("/summary")
     public Map<String, Object> getSummary() {
+        return aggregates.getSummary();
+    }
 
-        Map<String, Object> map = new HashMap<>();
-
-        map.put("totalMedicines", medicineRepository.count());
-        map.put("totalSales", saleRepository.count());
-
-        double totalRevenue = saleRepository.findAll()
-                .stream()
-                .mapToDouble(Sale::getTotalAmount)
-                .sum();
+    @GetMapping("/daily-sales")
+    public List<Map<String, Object>> getDailySales(@RequestParam(defaultValue = "30") int days) {
+        return aggregates.getDailyTotals(Math.max(1, Math.min(days, 366)));
+    }
 
-        map.put("totalRevenue", totalRevenue);
+    // ADMIN ONLY: compare the stored totals with the raw tables
+    @GetMapping("/aggregates/verify")
+    public Map<String, Object> verifyAggregates() {
+        return aggregates.verify();
+    }
 
-        return map;
+    // ADMIN ONLY: recompute the stored totals from the raw tables
+    @PostMapping("/aggregates/rebuild")
+    public Map<String, Object> rebuildAggregates() {
+        return aggregates.rebuild();
     }
 }
 
@@ -1,10 +1,25 @@
 package com.pharmacy.pharmacy_backend.controller;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import com.pharmacy.pharmacy_backend.payload.response.ExpiryReport;
+import com.pharmacy.pharmacy_backend.payload.response.ImportReport;
+import com.pharmacy.pharmacy_backend.service.CatalogVersions;
+import com.pharmacy.pharmacy_backend.service.ExpiryService;
+import com.pharmacy.pharmacy_backend.service.MedicineImportService;
+import com.pharmacy.pharmacy_backend.service.MedicineSearchService;
 import com.pharmacy.pharmacy_backend.service.MedicineService;
+import com.pharmacy.pharmacy_backend.service.MedicineSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,22 +27,104 @@ import java.util.Optional;
 @RequestMapping("/api/medicines")
 public class MedicineController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private MedicineService service;
 
+    @Autowired
+    private ExpiryService expiryService;
+
+    @Autowired
+    private MedicineImportService importService;
+
+    @Autowired
+    private MedicineSearchService searchService;
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Autowired
+    private MedicineSnapshotService snapshotService;
+
     // ADD MEDICINE
     @PostMapping
     public Medicine addMedicine(@RequestBody Medicine medicine) {
         return service.addMedicine(medicine);
     }
 
-    // GET ALL MEDICINES
+    // BULK IMPORT (text/csv with a header row, or application/x-ndjson); streamed, never buffered
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/json"})
+    public ImportReport importMedicines(HttpServletRequest request) throws IOException {
+        return importService.importMedicines(request.getInputStream(),
+                MedicineImportService.Format.fromContentType(request.getContentType()));
+    }
+
+    // GET MEDICINES (keyset paginated: pass the X-Next-Cursor value back as ?after=;
+    // a matching If-None-Match gets 304 without touching the database)
     @GetMapping
-    public List<Medicine> getAllMedicines() {
-        return service.getAllMedicines();
+    public ResponseEntity<List<Medicine>> getAllMedicines(
+            WebRequest request,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer minQuantity,
+            @RequestParam(required = false) Integer maxQuantity) {
+        if (request.checkNotModified(versions.medicinesEtag())) {
+            return null;
+        }
+        CursorPage<Medicine> page = service.getMedicinePage(after, limit, name, company, category, minQuantity, maxQuantity);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate());
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // FULL CATALOG (every medicine in id order) from the pre-serialized snapshot; gzip when accepted
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getCatalogSnapshot(
+            WebRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // The gzip variant is a different representation, so it gets its own ETag.
+        boolean gzip = snapshotService.hasGzip() && acceptsGzip(acceptEncoding);
+        String suffix = gzip ? "-gz" : "";
+        if (request.checkNotModified(snapshotService.currentEtag() + suffix)) {
+            return null;
+        }
+        MedicineSnapshotService.Snapshot snapshot = snapshotService.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(snapshot.getEtag() + suffix)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    // TYPE-AHEAD SEARCH over name, company and category, best match first
+    @GetMapping("/search")
+    public List<Medicine> searchMedicines(
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(required = false) Integer limit) {
+        return searchService.search(query, limit);
     }
 
-    // GET MEDICINE BY ID  (NEW)
+    // EXPIRY REPORT (expired / expiring within ?days= / safe)
+    @GetMapping("/expiry")
+    public ExpiryReport getExpiryReport(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Integer limit) {
+        return expiryService.getReport(days, limit);
+    }
+
+    // GET MEDICINE BY ID  (NEW); quantity is the stored stock, which with write-behind trails
+    // checkout by up to one flush
     @GetMapping("/{id}")
     public Optional<Medicine> getMedicineById(@PathVariable Long id) {
         return service.getMedicineById(id);
@@ -46,6 +143,17 @@ public class MedicineController {
         service.deleteMedicine(id);
         return "Medicine deleted successfully";
     }
-}
-
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
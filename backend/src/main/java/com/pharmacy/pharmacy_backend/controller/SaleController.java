@@ -2,29 +2,87 @@ package com.pharmacy.pharmacy_backend.controller;
 
 import com.pharmacy.pharmacy_backend.model.Sale;
 import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import com.pharmacy.pharmacy_backend.service.SaleExportService;
+import com.pharmacy.pharmacy_backend.service.SaleIdempotencyService;
 import com.pharmacy.pharmacy_backend.service.SaleService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/sales")
 public class SaleController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final SaleService service;
+    private final SaleIdempotencyService idempotency;
+    private final SaleExportService exportService;
 
-    public SaleController(SaleService service) {
+    public SaleController(SaleService service, SaleIdempotencyService idempotency, SaleExportService exportService) {
         this.service = service;
+        this.idempotency = idempotency;
+        this.exportService = exportService;
     }
 
+    // Retries carrying the same Idempotency-Key get the original sale back (marked with
+    // Idempotent-Replayed: true) instead of selling again.
     @PostMapping
-    public Sale createSale(@RequestBody SaleRequest request) {
-        return service.createSale(request.getSale(), request.getItems());
+    public ResponseEntity<Sale> createSale(@RequestBody SaleRequest request, Principal principal,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        request.getSale().setSoldBy(principal == null ? null : principal.getName());
+        SaleIdempotencyService.Result result = idempotency.submit(idempotencyKey, request.getSale(), request.getItems());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.isReplayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(result.getSale());
     }
 
+    // Sales in ?from=&to= (dates or date-times, either optional), oldest first and keyset
+    // paginated: pass the X-Next-Cursor value back as ?after=. ?undated=true lists the sales
+    // that have no timestamp instead, in id order.
     @GetMapping
-    public List<Sale> getSales() {
-        return service.getAllSales();
+    public ResponseEntity<List<Sale>> getSales(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean undated) {
+        if (undated && (from != null || to != null)) {
+            throw new IllegalArgumentException("from and to cannot be combined with undated=true");
+        }
+        CursorPage<Sale> page = undated
+                ? service.getUndatedSalePage(after, limit)
+                : service.getSalePage(from, to, after, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(MedicineController.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // Full history as a download, streamed from a database cursor (?format=ndjson|csv&items=true)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean items) {
+        SaleExportService.Format exportFormat = SaleExportService.Format.of(format);
+        StreamingResponseBody body = out -> exportService.export(out, exportFormat, items);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"sales." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 }
 
@@ -1,8 +1,12 @@
 package com.pharmacy.pharmacy_backend.controller;
 
 import com.pharmacy.pharmacy_backend.model.Supplier;
+import com.pharmacy.pharmacy_backend.service.CatalogVersions;
 import com.pharmacy.pharmacy_backend.service.SupplierService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +16,11 @@ import java.util.Optional;
 public class SupplierController {
 
     private final SupplierService service;
+    private final CatalogVersions versions;
 
-    public SupplierController(SupplierService service) {
+    public SupplierController(SupplierService service, CatalogVersions versions) {
         this.service = service;
+        this.versions = versions;
     }
 
     // ADD SUPPLIER
@@ -23,19 +29,21 @@ public class SupplierController {
         return service.addSupplier(supplier);
     }
 
-    // GET ALL SUPPLIERS
+    // GET ALL SUPPLIERS (304 when If-None-Match still matches)
     @GetMapping
-    public List<Supplier> getSuppliers() {
-        return service.getAllSuppliers();
+    public ResponseEntity<List<Supplier>> getSuppliers(WebRequest request) {
+        if (request.checkNotModified(versions.etag(CatalogVersions.Collection.SUPPLIERS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(service.getAllSuppliers());
     }
 
     // GET SUPPLIER BY ID
     @GetMapping("/{id}")
     public Optional<Supplier> getSupplierById(@PathVariable Long id) {
-        return service.getAllSuppliers()
-                .stream()
-                .filter(s -> s.getId().equals(id))
-                .findFirst();
+        return service.getSupplierById(id);
     }
 
     // UPDATE SUPPLIER
@@ -0,0 +1,13 @@
+package com.pharmacy.pharmacy_backend.exception;
+
+/**
+ * Raised when an Idempotency-Key that already produced a sale arrives with a different request.
+ * Replaying the stored sale would answer the wrong basket, so {@link GlobalExceptionHandler}
+ * answers 422 and the client has to pick a new key.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different sale");
+    }
+}
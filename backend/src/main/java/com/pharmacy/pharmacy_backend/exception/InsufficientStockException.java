@@ -0,0 +1,19 @@
+package com.pharmacy.pharmacy_backend.exception;
+
+/**
+ * Raised when a sale would take a medicine's stock below zero. Extends RuntimeException so the
+ * surrounding transaction rolls back and {@link GlobalExceptionHandler} answers 400.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long medicineId;
+
+    public InsufficientStockException(Long medicineId) {
+        super("Insufficient stock for medicine " + medicineId);
+        this.medicineId = medicineId;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pharmacy.pharmacy_backend.exception;
+
+/**
+ * Raised when a bounded resource (for example the password hashing pool) is saturated and the
+ * request is turned away instead of queued. {@link GlobalExceptionHandler} answers 503 with a
+ * Retry-After hint so clients back off briefly.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
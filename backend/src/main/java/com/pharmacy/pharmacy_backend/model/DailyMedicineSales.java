@@ -0,0 +1,83 @@
+package com.pharmacy.pharmacy_backend.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Units and line revenue of one medicine on one calendar day, summed from its sale lines.
+ * Analytics over any window read these rows instead of the sales_items table.
+ */
+@Entity
+@Table(name = "daily_medicine_sales", indexes = {
+        @Index(name = "idx_daily_medicine_sales_medicine", columnList = "medicine_id, sales_day")
+})
+@IdClass(DailyMedicineSales.Key.class)
+public class DailyMedicineSales {
+
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "medicine_id")
+    private Long medicineId;
+
+    private long units;
+
+    @Column(columnDefinition = "double precision")
+    private double revenue;
+
+    public DailyMedicineSales() {
+    }
+
+    public DailyMedicineSales(LocalDate day, Long medicineId, long units, double revenue) {
+        this.day = day;
+        this.medicineId = medicineId;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long medicineId;
+
+        public Key() {
+        }
+
+        public Key(LocalDate day, Long medicineId) {
+            this.day = day;
+            this.medicineId = medicineId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(day, key.day) && Objects.equals(medicineId, key.medicineId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, medicineId);
+        }
+    }
+}
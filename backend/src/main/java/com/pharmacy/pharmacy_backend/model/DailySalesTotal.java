@@ -0,0 +1,80 @@
+package com.pharmacy.pharmacy_backend.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One shard of the sale count and revenue for a calendar day. Sharded for the same reason as
+ * {@link DashboardCounter}.
+ */
+@Entity
+@Table(name = "daily_sales_totals")
+@IdClass(DailySalesTotal.Key.class)
+public class DailySalesTotal {
+
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    @Id
+    private int shard;
+
+    private long saleCount;
+
+    @Column(columnDefinition = "double precision")
+    private double revenue;
+
+    public DailySalesTotal() {
+    }
+
+    public DailySalesTotal(LocalDate day, int shard, long saleCount, double revenue) {
+        this.day = day;
+        this.shard = shard;
+        this.saleCount = saleCount;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public long getSaleCount() {
+        return saleCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private int shard;
+
+        public Key() {
+        }
+
+        public Key(LocalDate day, int shard) {
+            this.day = day;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return shard == key.shard && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, shard);
+        }
+    }
+}
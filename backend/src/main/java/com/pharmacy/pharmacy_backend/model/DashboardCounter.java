@@ -0,0 +1,79 @@
+package com.pharmacy.pharmacy_backend.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One shard of a running dashboard total (e.g. number of sales and their revenue). Writers
+ * bump a random shard so concurrent checkouts do not queue on a single row; readers sum the
+ * handful of shards for a name.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@IdClass(DashboardCounter.Key.class)
+public class DashboardCounter {
+
+    @Id
+    private String name;
+
+    @Id
+    private int shard;
+
+    private long total;
+
+    @Column(columnDefinition = "double precision")
+    private double amount;
+
+    public DashboardCounter() {
+    }
+
+    public DashboardCounter(String name, int shard, long total, double amount) {
+        this.name = name;
+        this.shard = shard;
+        this.total = total;
+        this.amount = amount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public static class Key implements Serializable {
+        private String name;
+        private int shard;
+
+        public Key() {
+        }
+
+        public Key(String name, int shard) {
+            this.name = name;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return shard == key.shard && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, shard);
+        }
+    }
+}
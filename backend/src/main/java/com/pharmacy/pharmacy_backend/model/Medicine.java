@@ -2,12 +2,27 @@ package com.pharmacy.pharmacy_backend.model;
 
 import javax.persistence.*;
 import javax.persistence.Column;
+import java.time.LocalDate;
+
 @Entity
-@Table(name = "medicines")
+@Table(name = "medicines", indexes = {
+        @Index(name = "idx_medicines_category_id", columnList = "category, id"),
+        @Index(name = "idx_medicines_company_id", columnList = "company, id"),
+        @Index(name = "idx_medicines_quantity", columnList = "quantity"),
+        @Index(name = "idx_medicines_reorder_level", columnList = "reorderLevel"),
+        @Index(name = "idx_medicines_expiry_on", columnList = "expiry_on, id"),
+        @Index(name = "idx_medicines_name_company", columnList = "name, company")
+})
 public class Medicine {
 
+    public static final String ID_SEQUENCE = "medicines_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence rather than IDENTITY: Hibernate can hand out ids without a round trip
+    // per row, which is what lets inserts go out as JDBC batches.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
@@ -16,7 +31,14 @@ public class Medicine {
     @Column(columnDefinition = "double precision")
     private Double price;
     private int quantity;
-    private String expiryDate;
+    // Stock level below which the medicine shows up as low stock. Rows that predate the column
+    // get the old hard-coded threshold.
+    @Column(columnDefinition = "integer default 10")
+    private Integer reorderLevel;
+    // Typed date in its own column; the old free-text expiry_date column is copied across by
+    // LegacyDateMigration and then kept as expiry_date_legacy.
+    @Column(name = "expiry_on")
+    private LocalDate expiryDate;
 
     public Medicine() {
     }
@@ -69,11 +91,19 @@ public class Medicine {
         this.quantity = quantity;
     }
 
-    public String getExpiryDate() {
+    public Integer getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(Integer reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+
+    public LocalDate getExpiryDate() {
         return expiryDate;
     }
 
-    public void setExpiryDate(String expiryDate) {
+    public void setExpiryDate(LocalDate expiryDate) {
         this.expiryDate = expiryDate;
     }
 }
@@ -2,9 +2,13 @@ package com.pharmacy.pharmacy_backend.model;
 
 import javax.persistence.*;
 import javax.persistence.Column;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_sold_at", columnList = "sold_at, id"),
+        @Index(name = "idx_sales_events_applied", columnList = "eventsApplied")
+})
 public class Sale {
 
     @Id
@@ -14,7 +18,16 @@ public class Sale {
     private String customerName;
     @Column(columnDefinition = "double precision")
     private Double totalAmount;
-    private String saleDate;
+    // Replaces the free-text sale_date column; LegacyDateMigration copies old values across.
+    @Column(name = "sold_at")
+    private LocalDateTime saleDate;
+    // Username of the signed-in user who rang the sale up; set by the server, never by the till.
+    private String soldBy;
+    // False until SaleEventPipeline has applied the sale to the dashboard totals, the analytics
+    // rollup and the audit trail. Rows written before the flag existed were applied in their own
+    // transaction, hence the default.
+    @Column(columnDefinition = "boolean default true")
+    private boolean eventsApplied = true;
 
     public Sale() {
     }
@@ -43,12 +56,28 @@ public class Sale {
         this.totalAmount = totalAmount;
     }
 
-    public String getSaleDate() {
+    public LocalDateTime getSaleDate() {
         return saleDate;
     }
 
-    public void setSaleDate(String saleDate) {
+    public void setSaleDate(LocalDateTime saleDate) {
         this.saleDate = saleDate;
     }
+
+    public String getSoldBy() {
+        return soldBy;
+    }
+
+    public void setSoldBy(String soldBy) {
+        this.soldBy = soldBy;
+    }
+
+    public boolean isEventsApplied() {
+        return eventsApplied;
+    }
+
+    public void setEventsApplied(boolean eventsApplied) {
+        this.eventsApplied = eventsApplied;
+    }
 }
 
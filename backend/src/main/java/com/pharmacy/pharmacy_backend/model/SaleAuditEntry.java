@@ -0,0 +1,72 @@
+package com.pharmacy.pharmacy_backend.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Audit record of one committed sale: who sold it, what it amounted to and when the downstream
+ * updates caught up with it. Written once per sale by the sale event pipeline, never updated.
+ */
+@Entity
+@Table(name = "sale_audit", indexes = @Index(name = "idx_sale_audit_sold_by", columnList = "soldBy, sold_at"))
+public class SaleAuditEntry {
+
+    @Id
+    private Long saleId;
+
+    private String soldBy;
+
+    @Column(name = "sold_at")
+    private LocalDateTime soldAt;
+
+    private int lineCount;
+
+    private long units;
+
+    @Column(columnDefinition = "double precision")
+    private double totalAmount;
+
+    private LocalDateTime recordedAt;
+
+    public SaleAuditEntry() {
+    }
+
+    public SaleAuditEntry(Long saleId, String soldBy, LocalDateTime soldAt, int lineCount, long units,
+                          double totalAmount, LocalDateTime recordedAt) {
+        this.saleId = saleId;
+        this.soldBy = soldBy;
+        this.soldAt = soldAt;
+        this.lineCount = lineCount;
+        this.units = units;
+        this.totalAmount = totalAmount;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getSaleId() {
+        return saleId;
+    }
+
+    public String getSoldBy() {
+        return soldBy;
+    }
+
+    public LocalDateTime getSoldAt() {
+        return soldAt;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
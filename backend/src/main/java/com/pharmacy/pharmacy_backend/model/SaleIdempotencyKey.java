@@ -0,0 +1,93 @@
+package com.pharmacy.pharmacy_backend.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A client-chosen Idempotency-Key and the sale it produced. Keys are scoped to the signed-in
+ * seller, so two users picking the same key never see each other's sales. The row is inserted
+ * at the start of the sale's transaction, so a retry carrying the same key waits for the first
+ * attempt and then finds its result instead of selling again. {@code requestHash} (SHA-256, hex)
+ * fingerprints the request so a key reused for a different basket is refused rather than
+ * answered with the wrong sale.
+ *
+ * Stored in {@code sale_idempotency_claims}: the schema update cannot change the primary key of
+ * the earlier, unscoped {@code sale_idempotency_keys} table, which holds nothing once its keys
+ * are past retention and can then be dropped.
+ */
+@Entity
+@Table(name = "sale_idempotency_claims",
+        indexes = @Index(name = "idx_sale_idempotency_claims_created_at", columnList = "createdAt"))
+@IdClass(SaleIdempotencyKey.Key.class)
+public class SaleIdempotencyKey {
+
+    public static final int MAX_KEY_LENGTH = 100;
+    // Scope for sales submitted without a signed-in user.
+    public static final String ANONYMOUS = "";
+
+    @Id
+    private String soldBy;
+
+    @Id
+    @Column(length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+
+    // Null only inside the transaction that claimed the key.
+    private Long saleId;
+
+    private LocalDateTime createdAt;
+
+    public SaleIdempotencyKey() {
+    }
+
+    public String getSoldBy() {
+        return soldBy;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Long getSaleId() {
+        return saleId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public static class Key implements Serializable {
+        private String soldBy;
+        private String idempotencyKey;
+
+        public Key() {
+        }
+
+        public Key(String soldBy, String idempotencyKey) {
+            this.soldBy = soldBy;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(soldBy, key.soldBy) && Objects.equals(idempotencyKey, key.idempotencyKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(soldBy, idempotencyKey);
+        }
+    }
+}
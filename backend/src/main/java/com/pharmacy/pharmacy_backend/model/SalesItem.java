@@ -3,7 +3,10 @@ package com.pharmacy.pharmacy_backend.model;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "sales_items")
+@Table(name = "sales_items", indexes = {
+        @Index(name = "idx_sales_items_stock_applied", columnList = "stockApplied"),
+        @Index(name = "idx_sales_items_sale_id", columnList = "saleId, id")
+})
 public class SalesItem {
 
     @Id
@@ -15,6 +18,10 @@ public class SalesItem {
     private int quantity;
     @Column(columnDefinition = "double precision")
     private Double price;
+    // False while the line's stock decrement is still waiting for the write-behind flush.
+    // Rows written before the flag existed were decremented synchronously, hence the default.
+    @Column(columnDefinition = "boolean default true")
+    private boolean stockApplied = true;
 
     public SalesItem() {
     }
@@ -58,5 +65,13 @@ public class SalesItem {
     public void setPrice(Double price) {
         this.price = price;
     }
+
+    public boolean isStockApplied() {
+        return stockApplied;
+    }
+
+    public void setStockApplied(boolean stockApplied) {
+        this.stockApplied = stockApplied;
+    }
 }
 
@@ -0,0 +1,66 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * {@code db.pool.saturation}: busy connections plus threads waiting for one, over the pool size.
+ * Above 1 means requests are queueing for a connection. Boot's own {@code hikaricp.*} meters
+ * (active, pending, acquire time) carry the detail. One gauge per Hikari pool, tagged with its name
+ * (primary and replica when reads are split).
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final ObjectProvider<DataSource> dataSources;
+
+    public ConnectionPoolMetrics(ObjectProvider<DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource pool = unwrap(dataSource);
+            if (pool != null && pools.add(pool)) {
+                bind(registry, pool);
+            }
+        });
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static void bind(MeterRegistry registry, HikariDataSource pool) {
+        Gauge.builder("db.pool.saturation", pool, ConnectionPoolMetrics::saturation)
+                .description("(active + pending) / maximum pool size")
+                .tag("pool", String.valueOf(pool.getPoolName()))
+                .register(registry);
+    }
+
+    private static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        int max = pool.getMaximumPoolSize();
+        if (bean == null || max <= 0) {
+            return 0;
+        }
+        return (double) (bean.getActiveConnections() + bean.getThreadsAwaitingConnection()) / max;
+    }
+}
@@ -0,0 +1,34 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adds a {@code controller} tag to {@code http.server.requests}, so latency histograms can be
+ * grouped per controller as well as per URI.
+ */
+@Component
+public class ControllerTagsContributor implements WebMvcTagsContributor {
+
+    private static final Tags NONE = Tags.of(Tag.of("controller", "none"));
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        if (handler instanceof HandlerMethod) {
+            return Tags.of("controller", ((HandlerMethod) handler).getBeanType().getSimpleName());
+        }
+        return NONE;
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+}
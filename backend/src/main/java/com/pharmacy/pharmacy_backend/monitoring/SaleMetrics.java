@@ -0,0 +1,99 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.service.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Checkout metrics. Meters are registered once here, so the hot path is an increment or a
+ * histogram record, never a registry lookup.
+ *
+ * {@code pharmacy.sales} counts committed sales (its rate is sale throughput);
+ * {@code pharmacy.sales.basket.lines} and {@code pharmacy.sales.basket.units} are histograms of
+ * line items and units per committed sale; {@code pharmacy.stock.conflicts} counts sales turned
+ * away for lack of stock, tagged by where the shortfall was found;
+ * {@code pharmacy.sales.idempotent.replays} counts retried submissions answered with the sale
+ * their Idempotency-Key already produced, tagged by whether the key was found in memory or in
+ * the database.
+ */
+@Component
+public class SaleMetrics {
+
+    public static final String RESERVATION = "reservation";
+    public static final String DECREMENT = "decrement";
+    public static final String MEMORY = "memory";
+    public static final String DATABASE = "database";
+
+    private final Counter sales;
+    private final DistributionSummary basketLines;
+    private final DistributionSummary basketUnits;
+    private final Counter reservationConflicts;
+    private final Counter decrementConflicts;
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+
+    public SaleMetrics(MeterRegistry registry) {
+        this.sales = Counter.builder("pharmacy.sales")
+                .description("Committed sales")
+                .register(registry);
+        this.basketLines = DistributionSummary.builder("pharmacy.sales.basket.lines")
+                .description("Line items per committed sale")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(200.0)
+                .register(registry);
+        this.basketUnits = DistributionSummary.builder("pharmacy.sales.basket.units")
+                .description("Units per committed sale")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(registry);
+        this.reservationConflicts = conflicts(registry, RESERVATION);
+        this.decrementConflicts = conflicts(registry, DECREMENT);
+        this.memoryReplays = replays(registry, MEMORY);
+        this.databaseReplays = replays(registry, DATABASE);
+    }
+
+    private static Counter replays(MeterRegistry registry, String source) {
+        return Counter.builder("pharmacy.sales.idempotent.replays")
+                .description("Sale submissions answered from an earlier attempt with the same Idempotency-Key")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private static Counter conflicts(MeterRegistry registry, String stage) {
+        return Counter.builder("pharmacy.stock.conflicts")
+                .description("Sales rejected because stock ran out")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    public void recordSaleAfterCommit(List<SalesItem> items) {
+        int lines = items.size();
+        long units = 0;
+        for (SalesItem item : items) {
+            units += item.getQuantity();
+        }
+        long committedUnits = units;
+        AfterCommit.run(() -> recordSale(lines, committedUnits));
+    }
+
+    public void recordStockConflict(String stage) {
+        (DECREMENT.equals(stage) ? decrementConflicts : reservationConflicts).increment();
+    }
+
+    public void recordIdempotentReplay(String source) {
+        (DATABASE.equals(source) ? databaseReplays : memoryReplays).increment();
+    }
+
+    private void recordSale(int lines, long units) {
+        sales.increment();
+        basketLines.record(lines);
+        basketUnits.record(units);
+    }
+}
@@ -0,0 +1,283 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statement count and time per HTTP endpoint, fed by the JDBC proxy around the DataSource
+ * ({@link SqlStatisticsDataSourcePostProcessor}), so Hibernate and JdbcTemplate statements are
+ * both seen. {@link SqlStatisticsFilter} opens a scope per request; statements outside one
+ * (scheduled flushes, startup jobs, snapshot builds) are booked under {@value #BACKGROUND}.
+ *
+ * Besides totals, each endpoint keeps the largest statement count seen in one request and the
+ * statement repeated most often within one request: a high repeat count is the usual N+1.
+ * Statements slower than the threshold are logged with their SQL but never bind values, for a
+ * sampled fraction only. Nothing here logs on the fast path.
+ */
+@Component
+public class SqlStatistics implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatistics.class);
+
+    static final String BACKGROUND = "background";
+    static final String OTHER = "other";
+    // Endpoint keys come from mapping patterns, so this only matters for junk methods or paths.
+    static final int MAX_ENDPOINTS = 500;
+    // Distinct statements tracked per request for the repeat count.
+    static final int MAX_TRACKED_STATEMENTS = 256;
+    private static final int MAX_LOGGED_SQL_LENGTH = 2000;
+
+    /** Statements made while one request was being served. */
+    public static final class RequestScope {
+        private final HttpServletRequest request;
+        private final Map<String, int[]> repeats = new HashMap<>();
+        private int statements;
+        private long nanos;
+        private int slow;
+        private int maxRepeats;
+        private String mostRepeated;
+
+        RequestScope(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        private void record(String sql, long elapsed, boolean isSlow) {
+            statements++;
+            nanos += elapsed;
+            if (isSlow) {
+                slow++;
+            }
+            int[] count = repeats.get(sql);
+            if (count == null) {
+                if (repeats.size() >= MAX_TRACKED_STATEMENTS) {
+                    return;
+                }
+                count = new int[1];
+                repeats.put(sql, count);
+            }
+            if (++count[0] > maxRepeats) {
+                maxRepeats = count[0];
+                mostRepeated = sql;
+            }
+        }
+
+        // Mapping pattern once the request reached a controller, else the raw path.
+        String endpoint() {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        }
+
+        String mappedEndpoint() {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return pattern == null ? null : request.getMethod() + " " + pattern;
+        }
+    }
+
+    private static final class EndpointStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder slow = new LongAdder();
+        int maxStatements;
+        int maxRepeats;
+        String mostRepeated;
+
+        synchronized void recordPeaks(int statementCount, int repeats, String sql) {
+            maxStatements = Math.max(maxStatements, statementCount);
+            if (repeats > maxRepeats) {
+                maxRepeats = repeats;
+                mostRepeated = sql;
+            }
+        }
+    }
+
+    /** Read-only view of one endpoint, for the actuator endpoint and tests. */
+    public static final class Summary {
+        private final String endpoint;
+        private final long requests;
+        private final long statements;
+        private final double totalTimeMs;
+        private final long slowStatements;
+        private final int maxStatementsPerRequest;
+        private final int maxRepeatsPerRequest;
+        private final String mostRepeatedStatement;
+
+        Summary(String endpoint, EndpointStats stats) {
+            this.endpoint = endpoint;
+            this.requests = stats.requests.sum();
+            this.statements = stats.statements.sum();
+            this.totalTimeMs = stats.nanos.sum() / 1_000_000.0;
+            this.slowStatements = stats.slow.sum();
+            synchronized (stats) {
+                this.maxStatementsPerRequest = stats.maxStatements;
+                this.maxRepeatsPerRequest = stats.maxRepeats;
+                this.mostRepeatedStatement = stats.mostRepeated;
+            }
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public double getStatementsPerRequest() {
+            return requests == 0 ? 0 : (double) statements / requests;
+        }
+
+        public double getTotalTimeMs() {
+            return totalTimeMs;
+        }
+
+        public double getTimePerRequestMs() {
+            return requests == 0 ? 0 : totalTimeMs / requests;
+        }
+
+        public long getSlowStatements() {
+            return slowStatements;
+        }
+
+        public int getMaxStatementsPerRequest() {
+            return maxStatementsPerRequest;
+        }
+
+        public int getMaxRepeatsPerRequest() {
+            return maxRepeatsPerRequest;
+        }
+
+        public String getMostRepeatedStatement() {
+            return mostRepeatedStatement;
+        }
+    }
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestScope> scope = new ThreadLocal<>();
+    private final ThreadLocal<long[]> startedAt = ThreadLocal.withInitial(() -> new long[1]);
+
+    public SqlStatistics(@Value("${app.sql.slow-query-threshold-ms:200}") long slowThresholdMs,
+                         @Value("${app.sql.slow-query-sample-rate:1.0}") double sampleRate) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+    public long getSlowThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public RequestScope begin(HttpServletRequest request) {
+        RequestScope requestScope = new RequestScope(request);
+        scope.set(requestScope);
+        return requestScope;
+    }
+
+    public void end(RequestScope requestScope) {
+        scope.remove();
+        String endpoint = requestScope.mappedEndpoint();
+        if (endpoint == null) {
+            endpoint = requestScope.request.getMethod() + " [unmapped]";
+        }
+        EndpointStats stats = stats(endpoint);
+        stats.requests.increment();
+        stats.statements.add(requestScope.statements);
+        stats.nanos.add(requestScope.nanos);
+        stats.slow.add(requestScope.slow);
+        stats.recordPeaks(requestScope.statements, requestScope.maxRepeats, requestScope.mostRepeated);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        startedAt.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - startedAt.get()[0];
+        String sql = queryInfoList.size() == 1 ? queryInfoList.get(0).getQuery() : join(queryInfoList);
+        boolean slow = elapsed >= slowThresholdNanos;
+
+        RequestScope requestScope = scope.get();
+        if (requestScope != null) {
+            requestScope.record(sql, elapsed, slow);
+        } else {
+            EndpointStats stats = stats(BACKGROUND);
+            stats.statements.increment();
+            stats.nanos.add(elapsed);
+            if (slow) {
+                stats.slow.increment();
+            }
+        }
+
+        if (slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.warn("Slow SQL ({} ms{}) on {}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                    requestScope != null ? requestScope.endpoint() : BACKGROUND,
+                    truncate(sql));
+        }
+    }
+
+    // Busiest endpoints (by statement time) first.
+    public List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>(endpoints.size());
+        endpoints.forEach((endpoint, stats) -> summaries.add(new Summary(endpoint, stats)));
+        summaries.sort(Comparator.comparingDouble(Summary::getTotalTimeMs).reversed()
+                .thenComparing(Summary::getEndpoint));
+        return summaries;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private EndpointStats stats(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats != null) {
+            return stats;
+        }
+        if (endpoints.size() >= MAX_ENDPOINTS) {
+            endpoint = OTHER;
+        }
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private static String join(List<QueryInfo> queryInfoList) {
+        StringBuilder sql = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (sql.length() > 0) {
+                sql.append("; ");
+            }
+            sql.append(queryInfo.getQuery());
+        }
+        return sql.toString();
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+}
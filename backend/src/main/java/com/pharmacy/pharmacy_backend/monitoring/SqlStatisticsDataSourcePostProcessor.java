@@ -0,0 +1,72 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import com.pharmacy.pharmacy_backend.config.ReadWriteRoutingDataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the DataSource in a JDBC proxy that reports every statement to {@link SqlStatistics}.
+ * The pool stays reachable through {@code unwrap}, so the Hikari metrics still bind. With a read
+ * replica each pool is wrapped and the routing DataSource over them is not, so no statement is
+ * counted twice.
+ *
+ * A post-processor is created before ordinary beans, so the statistics bean is looked up on the
+ * first statement rather than injected.
+ */
+@Component
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatistics> statistics;
+
+    public SqlStatisticsDataSourcePostProcessor(ObjectProvider<SqlStatistics> statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource) && !(bean instanceof ReadWriteRoutingDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                    .listener(new LazyListener(statistics))
+                    .build();
+        }
+        return bean;
+    }
+
+    private static final class LazyListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlStatistics> provider;
+        private volatile SqlStatistics statistics;
+
+        LazyListener(ObjectProvider<SqlStatistics> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            statistics().beforeQuery(execInfo, queryInfoList);
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            statistics().afterQuery(execInfo, queryInfoList);
+        }
+
+        private SqlStatistics statistics() {
+            SqlStatistics resolved = statistics;
+            if (resolved == null) {
+                resolved = provider.getObject();
+                statistics = resolved;
+            }
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/sqlstats}: per-endpoint statement counts and times since start-up (or the last
+ * DELETE), busiest first. Look for a high maxRepeatsPerRequest to find N+1 queries.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatisticsEndpoint {
+
+    private final SqlStatistics statistics;
+
+    public SqlStatisticsEndpoint(SqlStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slowQueryThresholdMs", statistics.getSlowThresholdMs());
+        body.put("endpoints", statistics.summaries());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
@@ -0,0 +1,38 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Books the statements a request makes against its endpoint. Runs ahead of the security chain so
+ * queries made while authenticating count too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatistics statistics;
+
+    public SqlStatisticsFilter(SqlStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics.RequestScope scope = statistics.begin(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statistics.end(scope);
+        }
+    }
+}
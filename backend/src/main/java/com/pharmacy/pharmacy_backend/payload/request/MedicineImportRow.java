@@ -0,0 +1,83 @@
+package com.pharmacy.pharmacy_backend.payload.request;
+
+import java.time.LocalDate;
+
+/**
+ * One line of a bulk medicine import. Every field is optional: a row with an id updates that
+ * medicine, a row without one updates the medicine with the same name and company or creates
+ * it, and fields left empty keep their current value.
+ */
+public class MedicineImportRow {
+	private Long id;
+	private String name;
+	private String company;
+	private String category;
+	private Double price;
+	private Integer quantity;
+	private Integer reorderLevel;
+	private LocalDate expiryDate;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public void setCompany(String company) {
+		this.company = company;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+
+	public void setCategory(String category) {
+		this.category = category;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Integer quantity) {
+		this.quantity = quantity;
+	}
+
+	public Integer getReorderLevel() {
+		return reorderLevel;
+	}
+
+	public void setReorderLevel(Integer reorderLevel) {
+		this.reorderLevel = reorderLevel;
+	}
+
+	public LocalDate getExpiryDate() {
+		return expiryDate;
+	}
+
+	public void setExpiryDate(LocalDate expiryDate) {
+		this.expiryDate = expiryDate;
+	}
+}
@@ -0,0 +1,29 @@
+package com.pharmacy.pharmacy_backend.payload.response;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is the id to pass as
+ * {@code after} for the following page, or {@code null} when the listing is exhausted.
+ */
+public class CursorPage<T> {
+	private final List<T> items;
+	private final Long nextCursor;
+
+	public CursorPage(List<T> items, Long nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public Long getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,66 @@
+package com.pharmacy.pharmacy_backend.payload.response;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Medicines split into expired, expiring within {@code horizonDays} of {@code asOf}, and safe.
+ * The counts cover every dated medicine; the lists are capped at the requested limit, with the
+ * safe list holding the soonest-expiring ones.
+ */
+public class ExpiryReport {
+	private final LocalDate asOf;
+	private final int horizonDays;
+	private final int expiredCount;
+	private final int nearExpiryCount;
+	private final int safeCount;
+	private final List<Medicine> expired;
+	private final List<Medicine> nearExpiry;
+	private final List<Medicine> safe;
+
+	public ExpiryReport(LocalDate asOf, int horizonDays, int expiredCount, int nearExpiryCount, int safeCount,
+			List<Medicine> expired, List<Medicine> nearExpiry, List<Medicine> safe) {
+		this.asOf = asOf;
+		this.horizonDays = horizonDays;
+		this.expiredCount = expiredCount;
+		this.nearExpiryCount = nearExpiryCount;
+		this.safeCount = safeCount;
+		this.expired = expired;
+		this.nearExpiry = nearExpiry;
+		this.safe = safe;
+	}
+
+	public LocalDate getAsOf() {
+		return asOf;
+	}
+
+	public int getHorizonDays() {
+		return horizonDays;
+	}
+
+	public int getExpiredCount() {
+		return expiredCount;
+	}
+
+	public int getNearExpiryCount() {
+		return nearExpiryCount;
+	}
+
+	public int getSafeCount() {
+		return safeCount;
+	}
+
+	public List<Medicine> getExpired() {
+		return expired;
+	}
+
+	public List<Medicine> getNearExpiry() {
+		return nearExpiry;
+	}
+
+	public List<Medicine> getSafe() {
+		return safe;
+	}
+}
@@ -0,0 +1,79 @@
+package com.pharmacy.pharmacy_backend.payload.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows that failed are counted in {@code failed}; the first
+ * {@link #MAX_ERRORS} of them are listed with their line number and reason.
+ */
+public class ImportReport {
+	public static final int MAX_ERRORS = 1000;
+
+	private int inserted;
+	private int updated;
+	private int failed;
+	private long elapsedMs;
+	private final List<RowError> errors = new ArrayList<>();
+
+	public void addInserted(int count) {
+		inserted += count;
+	}
+
+	public void addUpdated(int count) {
+		updated += count;
+	}
+
+	public void addError(long line, String message) {
+		failed++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add(new RowError(line, message));
+		}
+	}
+
+	public int getProcessed() {
+		return inserted + updated + failed;
+	}
+
+	public int getInserted() {
+		return inserted;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public long getElapsedMs() {
+		return elapsedMs;
+	}
+
+	public void setElapsedMs(long elapsedMs) {
+		this.elapsedMs = elapsedMs;
+	}
+
+	public List<RowError> getErrors() {
+		return errors;
+	}
+
+	public static class RowError {
+		private final long line;
+		private final String message;
+
+		public RowError(long line, String message) {
+			this.line = line;
+			this.message = message;
+		}
+
+		public long getLine() {
+			return line;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+}
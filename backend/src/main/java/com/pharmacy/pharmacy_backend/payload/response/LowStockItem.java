@@ -0,0 +1,64 @@
+package com.pharmacy.pharmacy_backend.payload.response;
+
+/**
+ * A medicine at or heading below its reorder level, as shown on the low-stock page.
+ * {@code quantity} is the stock still sellable, i.e. including sales not yet written back.
+ */
+public class LowStockItem {
+	private final Long id;
+	private final String name;
+	private final String company;
+	private final String category;
+	private final Double price;
+	private final int quantity;
+	private final int reorderLevel;
+
+	// Number parameters because the JPQL projection computes quantity as a Long.
+	public LowStockItem(Long id, String name, String company, String category, Double price,
+						Number quantity, Number reorderLevel) {
+		this.id = id;
+		this.name = name;
+		this.company = company;
+		this.category = category;
+		this.price = price;
+		this.quantity = quantity.intValue();
+		this.reorderLevel = reorderLevel == null ? 0 : reorderLevel.intValue();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public int getReorderLevel() {
+		return reorderLevel;
+	}
+
+	public boolean isBelowReorderLevel() {
+		return quantity < reorderLevel;
+	}
+
+	// Share of the reorder level still on the shelf; lower is more urgent.
+	public double getUrgency() {
+		return reorderLevel <= 0 ? 1.0 : (double) quantity / reorderLevel;
+	}
+}
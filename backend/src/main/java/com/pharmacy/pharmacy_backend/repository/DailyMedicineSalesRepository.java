@@ -0,0 +1,48 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.DailyMedicineSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyMedicineSalesRepository
+        extends JpaRepository<DailyMedicineSales, DailyMedicineSales.Key>, DailyMedicineSalesRepositoryCustom {
+
+    // Rows: [day, units, revenue]
+    @Query("SELECT d.day, d.units, d.revenue FROM DailyMedicineSales d"
+            + " WHERE d.medicineId = :medicineId AND d.day >= :from AND d.day <= :to ORDER BY d.day")
+    List<Object[]> findDaily(@Param("medicineId") Long medicineId,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+
+    // Rows: [medicineId, name, units, revenue]; name is null for a medicine deleted since.
+    @Query("SELECT d.medicineId, m.name, SUM(d.units), SUM(d.revenue) FROM DailyMedicineSales d"
+            + " LEFT JOIN Medicine m ON m.id = d.medicineId WHERE d.day >= :from AND d.day <= :to"
+            + " GROUP BY d.medicineId, m.name ORDER BY SUM(d.units) DESC, d.medicineId")
+    List<Object[]> findTopMedicinesByUnits(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT d.medicineId, m.name, SUM(d.units), SUM(d.revenue) FROM DailyMedicineSales d"
+            + " LEFT JOIN Medicine m ON m.id = d.medicineId WHERE d.day >= :from AND d.day <= :to"
+            + " GROUP BY d.medicineId, m.name ORDER BY SUM(d.revenue) DESC, d.medicineId")
+    List<Object[]> findTopMedicinesByRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    // Rows: [category, units, revenue], by each medicine's current category.
+    @Query("SELECT m.category, SUM(d.units), SUM(d.revenue) FROM DailyMedicineSales d"
+            + " JOIN Medicine m ON m.id = d.medicineId WHERE d.day >= :from AND d.day <= :to"
+            + " GROUP BY m.category ORDER BY SUM(d.units) DESC")
+    List<Object[]> findTopCategoriesByUnits(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT m.category, SUM(d.units), SUM(d.revenue) FROM DailyMedicineSales d"
+            + " JOIN Medicine m ON m.id = d.medicineId WHERE d.day >= :from AND d.day <= :to"
+            + " GROUP BY m.category ORDER BY SUM(d.revenue) DESC")
+    List<Object[]> findTopCategoriesByRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM DailyMedicineSales d WHERE d.day >= :from AND d.day <= :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
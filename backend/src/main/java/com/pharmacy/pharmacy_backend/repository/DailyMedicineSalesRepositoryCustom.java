@@ -0,0 +1,27 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface DailyMedicineSalesRepositoryCustom {
+
+    /**
+     * Adds {@code [units, revenue]} to each medicine's row for {@code day} as one JDBC batch.
+     * Returns the medicine ids that have no row for the day yet (nothing was added for them).
+     */
+    List<Long> addSales(LocalDate day, Map<Long, double[]> totalsByMedicineId);
+
+    /**
+     * Creates an empty row for {@code day} for each medicine that has none, as one JDBC batch.
+     * Safe to run inside a sale's transaction while other tills do the same.
+     */
+    void createMissingRows(LocalDate day, Collection<Long> medicineIds);
+
+    /**
+     * Inserts the rows for every day in {@code [from, to]} computed from the sales and sales_items
+     * tables in one grouped statement. The days must not have rows yet. Returns the rows written.
+     */
+    int insertFromSales(LocalDate from, LocalDate to);
+}
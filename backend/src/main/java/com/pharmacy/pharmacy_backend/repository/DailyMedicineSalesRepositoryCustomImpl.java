@@ -0,0 +1,77 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class DailyMedicineSalesRepositoryCustomImpl implements DailyMedicineSalesRepositoryCustom {
+
+    private static final String ADD_SQL =
+            "UPDATE daily_medicine_sales SET units = units + ?, revenue = revenue + ?"
+                    + " WHERE sales_day = ? AND medicine_id = ?";
+
+    // A composite key would make findAllById / saveAll one select per row; this is one batch.
+    // A concurrent insert of the same row waits for the other transaction and is then skipped.
+    private static final String CREATE_ROW_SQL =
+            "INSERT INTO daily_medicine_sales (sales_day, medicine_id, units, revenue) VALUES (?, ?, 0, 0)"
+                    + " ON CONFLICT DO NOTHING";
+
+    // Grouped in the database, so a backfill never moves line items into the application. Sales
+    // still waiting for the event pipeline are left for it to add.
+    private static final String INSERT_FROM_SALES_SQL =
+            "INSERT INTO daily_medicine_sales (sales_day, medicine_id, units, revenue)"
+                    + " SELECT CAST(s.sold_at AS DATE), i.medicine_id, SUM(i.quantity), SUM(i.quantity * COALESCE(i.price, 0))"
+                    + " FROM sales s JOIN sales_items i ON i.sale_id = s.id"
+                    + " WHERE s.sold_at >= ? AND s.sold_at < ? AND s.events_applied = TRUE AND i.medicine_id IS NOT NULL"
+                    + " GROUP BY CAST(s.sold_at AS DATE), i.medicine_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DailyMedicineSalesRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> addSales(LocalDate day, Map<Long, double[]> totalsByMedicineId) {
+        Date sqlDay = Date.valueOf(day);
+        List<Object[]> args = new ArrayList<>(totalsByMedicineId.size());
+        List<Long> ids = new ArrayList<>(totalsByMedicineId.size());
+        totalsByMedicineId.forEach((id, totals) -> {
+            args.add(new Object[]{(long) totals[0], totals[1], sqlDay, id});
+            ids.add(id);
+        });
+
+        int[] counts = jdbcTemplate.batchUpdate(ADD_SQL, args);
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) means the driver applied the row but did not report a count.
+            if (counts[i] == 0) {
+                missing.add(ids.get(i));
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public void createMissingRows(LocalDate day, Collection<Long> medicineIds) {
+        Date sqlDay = Date.valueOf(day);
+        List<Object[]> args = new ArrayList<>(medicineIds.size());
+        for (Long id : medicineIds) {
+            args.add(new Object[]{sqlDay, id});
+        }
+        jdbcTemplate.batchUpdate(CREATE_ROW_SQL, args);
+    }
+
+    @Override
+    public int insertFromSales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.update(INSERT_FROM_SALES_SQL,
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+}
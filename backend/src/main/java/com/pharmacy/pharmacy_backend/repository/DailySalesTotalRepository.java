@@ -0,0 +1,30 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.DailySalesTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailySalesTotalRepository extends JpaRepository<DailySalesTotal, DailySalesTotal.Key>,
+        DailySalesTotalRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE DailySalesTotal d SET d.saleCount = d.saleCount + :count, d.revenue = d.revenue + :amount"
+            + " WHERE d.day = :day AND d.shard = :shard")
+    int recordSales(@Param("day") LocalDate day, @Param("shard") int shard,
+                    @Param("count") long count, @Param("amount") double amount);
+
+    // Rows: [day, saleCount, revenue]
+    @Query("SELECT d.day, SUM(d.saleCount), SUM(d.revenue) FROM DailySalesTotal d"
+            + " WHERE d.day >= :from GROUP BY d.day ORDER BY d.day")
+    List<Object[]> findDailyTotalsSince(@Param("from") LocalDate from);
+
+    // Same rows, bounded on both sides.
+    @Query("SELECT d.day, SUM(d.saleCount), SUM(d.revenue) FROM DailySalesTotal d"
+            + " WHERE d.day >= :from AND d.day <= :to GROUP BY d.day ORDER BY d.day")
+    List<Object[]> findDailyTotalsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,12 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import java.time.LocalDate;
+
+public interface DailySalesTotalRepositoryCustom {
+
+    /**
+     * Creates the empty shard rows {@code 0..shards-1} for {@code day} as one JDBC batch, skipping
+     * any that already exist. Safe to run inside a sale's transaction while other tills do the same.
+     */
+    void createDay(LocalDate day, int shards);
+}
@@ -0,0 +1,33 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class DailySalesTotalRepositoryCustomImpl implements DailySalesTotalRepositoryCustom {
+
+    // A concurrent insert of the same row waits for the other transaction and is then skipped,
+    // so the caller's transaction never fails on it.
+    private static final String CREATE_SHARD_SQL =
+            "INSERT INTO daily_sales_totals (sales_day, shard, sale_count, revenue) VALUES (?, ?, 0, 0)"
+                    + " ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DailySalesTotalRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void createDay(LocalDate day, int shards) {
+        Date sqlDay = Date.valueOf(day);
+        List<Object[]> args = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            args.add(new Object[]{sqlDay, shard});
+        }
+        jdbcTemplate.batchUpdate(CREATE_SHARD_SQL, args);
+    }
+}
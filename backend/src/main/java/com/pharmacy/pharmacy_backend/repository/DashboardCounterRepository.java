@@ -0,0 +1,39 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, DashboardCounter.Key>,
+        DashboardCounterRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.total = c.total + :delta, c.amount = c.amount + :amount"
+            + " WHERE c.name = :name AND c.shard = :shard")
+    int increment(@Param("name") String name, @Param("shard") int shard,
+                  @Param("delta") long delta, @Param("amount") double amount);
+
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.total = CASE WHEN c.shard = 0 THEN :total ELSE 0 END,"
+            + " c.amount = CASE WHEN c.shard = 0 THEN :amount ELSE 0 END WHERE c.name = :name")
+    int reset(@Param("name") String name, @Param("total") long total, @Param("amount") double amount);
+
+    // Every shard row, locked in a fixed order; writers bumping a shard wait until the lock holder
+    // commits.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DashboardCounter c ORDER BY c.name, c.shard")
+    List<DashboardCounter> lockAll();
+
+    // Rows: [name, total, amount]
+    @Query("SELECT c.name, SUM(c.total), SUM(c.amount) FROM DashboardCounter c GROUP BY c.name")
+    List<Object[]> sumByName();
+
+    @Query("SELECT COALESCE(SUM(c.total), 0) FROM DashboardCounter c WHERE c.name = :name")
+    long sumTotal(@Param("name") String name);
+}
@@ -0,0 +1,10 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+public interface DashboardCounterRepositoryCustom {
+
+    /**
+     * Creates the empty shard rows {@code 0..shards-1} for {@code name} as one JDBC batch, skipping
+     * any that already exist. Safe to run inside a writer's transaction while others do the same.
+     */
+    void createShards(String name, int shards);
+}
@@ -0,0 +1,30 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class DashboardCounterRepositoryCustomImpl implements DashboardCounterRepositoryCustom {
+
+    // A concurrent insert of the same row waits for the other transaction and is then skipped,
+    // so the caller's transaction never fails on it.
+    private static final String CREATE_SHARD_SQL =
+            "INSERT INTO dashboard_counters (name, shard, total, amount) VALUES (?, ?, 0, 0)"
+                    + " ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DashboardCounterRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void createShards(String name, int shards) {
+        List<Object[]> args = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            args.add(new Object[]{name, shard});
+        }
+        jdbcTemplate.batchUpdate(CREATE_SHARD_SQL, args);
+    }
+}
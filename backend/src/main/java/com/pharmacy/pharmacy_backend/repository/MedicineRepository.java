@@ -1,11 +1,82 @@
 package com.pharmacy.pharmacy_backend.repository;
 
 import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.LowStockItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface MedicineRepository extends JpaRepository<Medicine, Long> {
+public interface MedicineRepository extends JpaRepository<Medicine, Long>, MedicineRepositoryCustom {
 
-}
+    // Keyset page: rows strictly after the cursor id, in id order. Every filter is optional.
+    // Returning a List (not a Page) keeps Spring Data from issuing a count(*) per request.
+    // The substring name filter is served on PostgreSQL by the trigram index (MedicineNameIndex).
+    @Query("SELECT m FROM Medicine m WHERE m.id > :after"
+            + " AND (:name IS NULL OR LOWER(m.name) LIKE :name)"
+            + " AND (:company IS NULL OR m.company = :company)"
+            + " AND (:category IS NULL OR m.category = :category)"
+            + " AND (:minQuantity IS NULL OR m.quantity >= :minQuantity)"
+            + " AND (:maxQuantity IS NULL OR m.quantity <= :maxQuantity)"
+            + " ORDER BY m.id ASC")
+    List<Medicine> findPageAfter(@Param("after") long after,
+                                 @Param("name") String namePattern,
+                                 @Param("company") String company,
+                                 @Param("category") String category,
+                                 @Param("minQuantity") Integer minQuantity,
+                                 @Param("maxQuantity") Integer maxQuantity,
+                                 Pageable pageable);
+
+    // Stock still sellable per medicine: stored quantity minus sold lines not yet written back.
+    // One statement so the two numbers come from the same snapshot. Rows: [id, quantity, pending].
+    @Query("SELECT m.id, m.quantity, COALESCE(SUM(i.quantity), 0) FROM Medicine m"
+            + " LEFT JOIN SalesItem i ON i.medicineId = m.id AND i.stockApplied = false"
+            + " WHERE m.id IN :ids GROUP BY m.id, m.quantity")
+    List<Object[]> findStockWithPending(@Param("ids") Collection<Long> ids);
+
+    // Row-locks the medicines for the rest of the transaction, so a quantity read here is the one
+    // the transaction overwrites or decrements; edits and the stock flush serialise on it. Locked
+    // in id order, so two transactions locking overlapping sets cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medicine m WHERE m.id IN :ids ORDER BY m.id")
+    List<Medicine> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Sellable stock and reorder level for the given medicines, projected so the result never
+    // comes from (possibly stale) managed entities.
+    @Query("SELECT new com.pharmacy.pharmacy_backend.payload.response.LowStockItem("
+            + "m.id, m.name, m.company, m.category, m.price, m.quantity - COALESCE(SUM(i.quantity), 0), m.reorderLevel)"
+            + " FROM Medicine m LEFT JOIN SalesItem i ON i.medicineId = m.id AND i.stockApplied = false"
+            + " WHERE m.id IN :ids"
+            + " GROUP BY m.id, m.name, m.company, m.category, m.price, m.quantity, m.reorderLevel")
+    List<LowStockItem> findStockLevels(@Param("ids") Collection<Long> ids);
 
+    // Medicines below their reorder level. The ceiling (highest reorder level in use) turns this
+    // into a range scan on the quantity index instead of a full table scan.
+    @Query("SELECT new com.pharmacy.pharmacy_backend.payload.response.LowStockItem("
+            + "m.id, m.name, m.company, m.category, m.price, m.quantity, m.reorderLevel)"
+            + " FROM Medicine m WHERE m.quantity < :ceiling AND m.quantity < m.reorderLevel")
+    List<LowStockItem> findBelowReorderLevel(@Param("ceiling") int ceiling);
+
+    @Query("SELECT COALESCE(MAX(m.reorderLevel), 0) FROM Medicine m")
+    int findMaxReorderLevel();
+
+    // [id, expiryDate] for every dated medicine; covered by the expiry index.
+    @Query("SELECT m.id, m.expiryDate FROM Medicine m WHERE m.expiryDate IS NOT NULL")
+    List<Object[]> findExpiryDates();
+
+    // [id, name, company, category] for every medicine; loads the type-ahead index.
+    @Query("SELECT m.id, m.name, m.company, m.category FROM Medicine m")
+    List<Object[]> findSearchFields();
+
+    // Import matching by name (and then company); served by the name/company index. Row-locked
+    // in id order like lockByIdIn, because the import overwrites the quantity.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Medicine> findByNameInOrderById(Collection<String> names);
+}
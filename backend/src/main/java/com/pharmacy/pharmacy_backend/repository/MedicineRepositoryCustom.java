@@ -0,0 +1,13 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MedicineRepositoryCustom {
+
+    /**
+     * Applies {@code quantity = quantity - n} for every entry as one JDBC batch, guarded by
+     * {@code quantity >= n}. Returns the ids whose guard failed (nothing was changed for them).
+     */
+    List<Long> decrementStock(Map<Long, Integer> quantitiesByMedicineId);
+}
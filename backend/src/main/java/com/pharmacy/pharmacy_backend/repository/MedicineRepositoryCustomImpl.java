@@ -0,0 +1,40 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class MedicineRepositoryCustomImpl implements MedicineRepositoryCustom {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE medicines SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    MedicineRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantitiesByMedicineId) {
+        List<Object[]> args = new ArrayList<>(quantitiesByMedicineId.size());
+        List<Long> ids = new ArrayList<>(quantitiesByMedicineId.size());
+        quantitiesByMedicineId.forEach((id, qty) -> {
+            args.add(new Object[]{qty, id, qty});
+            ids.add(id);
+        });
+
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) means the driver applied the row but did not report a count.
+            if (counts[i] == 0) {
+                rejected.add(ids.get(i));
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SaleAuditEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SaleAuditRepository extends JpaRepository<SaleAuditEntry, Long>, SaleAuditRepositoryCustom {
+}
@@ -0,0 +1,11 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SaleAuditEntry;
+
+import java.util.List;
+
+public interface SaleAuditRepositoryCustom {
+
+    // Inserts all entries as one JDBC batch.
+    void batchInsert(List<SaleAuditEntry> entries);
+}
@@ -0,0 +1,40 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SaleAuditEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// The key is the sale id, assigned rather than generated, so saveAll would select each row
+// before inserting it; one batch on the transaction's connection instead.
+class SaleAuditRepositoryCustomImpl implements SaleAuditRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sale_audit (sale_id, sold_by, sold_at, line_count, units, total_amount, recorded_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SaleAuditRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<SaleAuditEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getSaleId());
+            ps.setString(2, entry.getSoldBy());
+            if (entry.getSoldAt() != null) {
+                ps.setTimestamp(3, Timestamp.valueOf(entry.getSoldAt()));
+            } else {
+                ps.setNull(3, Types.TIMESTAMP);
+            }
+            ps.setInt(4, entry.getLineCount());
+            ps.setLong(5, entry.getUnits());
+            ps.setDouble(6, entry.getTotalAmount());
+            ps.setTimestamp(7, Timestamp.valueOf(entry.getRecordedAt()));
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SaleIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SaleIdempotencyKeyRepository extends JpaRepository<SaleIdempotencyKey, SaleIdempotencyKey.Key>,
+        SaleIdempotencyKeyRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE SaleIdempotencyKey k SET k.saleId = :saleId WHERE k.soldBy = :soldBy AND k.idempotencyKey = :key")
+    int attachSale(@Param("soldBy") String soldBy, @Param("key") String key, @Param("saleId") Long saleId);
+
+    // Rows: [requestHash, sale]; empty when the seller has no such key.
+    @Query("SELECT k.requestHash, s FROM SaleIdempotencyKey k, Sale s"
+            + " WHERE k.soldBy = :soldBy AND k.idempotencyKey = :key AND s.id = k.saleId")
+    List<Object[]> findReplay(@Param("soldBy") String soldBy, @Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM SaleIdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,11 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+public interface SaleIdempotencyKeyRepositoryCustom {
+
+    /**
+     * Inserts the seller's key unless it already exists; returns false if it did. A concurrent
+     * claim of the same key waits until the other transaction ends, so false means another
+     * attempt with this key has committed.
+     */
+    boolean claim(String soldBy, String key, String requestHash);
+}
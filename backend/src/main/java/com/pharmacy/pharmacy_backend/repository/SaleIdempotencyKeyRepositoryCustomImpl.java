@@ -0,0 +1,25 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+class SaleIdempotencyKeyRepositoryCustomImpl implements SaleIdempotencyKeyRepositoryCustom {
+
+    // The insert is the lookup: no select first, and the primary key settles concurrent retries.
+    private static final String CLAIM_SQL =
+            "INSERT INTO sale_idempotency_claims (sold_by, idempotency_key, request_hash, created_at)"
+                    + " VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SaleIdempotencyKeyRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String soldBy, String key, String requestHash) {
+        return jdbcTemplate.update(CLAIM_SQL, soldBy, key, requestHash, Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+}
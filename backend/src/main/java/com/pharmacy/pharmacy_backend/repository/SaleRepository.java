@@ -1,7 +1,88 @@
 package com.pharmacy.pharmacy_backend.repository;
 
 import com.pharmacy.pharmacy_backend.model.Sale;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface SaleRepository extends JpaRepository<Sale, Long> {
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    List<Sale> findByOrderByIdDesc(Pageable pageable);
+
+    // Keyset page of sales with from <= saleDate < to, in (saleDate, id) order. The cursor is the
+    // last row returned: pass its saleDate as from and its id as afterId (0 for the first page).
+    // Both bounds are always set, so this is a range scan of idx_sales_sold_at and the cost grows
+    // with the page, not with the table.
+    @Query("SELECT s FROM Sale s WHERE s.saleDate >= :from AND s.saleDate < :to"
+            + " AND (s.saleDate > :from OR s.id > :afterId)"
+            + " ORDER BY s.saleDate, s.id")
+    List<Sale> findRangeAfter(@Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              @Param("afterId") long afterId,
+                              Pageable pageable);
+
+    // Keyset page of sales without a timestamp (legacy rows whose date could not be migrated),
+    // in id order. They fall outside every date range, so findRangeAfter never returns them.
+    @Query("SELECT s FROM Sale s WHERE s.saleDate IS NULL AND s.id > :afterId ORDER BY s.id")
+    List<Sale> findUndatedAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT MIN(s.saleDate) FROM Sale s")
+    LocalDateTime findFirstSaleDate();
+
+    @Query("SELECT MAX(s.saleDate) FROM Sale s")
+    LocalDateTime findLastSaleDate();
+
+    @Query("SELECT s.saleDate FROM Sale s WHERE s.id = :id")
+    LocalDateTime findSaleDateById(@Param("id") Long id);
+
+    // Rows: [day, count, revenue]. Used only to rebuild the dashboard aggregates, so it counts only
+    // sales the event pipeline has applied; the rest are added when the pipeline gets to them.
+    // Undated sales belong to no day and are left out.
+    @Query("SELECT CAST(s.saleDate AS date), COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s"
+            + " WHERE s.eventsApplied = true AND s.saleDate IS NOT NULL GROUP BY CAST(s.saleDate AS date)")
+    List<Object[]> sumBySaleDay();
+
+    // Oldest sales whose events have not been applied yet, for the pipeline's catch-up.
+    @Query("SELECT s FROM Sale s WHERE s.eventsApplied = false ORDER BY s.id ASC")
+    List<Sale> findPendingEvents(Pageable pageable);
+
+    // The given sales that are still unapplied, row-locked so two consumers can never apply the
+    // same sale twice.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Sale s WHERE s.id IN :ids AND s.eventsApplied = false")
+    List<Sale> lockPendingEvents(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Sale s SET s.eventsApplied = true WHERE s.id IN :ids")
+    int markEventsApplied(@Param("ids") Collection<Long> ids);
+
+    // Export cursors. Scalar rows are never attached to the persistence context, so memory stays
+    // flat however long the history; must be consumed inside a (read-only) transaction.
+    // Rows: [id, customerName, totalAmount, saleDate]
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT s.id, s.customerName, s.totalAmount, s.saleDate FROM Sale s ORDER BY s.id")
+    Stream<Object[]> streamForExport();
+
+    // Rows: [id, customerName, totalAmount, saleDate, itemId, medicineId, quantity, price], item
+    // columns null for a sale without lines; ordered so each sale's lines are adjacent.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT s.id, s.customerName, s.totalAmount, s.saleDate, i.id, i.medicineId, i.quantity, i.price"
+            + " FROM Sale s LEFT JOIN SalesItem i ON i.saleId = s.id ORDER BY s.id, i.id")
+    Stream<Object[]> streamWithItemsForExport();
 }
@@ -1,8 +1,28 @@
 package com.pharmacy.pharmacy_backend.repository;
 
 import com.pharmacy.pharmacy_backend.model.SalesItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface SalesItemRepository extends JpaRepository<SalesItem, Long> {
-}
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface SalesItemRepository extends JpaRepository<SalesItem, Long>, SalesItemRepositoryCustom {
+
+    // Oldest lines whose stock decrement has not been written back yet, row-locked so two
+    // flushers can never apply the same line twice.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM SalesItem i WHERE i.stockApplied = false ORDER BY i.id ASC")
+    List<SalesItem> findPendingStock(Pageable pageable);
 
+    List<SalesItem> findBySaleIdIn(Collection<Long> saleIds);
+
+    @Modifying
+    @Query("UPDATE SalesItem i SET i.stockApplied = true WHERE i.id IN :ids")
+    int markStockApplied(@Param("ids") Collection<Long> ids);
+}
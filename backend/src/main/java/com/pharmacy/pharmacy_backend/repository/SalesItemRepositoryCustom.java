@@ -0,0 +1,11 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+
+import java.util.List;
+
+public interface SalesItemRepositoryCustom {
+
+    // Inserts all lines as one JDBC batch. Generated ids are not read back.
+    void batchInsert(List<SalesItem> items);
+}
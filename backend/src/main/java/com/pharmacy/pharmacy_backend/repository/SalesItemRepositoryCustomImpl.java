@@ -0,0 +1,36 @@
+package com.pharmacy.pharmacy_backend.repository;
+
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+// sales_items uses IDENTITY keys, which makes Hibernate insert row by row; going through
+// JDBC directly lets the whole basket share one batch on the transaction's connection.
+class SalesItemRepositoryCustomImpl implements SalesItemRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sales_items (sale_id, medicine_id, quantity, price, stock_applied) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SalesItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<SalesItem> items) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getSaleId());
+            ps.setLong(2, item.getMedicineId());
+            ps.setInt(3, item.getQuantity());
+            if (item.getPrice() != null) {
+                ps.setDouble(4, item.getPrice());
+            } else {
+                ps.setNull(4, Types.DOUBLE);
+            }
+            ps.setBoolean(5, item.isStockApplied());
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.pharmacy.pharmacy_backend.security;
 
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenPrincipalCache principalCache;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
@@ -31,10 +35,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
+            UserDetails userDetails = StringUtils.hasText(jwt) ? resolvePrincipal(jwt) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -47,6 +50,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Cache hit: one map lookup. Miss: one signature check plus one user query, then cached
+    // until the token expires.
+    private UserDetails resolvePrincipal(String jwt) {
+        UserDetailsImpl cached = principalCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = tokenProvider.parseToken(jwt);
+        if (claims == null) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof UserDetailsImpl && claims.getExpiration() != null) {
+            principalCache.put(jwt, (UserDetailsImpl) userDetails, claims.getExpiration().getTime());
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
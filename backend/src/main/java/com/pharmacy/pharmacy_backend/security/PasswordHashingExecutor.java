@@ -0,0 +1,113 @@
+package com.pharmacy.pharmacy_backend.security;
+
+import com.pharmacy.pharmacy_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs sign-in and sign-up on a small dedicated pool so CPU-bound BCrypt work cannot starve the
+ * servlet threads serving catalog and checkout. The queue is bounded: when it is full, or a job
+ * waits past the timeout, the caller gets a {@link ServiceUnavailableException} (503) straight
+ * away instead of piling up behind a login storm.
+ *
+ * Timers: {@code auth.hashing.queue} (time waiting for a worker) and {@code auth.hashing.run}
+ * (time on the worker), both tagged by operation; {@code auth.hashing.rejected} counts turned
+ * away requests.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMs;
+    private final MeterRegistry registry;
+
+    public PasswordHashingExecutor(@Value("${app.auth.hashing.threads:0}") int threads,
+                                   @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMs,
+                                   MeterRegistry registry) {
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.registry = registry;
+        registry.gauge("auth.hashing.queue.depth", pool, executor -> executor.getQueue().size());
+        registry.gauge("auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * Runs the work on the hashing pool and waits for it. Exceptions thrown by the work (bad
+     * credentials, disabled account) reach the caller unchanged.
+     */
+    public <T> T call(String operation, Callable<T> work) {
+        Timer queueTimer = registry.timer("auth.hashing.queue", "operation", operation);
+        Timer runTimer = registry.timer("auth.hashing.run", "operation", operation);
+        long submitted = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = pool.submit(() -> {
+                long started = System.nanoTime();
+                queueTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return work.call();
+                } finally {
+                    runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected(operation).increment();
+            throw new ServiceUnavailableException("Too many sign-in requests, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected(operation).increment();
+            throw new ServiceUnavailableException("Sign-in is taking too long, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Sign-in was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Counter rejected(String operation) {
+        return registry.counter("auth.hashing.rejected", "operation", operation);
+    }
+}
@@ -1,6 +1,8 @@
 package com.pharmacy.pharmacy_backend.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +11,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -40,9 +41,11 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // Stored hashes with a different cost factor are re-hashed on the next successful sign-in.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength,
+                                           MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(strength, meterRegistry);
     }
 
     @Bean
@@ -56,6 +59,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "ETag", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -71,9 +75,14 @@ public class SecurityConfig {
             .sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .antMatchers("/api/auth/**").permitAll()
+                .antMatchers("/api/dashboard/aggregates/**").hasAuthority("ADMIN")
+                .antMatchers("/api/analytics/rollups/**").hasAuthority("ADMIN")
                 .antMatchers("/api/dashboard/**").permitAll()
                 .antMatchers("/h2-console/**").permitAll()
-                .antMatchers("/actuator/**").permitAll()
+                // Only the health check is public; metrics, the Prometheus scrape, caches and
+                // SQL statistics describe traffic and data, so they need an admin token.
+                .antMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .antMatchers("/actuator/**").hasAuthority("ADMIN")
                 .antMatchers("/api/health", "/api/root").permitAll()
                 .anyRequest().authenticated()
             );
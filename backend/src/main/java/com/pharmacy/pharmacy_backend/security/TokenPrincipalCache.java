@@ -0,0 +1,96 @@
+package com.pharmacy.pharmacy_backend.security;
+
+import com.pharmacy.pharmacy_backend.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified tokens mapped to the principal they authenticated, so a repeat request with the same
+ * token costs one hash lookup instead of a signature check and a user query. Entries die with
+ * the token's own expiry, the map is capped in size, and all of a user's entries are dropped
+ * when a {@link UserChangedEvent} reports that user row changed (role, enabled flag, anything else).
+ */
+@Component
+public class TokenPrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public TokenPrincipalCache(@Value("${app.jwt.principal-cache-size:10000}") int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    public UserDetailsImpl get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    public void put(String token, UserDetailsImpl principal, long expiresAt) {
+        if (maxEntries == 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(token, new Entry(principal, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops the user's tokens now and, if a transaction is open, again once it commits so a
+    // request racing the commit cannot leave the old principal cached.
+    public void evictUser(Long userId) {
+        removeUser(userId);
+        AfterCommit.run(() -> removeUser(userId));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void removeUser(Long userId) {
+        entries.values().removeIf(entry -> entry.principal.getId().equals(userId));
+    }
+
+    // Expired entries go first; if none were, an arbitrary tenth of the map is dropped. Evicted
+    // tokens are still valid and simply take the slow path on their next request.
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> tokens = entries.keySet().iterator();
+        while (excess-- > 0 && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final UserDetailsImpl principal;
+        private final long expiresAt;
+
+        private Entry(UserDetailsImpl principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.pharmacy.pharmacy_backend.security;
+
+/**
+ * Published by code that changes a user row (password, role, enabled flag) or deletes it, so
+ * {@link TokenPrincipalCache} drops the user's cached principals. Publish it inside the
+ * transaction that makes the change.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -14,13 +14,20 @@ public class UserDetailsImpl implements UserDetails {
     private String password;
     private String email;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled;
 
     public UserDetailsImpl(Long id, String username, String password, String email, Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, password, email, authorities, true);
+    }
+
+    public UserDetailsImpl(Long id, String username, String password, String email,
+                           Collection<? extends GrantedAuthority> authorities, boolean enabled) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.email = email;
         this.authorities = authorities;
+        this.enabled = enabled;
     }
 
     public static UserDetailsImpl build(User user) {
@@ -30,7 +37,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getUsername(),
                 user.getPassword(),
                 user.getEmail(),
-                Collections.singletonList(authority)
+                Collections.singletonList(authority),
+                user.isEnabled()
         );
     }
 
@@ -66,7 +74,7 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     public Long getId() {
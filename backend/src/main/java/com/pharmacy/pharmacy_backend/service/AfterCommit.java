@@ -0,0 +1,34 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Side effects that must only happen once the surrounding transaction has committed: in-memory
+ * counters, caches, metrics and event hand-offs. Outside a transaction the action runs at once.
+ *
+ * Actions run when the transaction has completed, after every after-commit callback (including
+ * the transactional cache evictions from {@code CacheConfig}), so they see the caches already
+ * cleared. A rolled-back transaction drops them. An action that throws is logged by Spring and
+ * does not fail the committed transaction's caller.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.config.CacheConfig;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Evictions for writes that bypass the cached service methods, such as stock changes made by
+ * sales, the write-behind flush and bulk imports. Inside a transaction they take effect when it
+ * commits (see {@link CacheConfig}). The matching {@link CatalogVersions} collection is bumped
+ * along with them.
+ */
+@Component
+public class CatalogCache {
+
+    private final CacheManager cacheManager;
+    private final CatalogVersions versions;
+
+    public CatalogCache(CacheManager cacheManager, CatalogVersions versions) {
+        this.cacheManager = cacheManager;
+        this.versions = versions;
+    }
+
+    // Catalog fields changed: drops the medicines' own entries and every cached page, since a page
+    // filtered by name, company or category may now gain or lose any of them.
+    public void evictMedicines(Collection<Long> medicineIds) {
+        evictEntries(medicineIds);
+        Cache pages = cacheManager.getCache(CacheConfig.MEDICINE_PAGES);
+        if (pages != null) {
+            pages.clear();
+        }
+        versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
+    }
+
+    /**
+     * Only stock levels changed: drops the medicines' own entries and just the cached pages that
+     * list one of them. Pages filtered by quantity are never cached (see
+     * {@link MedicineService#getMedicinePage}), so no other page can change. Bumps the stock
+     * version, leaving the catalog version alone.
+     */
+    public void evictStock(Collection<Long> medicineIds) {
+        evictEntries(medicineIds);
+        Cache pages = cacheManager.getCache(CacheConfig.MEDICINE_PAGES);
+        if (pages != null && !medicineIds.isEmpty()) {
+            Set<Long> ids = new HashSet<>(medicineIds);
+            AfterCommit.run(() -> evictPagesListing(pages, ids));
+        }
+        versions.bumpAfterCommit(CatalogVersions.Collection.STOCK);
+    }
+
+    private void evictEntries(Collection<Long> medicineIds) {
+        Cache medicines = cacheManager.getCache(CacheConfig.MEDICINES);
+        if (medicines != null) {
+            medicineIds.forEach(medicines::evict);
+        }
+    }
+
+    // Walks the bounded page cache (a few hundred entries at most) rather than indexing it by id.
+    private static void evictPagesListing(Cache pages, Set<Long> medicineIds) {
+        if (!(pages.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)) {
+            pages.clear();
+            return;
+        }
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativePages =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) pages.getNativeCache();
+        nativePages.asMap().values().removeIf(page -> lists(page, medicineIds));
+    }
+
+    private static boolean lists(Object page, Set<Long> medicineIds) {
+        if (!(page instanceof CursorPage)) {
+            return true;
+        }
+        for (Object item : ((CursorPage<?>) page).getItems()) {
+            if (!(item instanceof Medicine) || medicineIds.contains(((Medicine) item).getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the catalog collections, used as ETags on the list endpoints. Every write
+ * through the services bumps its collection, so a client holding the current ETag can be answered
+ * with 304 before any query runs.
+ *
+ * Inside a transaction the bump waits until the transaction has completed (see {@link AfterCommit}),
+ * so a reader that sees the new version also sees the new rows. Read the version before loading
+ * the data: a write landing in between then only costs the client one extra full response. The
+ * counters live in memory and the ETag carries this instance's start time, so a restart never
+ * reuses an old tag; like the write-behind stock counters, they assume a single backend instance.
+ *
+ * Listeners registered with {@link #onChange} run on the bumping thread right after each bump, so
+ * they should only hand work off.
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Collection {
+        // Medicine catalog fields: name, price, supplier, expiry and so on.
+        MEDICINES,
+        // Medicine stock levels, which every sale and stock flush changes; versioned on their own so
+        // checkout does not invalidate what only depends on the catalog fields.
+        STOCK,
+        SUPPLIERS,
+        CUSTOMERS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+    private final Map<Collection, List<Runnable>> listeners = new EnumMap<>(Collection.class);
+
+    public CatalogVersions() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+            listeners.put(collection, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    public long version(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    // Strong ETag value (unquoted) for the collection's current contents.
+    public String etag(Collection collection) {
+        return etag(collection, version(collection));
+    }
+
+    public String etag(Collection collection, long version) {
+        return collection.name().toLowerCase() + "-" + epoch + "-" + version;
+    }
+
+    // ETag for medicine bodies, which carry both the catalog fields and the stock levels.
+    public String medicinesEtag() {
+        return medicinesEtag(version(Collection.MEDICINES), version(Collection.STOCK));
+    }
+
+    public String medicinesEtag(long catalogVersion, long stockVersion) {
+        return etag(Collection.MEDICINES, catalogVersion) + "." + stockVersion;
+    }
+
+    public void onChange(Collection collection, Runnable listener) {
+        listeners.get(collection).add(listener);
+    }
+
+    public void bumpAfterCommit(Collection collection) {
+        AfterCommit.run(() -> bump(collection));
+    }
+
+    private void bump(Collection collection) {
+        versions.get(collection).incrementAndGet();
+        for (Runnable listener : listeners.get(collection)) {
+            listener.run();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.pharmacy.pharmacy_backend.service;
 
+import com.pharmacy.pharmacy_backend.config.CacheConfig;
 import com.pharmacy.pharmacy_backend.model.Customer;
 import com.pharmacy.pharmacy_backend.repository.CustomerRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,20 +14,30 @@ import java.util.List;
 public class CustomerService {
 
     private final CustomerRepository repository;
+    private final CatalogVersions versions;
 
-    public CustomerService(CustomerRepository repository) {
+    public CustomerService(CustomerRepository repository, CatalogVersions versions) {
         this.repository = repository;
+        this.versions = versions;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true)
     public Customer addCustomer(Customer customer) {
-        return repository.save(customer);
+        Customer saved = repository.save(customer);
+        versions.bumpAfterCommit(CatalogVersions.Collection.CUSTOMERS);
+        return saved;
     }
 
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "'all'")
     public List<Customer> getAllCustomers() {
         return repository.findAll();
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true)
     public void deleteCustomer(Long id) {
         repository.deleteById(id);
+        versions.bumpAfterCommit(CatalogVersions.Collection.CUSTOMERS);
     }
 }
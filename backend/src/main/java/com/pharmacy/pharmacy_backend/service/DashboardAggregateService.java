@@ -0,0 +1,281 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.DailySalesTotal;
+import com.pharmacy.pharmacy_backend.repository.DailySalesTotalRepository;
+import com.pharmacy.pharmacy_backend.repository.DashboardCounterRepository;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Running totals behind the dashboard, kept in step with the raw tables by the services that
+ * write them. Every {@code record*} and {@code apply*} method joins the caller's transaction, so
+ * a rolled-back sale or medicine write never leaves the totals ahead of the data. Sales arrive
+ * shortly after their commit, through {@link SaleEventPipeline}. {@link #rebuild()} recomputes
+ * everything from the raw tables and {@link #verify()} reports any drift without changing it.
+ */
+@Service
+public class DashboardAggregateService {
+
+    public static final String MEDICINES = "medicines";
+    public static final String SALES = "sales";
+    static final int SHARDS = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAggregateService.class);
+
+    private final DashboardCounterRepository counterRepository;
+    private final DailySalesTotalRepository dailyRepository;
+    private final MedicineRepository medicineRepository;
+    private final SaleRepository saleRepository;
+    private final TransactionTemplate newTransaction;
+
+    public DashboardAggregateService(DashboardCounterRepository counterRepository,
+                                     DailySalesTotalRepository dailyRepository,
+                                     MedicineRepository medicineRepository,
+                                     SaleRepository saleRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.dailyRepository = dailyRepository;
+        this.medicineRepository = medicineRepository;
+        this.saleRepository = saleRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds a batch of committed sales: one counter update for the batch and one daily update per
+     * day it touches. Called by {@link SaleEventPipeline} in the transaction that marks the sales
+     * applied, so a sale is counted exactly once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applySales(List<SaleCommitted> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, double[]> perDay = new TreeMap<>();
+        double amount = 0.0;
+        int counted = 0;
+        for (SaleCommitted sale : sales) {
+            // Undated sales belong to no day; the rebuild leaves them out as well.
+            if (sale.getSoldAt() == null) {
+                continue;
+            }
+            double[] totals = perDay.computeIfAbsent(sale.getSoldAt().toLocalDate(), d -> new double[2]);
+            totals[0]++;
+            totals[1] += sale.getTotalAmount();
+            amount += sale.getTotalAmount();
+            counted++;
+        }
+        if (counted == 0) {
+            return;
+        }
+
+        increment(SALES, counted, amount);
+
+        perDay.forEach((day, totals) -> {
+            int shard = randomShard();
+            if (dailyRepository.recordSales(day, shard, (long) totals[0], totals[1]) == 0) {
+                dailyRepository.createDay(day, SHARDS);
+                dailyRepository.recordSales(day, shard, (long) totals[0], totals[1]);
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMedicinesAdded(long count) {
+        increment(MEDICINES, count, 0.0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMedicineRemoved() {
+        increment(MEDICINES, -1, 0.0);
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalMedicines() {
+        return counterRepository.sumTotal(MEDICINES);
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalSales() {
+        return counterRepository.sumTotal(SALES);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSummary() {
+        long medicines = 0;
+        long sales = 0;
+        double revenue = 0.0;
+        for (Object[] row : counterRepository.sumByName()) {
+            if (MEDICINES.equals(row[0])) {
+                medicines = ((Number) row[1]).longValue();
+            } else if (SALES.equals(row[0])) {
+                sales = ((Number) row[1]).longValue();
+                revenue = ((Number) row[2]).doubleValue();
+            }
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("totalMedicines", medicines);
+        map.put("totalSales", sales);
+        map.put("totalRevenue", revenue);
+        return map;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDailyTotals(int days) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : dailyRepository.findDailyTotalsSince(LocalDate.now().minusDays(days - 1L))) {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("day", row[0]);
+            day.put("totalSales", ((Number) row[1]).longValue());
+            day.put("totalRevenue", ((Number) row[2]).doubleValue());
+            result.add(day);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces all aggregates with values recomputed from the medicines and sales tables. Every
+     * counter row is locked first, so writers that bump a counter wait for the rebuild to commit
+     * and then add on top of it; a write that committed before the lock is already in the raw
+     * tables. The daily rows are only written after the counter, so they are quiet too.
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        counterRepository.createShards(MEDICINES, SHARDS);
+        counterRepository.createShards(SALES, SHARDS);
+        counterRepository.lockAll();
+
+        long medicines = medicineRepository.count();
+        Map<LocalDate, double[]> perDay = actualDailyTotals();
+        long sales = 0;
+        double revenue = 0.0;
+        for (double[] totals : perDay.values()) {
+            sales += (long) totals[0];
+            revenue += totals[1];
+        }
+
+        counterRepository.reset(MEDICINES, medicines, 0.0);
+        counterRepository.reset(SALES, sales, revenue);
+        dailyRepository.deleteAllInBatch();
+
+        List<DailySalesTotal> days = new ArrayList<>(perDay.size() * SHARDS);
+        perDay.forEach((day, totals) -> {
+            for (int shard = 0; shard < SHARDS; shard++) {
+                days.add(new DailySalesTotal(day, shard, shard == 0 ? (long) totals[0] : 0, shard == 0 ? totals[1] : 0.0));
+            }
+        });
+        dailyRepository.saveAll(days);
+
+        logger.info("Rebuilt dashboard aggregates: {} medicines, {} sales over {} days", medicines, sales, perDay.size());
+        return verify();
+    }
+
+    // Compares the stored aggregates with the raw tables. "consistent" is false on any drift.
+    @Transactional(readOnly = true)
+    public Map<String, Object> verify() {
+        Map<String, Object> stored = getSummary();
+        long actualMedicines = medicineRepository.count();
+        Map<LocalDate, double[]> actualDays = actualDailyTotals();
+        long actualSales = 0;
+        double actualRevenue = 0.0;
+        for (double[] totals : actualDays.values()) {
+            actualSales += (long) totals[0];
+            actualRevenue += totals[1];
+        }
+
+        Map<LocalDate, double[]> storedDays = new HashMap<>();
+        for (Object[] row : dailyRepository.findDailyTotalsSince(LocalDate.of(1970, 1, 1))) {
+            storedDays.put((LocalDate) row[0], new double[]{((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue()});
+        }
+        List<String> driftedDays = new ArrayList<>();
+        Set<LocalDate> allDays = new TreeSet<>(actualDays.keySet());
+        allDays.addAll(storedDays.keySet());
+        for (LocalDate day : allDays) {
+            double[] a = actualDays.getOrDefault(day, new double[2]);
+            double[] s = storedDays.getOrDefault(day, new double[2]);
+            if (a[0] != s[0] || Math.abs(a[1] - s[1]) > 0.005) {
+                driftedDays.add(day.toString());
+            }
+        }
+
+        boolean consistent = actualMedicines == (long) stored.get("totalMedicines")
+                && actualSales == (long) stored.get("totalSales")
+                && Math.abs(actualRevenue - (double) stored.get("totalRevenue")) <= 0.005
+                && driftedDays.isEmpty();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", consistent);
+        report.put("stored", stored);
+        report.put("actual", Map.of("totalMedicines", actualMedicines, "totalSales", actualSales, "totalRevenue", actualRevenue));
+        report.put("driftedDays", driftedDays);
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(50)
+    public void initialiseIfMissing() {
+        if (counterRepository.count() != 2L * SHARDS) {
+            newTransaction.executeWithoutResult(status -> rebuild());
+        }
+    }
+
+    private static LocalDate dayOf(Object day) {
+        if (day instanceof Date) {
+            return ((Date) day).toLocalDate();
+        }
+        if (day instanceof LocalDate) {
+            return (LocalDate) day;
+        }
+        throw new IllegalStateException("Unexpected sale day " + day
+                + (day == null ? "" : " of type " + day.getClass().getName()));
+    }
+
+    // Bumps a random shard; creates the name's shard rows first if they are missing.
+    private void increment(String name, long delta, double amount) {
+        int shard = randomShard();
+        if (counterRepository.increment(name, shard, delta, amount) == 0) {
+            counterRepository.createShards(name, SHARDS);
+            if (counterRepository.increment(name, shard, delta, amount) == 0) {
+                throw new IllegalStateException("Dashboard counter " + name + "/" + shard + " could not be updated");
+            }
+        }
+    }
+
+    private Map<LocalDate, double[]> actualDailyTotals() {
+        Map<LocalDate, double[]> perDay = new TreeMap<>();
+        for (Object[] row : saleRepository.sumBySaleDay()) {
+            double[] totals = perDay.computeIfAbsent(dayOf(row[0]), d -> new double[2]);
+            totals[0] += ((Number) row[1]).doubleValue();
+            totals[1] += ((Number) row[2]).doubleValue();
+        }
+        return perDay;
+    }
+
+    private static int randomShard() {
+        return ThreadLocalRandom.current().nextInt(SHARDS);
+    }
+}
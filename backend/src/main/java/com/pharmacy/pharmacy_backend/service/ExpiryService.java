@@ -0,0 +1,135 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.ExpiryReport;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expiry buckets for the expiry report, kept in an {@link ExpiryWheel} instead of being worked
+ * out from a full catalog scan. The wheel is loaded once at startup, advanced every night, and
+ * updated for just the medicine a write touched; a report only walks the day slots inside the
+ * requested horizon and then loads the matching rows by primary key.
+ */
+@Service
+public class ExpiryService {
+
+    public static final int DEFAULT_HORIZON_DAYS = 30;
+    public static final int MAX_HORIZON_DAYS = ExpiryWheel.MAX_HORIZON;
+    public static final int DEFAULT_LIMIT = 500;
+
+    private final MedicineRepository medicineRepository;
+    private final Clock clock;
+    private ExpiryWheel wheel;
+
+    @Autowired
+    public ExpiryService(MedicineRepository medicineRepository) {
+        this(medicineRepository, Clock.systemDefaultZone());
+    }
+
+    ExpiryService(MedicineRepository medicineRepository, Clock clock) {
+        this.medicineRepository = medicineRepository;
+        this.clock = clock;
+        this.wheel = new ExpiryWheel(today());
+    }
+
+    // Runs after LegacyDateMigration has filled in typed dates for old rows.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void seed() {
+        ExpiryWheel loaded = new ExpiryWheel(today());
+        for (Object[] row : medicineRepository.findExpiryDates()) {
+            loaded.put(((Number) row[0]).longValue(), ((LocalDate) row[1]).toEpochDay());
+        }
+        synchronized (this) {
+            wheel = loaded;
+        }
+    }
+
+    // Moves the day's slot into the expired bucket shortly after midnight.
+    @Scheduled(cron = "${app.expiry.tick-cron:0 1 0 * * *}")
+    public synchronized void tick() {
+        wheel.advanceTo(today());
+    }
+
+    @Transactional(readOnly = true)
+    public ExpiryReport getReport(Integer horizonDays, Integer limit) {
+        int horizon = horizonDays == null ? DEFAULT_HORIZON_DAYS : Math.max(0, Math.min(horizonDays, MAX_HORIZON_DAYS));
+        int cap = limit == null ? DEFAULT_LIMIT : Math.max(0, Math.min(limit, MedicineService.MAX_PAGE_SIZE));
+
+        List<Long> expiredIds;
+        List<Long> nearIds;
+        List<Long> safeIds;
+        int expiredCount;
+        int nearCount;
+        int safeCount;
+        LocalDate asOf;
+        synchronized (this) {
+            // Covers a missed tick, e.g. when the scheduler thread was busy at midnight.
+            wheel.advanceTo(today());
+            asOf = LocalDate.ofEpochDay(wheel.today());
+            expiredIds = wheel.expired(cap);
+            nearIds = wheel.expiringWithin(horizon, cap);
+            safeIds = wheel.safeAfter(horizon, cap);
+            expiredCount = wheel.countExpired();
+            nearCount = wheel.countExpiringWithin(horizon);
+            safeCount = wheel.size() - expiredCount - nearCount;
+        }
+
+        List<Long> ids = new ArrayList<>(expiredIds);
+        ids.addAll(nearIds);
+        ids.addAll(safeIds);
+        Map<Long, Medicine> byId = new HashMap<>();
+        for (Medicine medicine : medicineRepository.findAllById(ids)) {
+            byId.put(medicine.getId(), medicine);
+        }
+        return new ExpiryReport(asOf, horizon, expiredCount, nearCount, safeCount,
+                resolve(expiredIds, byId), resolve(nearIds, byId), resolve(safeIds, byId));
+    }
+
+    // Re-files the medicine under its new expiry date once the write commits.
+    public void updateAfterCommit(Long medicineId, LocalDate expiryDate) {
+        AfterCommit.run(() -> update(medicineId, expiryDate));
+    }
+
+    public void removeAfterCommit(Long medicineId) {
+        AfterCommit.run(() -> update(medicineId, null));
+    }
+
+    public synchronized void update(Long medicineId, LocalDate expiryDate) {
+        if (expiryDate == null) {
+            wheel.remove(medicineId);
+        } else {
+            wheel.put(medicineId, expiryDate.toEpochDay());
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    // Keeps the wheel's order and drops ids deleted since the wheel last heard of them.
+    private static List<Medicine> resolve(List<Long> ids, Map<Long, Medicine> byId) {
+        List<Medicine> medicines = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Medicine medicine = byId.get(id);
+            if (medicine != null) {
+                medicines.add(medicine);
+            }
+        }
+        return medicines;
+    }
+}
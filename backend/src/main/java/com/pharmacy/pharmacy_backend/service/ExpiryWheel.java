@@ -0,0 +1,224 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Two-level timing wheel of medicine expiry days (epoch days), advanced once per day.
+ *
+ * Level 0 has one slot per day for roughly the next year, so "what expires within H days" is
+ * a walk over H slots. Days further out sit in level 1, one slot per 32-day chunk, and are
+ * cascaded into level 0 a whole chunk at a time once the chunk's last day enters the level-0
+ * window; anything past level 1 waits in an overflow map. Advancing a day moves one slot into
+ * the expired map, so the daily tick costs only the entries it touches. Not thread-safe; the
+ * owning service serialises access.
+ */
+final class ExpiryWheel {
+
+    static final int DAY_SLOTS = 400;
+    static final int CHUNK_DAYS = 32;
+    static final int CHUNK_SLOTS = 64;
+    // Days at the end of the level-0 window may still be waiting in level 1.
+    static final int MAX_HORIZON = DAY_SLOTS - CHUNK_DAYS;
+
+    private final List<Set<Long>> days = new ArrayList<>(DAY_SLOTS);
+    private final List<Set<Long>> chunks = new ArrayList<>(CHUNK_SLOTS);
+    private final TreeMap<Long, Set<Long>> overflow = new TreeMap<>();
+    private final TreeMap<Long, Set<Long>> expired = new TreeMap<>();
+    private final Map<Long, Long> dayById = new HashMap<>();
+    private long base;
+
+    ExpiryWheel(long today) {
+        this.base = today;
+        for (int i = 0; i < DAY_SLOTS; i++) {
+            days.add(new LinkedHashSet<>());
+        }
+        for (int i = 0; i < CHUNK_SLOTS; i++) {
+            chunks.add(new LinkedHashSet<>());
+        }
+    }
+
+    long today() {
+        return base;
+    }
+
+    int size() {
+        return dayById.size();
+    }
+
+    void put(long id, long day) {
+        remove(id);
+        dayById.put(id, day);
+        place(id, day);
+    }
+
+    void remove(long id) {
+        Long day = dayById.remove(id);
+        if (day == null) {
+            return;
+        }
+        if (day < base) {
+            removeFrom(expired, day, id);
+        } else if (chunkEnd(chunk(day)) < base + DAY_SLOTS) {
+            days.get(daySlot(day)).remove(id);
+        } else if (chunk(day) < firstChunk() + CHUNK_SLOTS) {
+            chunks.get(chunkSlot(chunk(day))).remove(id);
+        } else {
+            removeFrom(overflow, day, id);
+        }
+    }
+
+    // Moves the wheel forward to the given day, one day at a time.
+    void advanceTo(long today) {
+        while (base < today) {
+            Set<Long> due = days.get(daySlot(base));
+            if (!due.isEmpty()) {
+                expired.put(base, new LinkedHashSet<>(due));
+                due.clear();
+            }
+            long previousFirstChunk = firstChunk();
+            base++;
+            if (firstChunk() > previousFirstChunk) {
+                cascade(previousFirstChunk);
+            }
+        }
+    }
+
+    // Up to limit ids already past expiry, most recently expired first.
+    List<Long> expired(int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (Set<Long> sameDay : expired.descendingMap().values()) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            addUpTo(ids, sameDay, limit);
+        }
+        return ids;
+    }
+
+    // Up to limit ids expiring today through today + horizon, soonest first.
+    List<Long> expiringWithin(int horizon, int limit) {
+        List<Long> ids = new ArrayList<>();
+        int last = Math.min(horizon, MAX_HORIZON);
+        for (int offset = 0; offset <= last && ids.size() < limit; offset++) {
+            addUpTo(ids, days.get(daySlot(base + offset)), limit);
+        }
+        return ids;
+    }
+
+    int countExpiringWithin(int horizon) {
+        int count = 0;
+        int last = Math.min(horizon, MAX_HORIZON);
+        for (int offset = 0; offset <= last; offset++) {
+            count += days.get(daySlot(base + offset)).size();
+        }
+        return count;
+    }
+
+    int countExpired() {
+        int count = 0;
+        for (Set<Long> sameDay : expired.values()) {
+            count += sameDay.size();
+        }
+        return count;
+    }
+
+    // Up to limit ids expiring after today + horizon, soonest first.
+    List<Long> safeAfter(int horizon, int limit) {
+        List<Long> ids = new ArrayList<>();
+        long from = base + Math.min(horizon, MAX_HORIZON) + 1;
+        for (long day = from; day < base + DAY_SLOTS && ids.size() < limit; day++) {
+            if (chunkEnd(chunk(day)) < base + DAY_SLOTS) {
+                addUpTo(ids, days.get(daySlot(day)), limit);
+            }
+        }
+        long first = firstChunk();
+        for (long c = first; c < first + CHUNK_SLOTS && ids.size() < limit; c++) {
+            List<Long> inChunk = new ArrayList<>(chunks.get(chunkSlot(c)));
+            inChunk.sort(Comparator.comparingLong(dayById::get));
+            addUpTo(ids, inChunk, limit);
+        }
+        for (Set<Long> sameDay : overflow.values()) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            addUpTo(ids, sameDay, limit);
+        }
+        return ids;
+    }
+
+    private void place(long id, long day) {
+        if (day < base) {
+            expired.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(id);
+        } else if (chunkEnd(chunk(day)) < base + DAY_SLOTS) {
+            days.get(daySlot(day)).add(id);
+        } else if (chunk(day) < firstChunk() + CHUNK_SLOTS) {
+            chunks.get(chunkSlot(chunk(day))).add(id);
+        } else {
+            overflow.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    // The chunk has fully entered the level-0 window: spread it over day slots, then let the
+    // level-1 slot it frees take the matching chunk from the overflow.
+    private void cascade(long chunk) {
+        Set<Long> slot = chunks.get(chunkSlot(chunk));
+        for (Long id : slot) {
+            days.get(daySlot(dayById.get(id))).add(id);
+        }
+        slot.clear();
+
+        long incoming = chunk + CHUNK_SLOTS;
+        Map<Long, Set<Long>> due = overflow.headMap(chunkEnd(incoming), true);
+        for (Set<Long> sameDay : due.values()) {
+            slot.addAll(sameDay);
+        }
+        due.clear();
+    }
+
+    // First chunk that has not been cascaded into level 0 yet.
+    private long firstChunk() {
+        return Math.floorDiv(base + DAY_SLOTS, CHUNK_DAYS);
+    }
+
+    private static long chunk(long day) {
+        return Math.floorDiv(day, CHUNK_DAYS);
+    }
+
+    private static long chunkEnd(long chunk) {
+        return chunk * CHUNK_DAYS + CHUNK_DAYS - 1;
+    }
+
+    private static int daySlot(long day) {
+        return (int) Math.floorMod(day, (long) DAY_SLOTS);
+    }
+
+    private static int chunkSlot(long chunk) {
+        return (int) Math.floorMod(chunk, (long) CHUNK_SLOTS);
+    }
+
+    private static void removeFrom(TreeMap<Long, Set<Long>> byDay, long day, long id) {
+        Set<Long> sameDay = byDay.get(day);
+        if (sameDay != null) {
+            sameDay.remove(id);
+            if (sameDay.isEmpty()) {
+                byDay.remove(day);
+            }
+        }
+    }
+
+    private static void addUpTo(List<Long> ids, Iterable<Long> source, int limit) {
+        for (Long id : source) {
+            if (ids.size() >= limit) {
+                return;
+            }
+            ids.add(id);
+        }
+    }
+}
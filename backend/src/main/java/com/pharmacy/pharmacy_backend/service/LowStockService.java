@@ -0,0 +1,123 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.LowStockItem;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The medicines currently below their reorder level, held in memory in urgency order (least
+ * stock relative to the reorder level first). Seeded once from an indexed query at startup and
+ * then refreshed for just the medicines a sale or stock edit touched, so reading the low-stock
+ * page never scans the catalog.
+ */
+@Service
+public class LowStockService {
+
+    private static final Comparator<LowStockItem> BY_URGENCY = Comparator
+            .comparingDouble(LowStockItem::getUrgency)
+            .thenComparingInt(LowStockItem::getQuantity)
+            .thenComparing(LowStockItem::getId);
+
+    private final MedicineRepository medicineRepository;
+    // Writers synchronize on this service; readers only ever see the published snapshot.
+    private final TreeSet<LowStockItem> ordered = new TreeSet<>(BY_URGENCY);
+    private final Map<Long, LowStockItem> byId = new HashMap<>();
+    private volatile List<LowStockItem> snapshot = Collections.emptyList();
+
+    @Value("${app.stock.default-reorder-level:10}")
+    private int defaultReorderLevel;
+
+    @Value("#{${app.stock.category-reorder-levels:{:}}}")
+    private Map<String, Integer> categoryReorderLevels = Collections.emptyMap();
+
+    public LowStockService(MedicineRepository medicineRepository) {
+        this.medicineRepository = medicineRepository;
+    }
+
+    // Fills in the reorder level from the category (or global) default when none was given.
+    public void applyDefaultReorderLevel(Medicine medicine) {
+        if (medicine.getReorderLevel() == null) {
+            Integer byCategory = medicine.getCategory() == null ? null : categoryReorderLevels.get(medicine.getCategory());
+            medicine.setReorderLevel(byCategory != null ? byCategory : defaultReorderLevel);
+        }
+    }
+
+    public List<LowStockItem> getLowStock(int limit) {
+        List<LowStockItem> current = snapshot;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    // Runs after StockReservationService has written back any pending sale lines, so stored
+    // quantities are the sellable ones.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void seed() {
+        int ceiling = medicineRepository.findMaxReorderLevel();
+        synchronized (this) {
+            ordered.clear();
+            byId.clear();
+            for (LowStockItem item : medicineRepository.findBelowReorderLevel(ceiling)) {
+                byId.put(item.getId(), item);
+                ordered.add(item);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Re-reads the given medicines once the current transaction commits (or straight away when
+     * there is none), so the set reflects the committed stock.
+     */
+    public void refreshAfterCommit(Collection<Long> medicineIds) {
+        List<Long> ids = new ArrayList<>(medicineIds);
+        AfterCommit.run(() -> refresh(ids));
+    }
+
+    // Reads under the lock: two refreshes of the same medicine racing each other would otherwise
+    // let the older read land last. The read is a primary-key lookup, so the wait is short.
+    public void refresh(Collection<Long> medicineIds) {
+        if (medicineIds.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            List<LowStockItem> levels = medicineRepository.findStockLevels(medicineIds);
+            for (Long id : medicineIds) {
+                removeEntry(id);
+            }
+            for (LowStockItem item : levels) {
+                if (item.isBelowReorderLevel()) {
+                    byId.put(item.getId(), item);
+                    ordered.add(item);
+                }
+            }
+            publish();
+        }
+    }
+
+    private boolean removeEntry(Long medicineId) {
+        LowStockItem previous = byId.remove(medicineId);
+        if (previous != null) {
+            ordered.remove(previous);
+            return true;
+        }
+        return false;
+    }
+
+    private void publish() {
+        snapshot = Collections.unmodifiableList(new ArrayList<>(ordered));
+    }
+}
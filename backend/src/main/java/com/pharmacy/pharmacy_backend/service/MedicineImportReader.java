@@ -0,0 +1,142 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.payload.request.MedicineImportRow;
+import com.pharmacy.pharmacy_backend.service.MedicineImportService.Format;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one line at a time, so the upload is never held in memory. CSV needs a
+ * header row naming the columns (any order, unknown columns ignored); NDJSON is one JSON object
+ * per line. Blank lines are skipped. A line that cannot be parsed comes back with an error
+ * instead of ending the read.
+ */
+final class MedicineImportReader {
+
+    static final class Line {
+        final long number;
+        final MedicineImportRow row;
+        final String error;
+
+        private Line(long number, MedicineImportRow row, String error) {
+            this.number = number;
+            this.row = row;
+            this.error = error;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private String[] header;
+    private long lineNumber;
+
+    MedicineImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The next non-blank line, or {@code null} at the end of the input. */
+    Line next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                return parseJson(text);
+            }
+            if (header == null) {
+                header = parseHeader(text);
+                continue;
+            }
+            return parseCsv(text);
+        }
+        return null;
+    }
+
+    private Line parseJson(String text) {
+        try {
+            return new Line(lineNumber, objectMapper.readValue(text, MedicineImportRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new Line(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String[] parseHeader(String text) {
+        // Spreadsheet exports often start with a byte order mark.
+        List<String> names = splitCsv(text.startsWith("\uFEFF") ? text.substring(1) : text);
+        String[] columns = new String[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            // "reorder_level", "Reorder Level" and "reorderLevel" all name the same column.
+            columns[i] = names.get(i).trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        }
+        return columns;
+    }
+
+    private Line parseCsv(String text) {
+        List<String> cells = splitCsv(text);
+        MedicineImportRow row = new MedicineImportRow();
+        for (int i = 0; i < header.length && i < cells.size(); i++) {
+            String value = cells.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (header[i]) {
+                    case "id": row.setId(Long.valueOf(value)); break;
+                    case "name": row.setName(value); break;
+                    case "company": row.setCompany(value); break;
+                    case "category": row.setCategory(value); break;
+                    case "price": row.setPrice(Double.valueOf(value)); break;
+                    case "quantity": row.setQuantity(Integer.valueOf(value)); break;
+                    case "reorderlevel": row.setReorderLevel(Integer.valueOf(value)); break;
+                    case "expirydate": row.setExpiryDate(LocalDate.parse(value)); break;
+                    default: break;
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return new Line(lineNumber, null, "Invalid " + header[i] + " '" + value + "'");
+            }
+        }
+        return new Line(lineNumber, row, null);
+    }
+
+    // RFC 4180 style: commas inside double quotes are data, "" is a literal quote.
+    static List<String> splitCsv(String text) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
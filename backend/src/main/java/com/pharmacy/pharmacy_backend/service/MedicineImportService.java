@@ -0,0 +1,264 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.request.MedicineImportRow;
+import com.pharmacy.pharmacy_backend.payload.response.ImportReport;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import. The upload is read line by line and applied in chunks of
+ * {@code app.import.batch-size} rows, each chunk in its own transaction, so memory stays flat
+ * and Hibernate sends the inserts and updates as JDBC batches. A chunk that fails in the
+ * database is replayed row by row to pin the error on the offending line; bad rows are
+ * reported and skipped, never abort the load.
+ */
+@Service
+public class MedicineImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.contains("csv")) {
+                return CSV;
+            }
+            if (type.contains("json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                    + " (use text/csv or application/x-ndjson)");
+        }
+    }
+
+    private final MedicineRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final StockReservationService stockReservations;
+    private final DashboardAggregateService aggregates;
+    private final LowStockService lowStock;
+    private final ExpiryService expiry;
+    private final MedicineSearchService search;
+    private final CatalogCache catalogCache;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public MedicineImportService(MedicineRepository repository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 StockReservationService stockReservations,
+                                 DashboardAggregateService aggregates,
+                                 LowStockService lowStock,
+                                 ExpiryService expiry,
+                                 MedicineSearchService search,
+                                 CatalogCache catalogCache) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.stockReservations = stockReservations;
+        this.aggregates = aggregates;
+        this.lowStock = lowStock;
+        this.expiry = expiry;
+        this.search = search;
+        this.catalogCache = catalogCache;
+    }
+
+    public ImportReport importMedicines(InputStream input, Format format) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        MedicineImportReader rows = new MedicineImportReader(reader, format, objectMapper);
+
+        List<MedicineImportReader.Line> chunk = new ArrayList<>(batchSize);
+        MedicineImportReader.Line line;
+        while ((line = rows.next()) != null) {
+            String problem = line.error != null ? line.error : validate(line.row);
+            if (problem != null) {
+                report.addError(line.number, problem);
+                continue;
+            }
+            chunk.add(line);
+            if (chunk.size() >= batchSize) {
+                applyChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, report);
+        }
+        report.setElapsedMs(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    private void applyChunk(List<MedicineImportReader.Line> chunk, ImportReport report) {
+        try {
+            merge(transactionTemplate.execute(status -> apply(chunk)), report);
+        } catch (RuntimeException chunkFailure) {
+            for (MedicineImportReader.Line line : chunk) {
+                try {
+                    merge(transactionTemplate.execute(status -> apply(List.of(line))), report);
+                } catch (RuntimeException rowFailure) {
+                    report.addError(line.number, NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    // Counts and errors only reach the report once the chunk has committed.
+    private static void merge(ImportReport chunkReport, ImportReport report) {
+        report.addInserted(chunkReport.getInserted());
+        report.addUpdated(chunkReport.getUpdated());
+        for (ImportReport.RowError error : chunkReport.getErrors()) {
+            report.addError(error.getLine(), error.getMessage());
+        }
+    }
+
+    private ImportReport apply(List<MedicineImportReader.Line> chunk) {
+        ImportReport result = new ImportReport();
+        Set<Long> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (MedicineImportReader.Line line : chunk) {
+            if (line.row.getId() != null) {
+                ids.add(line.row.getId());
+            } else if (StringUtils.hasText(line.row.getName())) {
+                names.add(line.row.getName().trim());
+            }
+        }
+        Map<Long, Medicine> byId = new HashMap<>();
+        // Locked, so the quantities read here are the ones this chunk overwrites.
+        if (!ids.isEmpty()) {
+            repository.lockByIdIn(ids).forEach(m -> byId.put(m.getId(), m));
+        }
+        Map<String, Medicine> byNameAndCompany = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Medicine m : repository.findByNameInOrderById(names)) {
+                byNameAndCompany.putIfAbsent(key(m.getName(), m.getCompany()), m);
+            }
+        }
+
+        List<Medicine> inserted = new ArrayList<>();
+        List<Medicine> touched = new ArrayList<>();
+        Map<Long, Integer> previousQuantities = new HashMap<>();
+        for (MedicineImportReader.Line line : chunk) {
+            MedicineImportRow row = line.row;
+            Medicine target;
+            if (row.getId() != null) {
+                target = byId.get(row.getId());
+                if (target == null) {
+                    result.addError(line.number, "Unknown medicine id " + row.getId());
+                    continue;
+                }
+            } else {
+                if (!StringUtils.hasText(row.getName())) {
+                    result.addError(line.number, "name is required for a new medicine");
+                    continue;
+                }
+                String key = key(row.getName().trim(), trimToNull(row.getCompany()));
+                target = byNameAndCompany.get(key);
+                if (target == null) {
+                    target = new Medicine();
+                    inserted.add(target);
+                    byNameAndCompany.put(key, target);
+                }
+            }
+            if (target.getId() != null) {
+                previousQuantities.putIfAbsent(target.getId(), target.getQuantity());
+            }
+            copy(row, target);
+            touched.add(target);
+        }
+
+        for (Medicine medicine : inserted) {
+            lowStock.applyDefaultReorderLevel(medicine);
+        }
+        repository.saveAll(inserted);
+        if (!inserted.isEmpty()) {
+            aggregates.recordMedicinesAdded(inserted.size());
+        }
+
+        Set<Long> touchedIds = new HashSet<>();
+        for (Medicine medicine : touched) {
+            if (touchedIds.add(medicine.getId())) {
+                Integer previousQuantity = previousQuantities.get(medicine.getId());
+                if (previousQuantity != null) {
+                    stockReservations.adjustAfterCommit(medicine.getId(), medicine.getQuantity() - previousQuantity);
+                }
+                expiry.updateAfterCommit(medicine.getId(), medicine.getExpiryDate());
+                search.updateAfterCommit(medicine);
+            }
+        }
+        lowStock.refreshAfterCommit(touchedIds);
+        catalogCache.evictMedicines(touchedIds);
+
+        result.addInserted(inserted.size());
+        result.addUpdated(touched.size() - inserted.size());
+        return result;
+    }
+
+    private static String validate(MedicineImportRow row) {
+        if (row.getPrice() != null && row.getPrice() < 0) {
+            return "price must not be negative";
+        }
+        if (row.getQuantity() != null && row.getQuantity() < 0) {
+            return "quantity must not be negative";
+        }
+        if (row.getReorderLevel() != null && row.getReorderLevel() < 0) {
+            return "reorderLevel must not be negative";
+        }
+        return null;
+    }
+
+    // Empty fields keep the stored value.
+    private static void copy(MedicineImportRow row, Medicine target) {
+        if (StringUtils.hasText(row.getName())) {
+            target.setName(row.getName().trim());
+        }
+        if (StringUtils.hasText(row.getCompany())) {
+            target.setCompany(row.getCompany().trim());
+        }
+        if (StringUtils.hasText(row.getCategory())) {
+            target.setCategory(row.getCategory().trim());
+        }
+        if (row.getPrice() != null) {
+            target.setPrice(row.getPrice());
+        }
+        if (row.getQuantity() != null) {
+            target.setQuantity(row.getQuantity());
+        }
+        if (row.getReorderLevel() != null) {
+            target.setReorderLevel(row.getReorderLevel());
+        }
+        if (row.getExpiryDate() != null) {
+            target.setExpiryDate(row.getExpiryDate());
+        }
+    }
+
+    private static String key(String name, String company) {
+        return name + '\u0000' + (company == null ? "" : company);
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
@@ -0,0 +1,319 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Type-ahead index over medicine name, company and category. Not thread-safe; the owning
+ * {@link MedicineSearchService} guards it.
+ *
+ * Text is folded to lower-case ASCII words. Three structures feed candidates, cheapest first:
+ * the sorted full names (name starts with the query), a sorted term dictionary (every query
+ * word starts some word of the medicine), and trigram postings (the query appears anywhere,
+ * used only when the first two come up short). Each stage stops after {@link #CANDIDATE_CAP}
+ * medicines, so a lookup costs the same at 100k medicines as at 1k. Candidates are then ranked:
+ * exact name, name prefix, name word prefixes, any field word prefixes, then substring matches;
+ * shorter names first within a rank.
+ *
+ * Documents get increasing ordinals, so postings stay sorted without re-sorting. Removing or
+ * re-indexing a medicine leaves its old ordinal behind as a tombstone; the postings are rebuilt
+ * once tombstones outnumber live documents.
+ */
+final class MedicineSearchIndex {
+
+    static final int CANDIDATE_CAP = 500;
+    static final int MIN_SUBSTRING_LENGTH = 3;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+    private static final char PREFIX_END = '\uffff';
+    private static final String[] NO_WORDS = new String[0];
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final class Doc {
+        final long id;
+        final int ordinal;
+        final String name;
+        final String company;
+        final String category;
+        final String[] nameWords;
+        final String[] otherWords;
+
+        Doc(long id, int ordinal, String name, String company, String category) {
+            this.id = id;
+            this.ordinal = ordinal;
+            this.name = name;
+            this.company = company;
+            this.category = category;
+            this.nameWords = words(name);
+            this.otherWords = words((company + " " + category).trim());
+        }
+
+        String nameKey() {
+            return name + '\u0000' + ordinal;
+        }
+    }
+
+    private static final class Match {
+        final Doc doc;
+        final int rank;
+
+        Match(Doc doc, int rank) {
+            this.doc = doc;
+            this.rank = rank;
+        }
+    }
+
+    // Growable sorted list of ordinals.
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+
+    private final Map<Long, Doc> byId = new HashMap<>();
+    private final List<Doc> byOrdinal = new ArrayList<>();
+    private final TreeMap<String, Doc> names = new TreeMap<>();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+    private int tombstones;
+
+    void put(long id, String name, String company, String category) {
+        remove(id);
+        Doc doc = new Doc(id, byOrdinal.size(), normalize(name), normalize(company), normalize(category));
+        byOrdinal.add(doc);
+        byId.put(id, doc);
+        names.put(doc.nameKey(), doc);
+
+        Set<String> docTerms = new LinkedHashSet<>(Arrays.asList(doc.nameWords));
+        docTerms.addAll(Arrays.asList(doc.otherWords));
+        for (String term : docTerms) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(doc.ordinal);
+        }
+        Set<String> docTrigrams = new LinkedHashSet<>();
+        addTrigrams(doc.name, docTrigrams);
+        addTrigrams(doc.company, docTrigrams);
+        addTrigrams(doc.category, docTrigrams);
+        for (String trigram : docTrigrams) {
+            trigrams.computeIfAbsent(trigram, t -> new Postings()).add(doc.ordinal);
+        }
+    }
+
+    void remove(long id) {
+        Doc doc = byId.remove(id);
+        if (doc == null) {
+            return;
+        }
+        names.remove(doc.nameKey());
+        byOrdinal.set(doc.ordinal, null);
+        tombstones++;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > byId.size()) {
+            compact();
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    // Ids of the best matches for the query, best first.
+    List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String[] queryWords = words(q);
+
+        Set<Doc> candidates = new LinkedHashSet<>();
+        for (Doc doc : names.subMap(q, true, q + PREFIX_END, false).values()) {
+            if (candidates.size() >= CANDIDATE_CAP) {
+                break;
+            }
+            candidates.add(doc);
+        }
+        collectByWordPrefix(queryWords, candidates);
+
+        List<Match> matches = new ArrayList<>();
+        for (Doc doc : candidates) {
+            int rank = rank(doc, q, queryWords);
+            if (rank >= 0) {
+                matches.add(new Match(doc, rank));
+            }
+        }
+        // Candidates already went through rank(), which includes the substring test.
+        if (matches.size() < limit && q.length() >= MIN_SUBSTRING_LENGTH) {
+            for (Doc doc : collectBySubstring(q)) {
+                if (!candidates.contains(doc)) {
+                    matches.add(new Match(doc, rank(doc, q, queryWords)));
+                }
+            }
+        }
+
+        matches.sort(Comparator.<Match>comparingInt(match -> match.rank)
+                .thenComparingInt(match -> match.doc.name.length())
+                .thenComparing(match -> match.doc.name)
+                .thenComparingLong(match -> match.doc.id));
+        List<Long> ids = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            ids.add(matches.get(i).doc.id);
+        }
+        return ids;
+    }
+
+    // Walks the terms starting with the most selective query word; the rest are checked by rank().
+    private void collectByWordPrefix(String[] queryWords, Set<Doc> candidates) {
+        String driver = null;
+        long fewest = Long.MAX_VALUE;
+        for (String word : queryWords) {
+            long count = 0;
+            for (Postings postings : terms.subMap(word, true, word + PREFIX_END, false).values()) {
+                count += postings.size;
+                // Past the cap every word costs the same to walk, so stop counting.
+                if (count >= fewest || count >= CANDIDATE_CAP) {
+                    break;
+                }
+            }
+            if (count < fewest) {
+                fewest = count;
+                driver = word;
+            }
+        }
+        if (driver == null) {
+            return;
+        }
+
+        int added = 0;
+        for (Postings postings : terms.subMap(driver, true, driver + PREFIX_END, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                Doc doc = byOrdinal.get(postings.ordinals[i]);
+                if (doc != null && candidates.add(doc) && ++added >= CANDIDATE_CAP) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Intersects the query's trigram postings, rarest first, then confirms the substring.
+    private List<Doc> collectBySubstring(String q) {
+        Set<String> queryTrigrams = new LinkedHashSet<>();
+        addTrigrams(q, queryTrigrams);
+        List<Postings> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                return Collections.emptyList();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+        List<Doc> found = new ArrayList<>();
+        Postings rarest = lists.get(0);
+        candidates:
+        for (int i = 0; i < rarest.size && found.size() < CANDIDATE_CAP; i++) {
+            int ordinal = rarest.ordinals[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(ordinal)) {
+                    continue candidates;
+                }
+            }
+            Doc doc = byOrdinal.get(ordinal);
+            if (doc != null && (doc.name.contains(q) || doc.company.contains(q) || doc.category.contains(q))) {
+                found.add(doc);
+            }
+        }
+        return found;
+    }
+
+    // Lower is better; -1 means the document does not match at all.
+    private static int rank(Doc doc, String q, String[] queryWords) {
+        if (doc.name.equals(q)) {
+            return 0;
+        }
+        if (doc.name.startsWith(q)) {
+            return 1;
+        }
+        if (allPrefixed(queryWords, doc.nameWords, NO_WORDS)) {
+            return 2;
+        }
+        if (allPrefixed(queryWords, doc.nameWords, doc.otherWords)) {
+            return 3;
+        }
+        if (q.length() >= MIN_SUBSTRING_LENGTH
+                && (doc.name.contains(q) || doc.company.contains(q) || doc.category.contains(q))) {
+            return 4;
+        }
+        return -1;
+    }
+
+    private static boolean allPrefixed(String[] queryWords, String[] first, String[] second) {
+        for (String word : queryWords) {
+            if (!anyStartsWith(first, word) && !anyStartsWith(second, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyStartsWith(String[] words, String prefix) {
+        for (String word : words) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compact() {
+        List<Doc> live = new ArrayList<>(byId.values());
+        live.sort(Comparator.comparingInt(doc -> doc.ordinal));
+        byId.clear();
+        byOrdinal.clear();
+        names.clear();
+        terms.clear();
+        trigrams.clear();
+        tombstones = 0;
+        for (Doc doc : live) {
+            put(doc.id, doc.name, doc.company, doc.category);
+        }
+    }
+
+    private static void addTrigrams(String text, Set<String> into) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            into.add(text.substring(i, i + 3));
+        }
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // Lower-case, accents removed, runs of anything but letters and digits collapsed to a space.
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
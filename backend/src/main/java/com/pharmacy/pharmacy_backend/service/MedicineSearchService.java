@@ -0,0 +1,122 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Medicine type-ahead for the till, answered from a {@link MedicineSearchIndex} held in memory.
+ * The index is loaded once at startup and then updated for just the medicines a committed
+ * write touched; a lookup ranks ids in memory and loads only those rows by primary key, so
+ * stock and price in the results are always current.
+ */
+@Service
+public class MedicineSearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final MedicineRepository medicineRepository;
+    // Lookups share the read lock, so concurrent tills never wait on each other.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private MedicineSearchIndex index = new MedicineSearchIndex();
+
+    public MedicineSearchService(MedicineRepository medicineRepository) {
+        this.medicineRepository = medicineRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(30)
+    public void seed() {
+        MedicineSearchIndex loaded = new MedicineSearchIndex();
+        for (Object[] row : medicineRepository.findSearchFields()) {
+            loaded.put(((Number) row[0]).longValue(), (String) row[1], (String) row[2], (String) row[3]);
+        }
+        lock.writeLock().lock();
+        try {
+            index = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Medicine> search(String query, Integer limit) {
+        List<Long> ids = searchIds(query, limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Medicine> byId = new HashMap<>();
+        for (Medicine medicine : medicineRepository.findAllById(ids)) {
+            byId.put(medicine.getId(), medicine);
+        }
+        // Keeps the ranking and drops ids deleted since the index last heard of them.
+        List<Medicine> medicines = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Medicine medicine = byId.get(id);
+            if (medicine != null) {
+                medicines.add(medicine);
+            }
+        }
+        return medicines;
+    }
+
+    // Ranked ids only, without touching the database.
+    public List<Long> searchIds(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Re-indexes the medicine's current text once the write commits.
+    public void updateAfterCommit(Medicine medicine) {
+        Long id = medicine.getId();
+        String name = medicine.getName();
+        String company = medicine.getCompany();
+        String category = medicine.getCategory();
+        AfterCommit.run(() -> update(id, name, company, category));
+    }
+
+    public void removeAfterCommit(Long medicineId) {
+        AfterCommit.run(() -> remove(medicineId));
+    }
+
+    public void update(Long medicineId, String name, String company, String category) {
+        lock.writeLock().lock();
+        try {
+            index.put(medicineId, name, company, category);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long medicineId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(medicineId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.pharmacy.pharmacy_backend.service;
 
+import com.pharmacy.pharmacy_backend.config.CacheConfig;
 import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
 import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,23 +20,103 @@ import java.util.Optional;
 @Service
 public class MedicineService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private MedicineRepository repository;
 
+    @Autowired
+    private StockReservationService stockReservations;
+
+    @Autowired
+    private DashboardAggregateService aggregates;
+
+    @Autowired
+    private LowStockService lowStock;
+
+    @Autowired
+    private ExpiryService expiry;
+
+    @Autowired
+    private MedicineSearchService search;
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Transactional
+    @Caching(put = @CachePut(cacheNames = CacheConfig.MEDICINES, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.MEDICINE_PAGES, allEntries = true))
     public Medicine addMedicine(Medicine medicine) {
-        return repository.save(medicine);
+        // Locking the row also loads it, so the save below merges without another select. A PUT to
+        // an id with no row inserts one, so it counts as new just like a POST.
+        Integer previousQuantity = null;
+        if (medicine.getId() != null) {
+            List<Medicine> current = repository.lockByIdIn(List.of(medicine.getId()));
+            if (!current.isEmpty()) {
+                previousQuantity = current.get(0).getQuantity();
+            }
+        }
+        boolean isNew = previousQuantity == null;
+        lowStock.applyDefaultReorderLevel(medicine);
+        Medicine saved = repository.save(medicine);
+        if (isNew) {
+            aggregates.recordMedicinesAdded(1);
+        }
+        if (previousQuantity != null) {
+            stockReservations.adjustAfterCommit(saved.getId(), saved.getQuantity() - previousQuantity);
+        }
+        lowStock.refreshAfterCommit(List.of(saved.getId()));
+        expiry.updateAfterCommit(saved.getId(), saved.getExpiryDate());
+        search.updateAfterCommit(saved);
+        versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
+        return saved;
     }
 
     public List<Medicine> getAllMedicines() {
         return repository.findAll();
     }
 
+    // Pages filtered by quantity are not cached: any sale can move a medicine in or out of them.
+    @Cacheable(cacheNames = CacheConfig.MEDICINE_PAGES, condition = "#minQuantity == null && #maxQuantity == null")
+    public CursorPage<Medicine> getMedicinePage(Long after, Integer limit, String name, String company,
+                                                String category, Integer minQuantity, Integer maxQuantity) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String namePattern = StringUtils.hasText(name) ? "%" + name.trim().toLowerCase() + "%" : null;
+
+        // Ask for one extra row so we know whether another page exists without a count query.
+        List<Medicine> rows = repository.findPageAfter(
+                after == null ? 0L : after,
+                namePattern,
+                StringUtils.hasText(company) ? company.trim() : null,
+                StringUtils.hasText(category) ? category.trim() : null,
+                minQuantity,
+                maxQuantity,
+                PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Medicine> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.MEDICINES, key = "#id")
     public Optional<Medicine> getMedicineById(Long id) {
         return repository.findById(id);
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MEDICINES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.MEDICINE_PAGES, allEntries = true)})
     public void deleteMedicine(Long id) {
         repository.deleteById(id);
+        aggregates.recordMedicineRemoved();
+        lowStock.refreshAfterCommit(List.of(id));
+        expiry.removeAfterCommit(id);
+        search.removeAfterCommit(id);
+        stockReservations.removeAfterCommit(id);
+        versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
     }
 }
-
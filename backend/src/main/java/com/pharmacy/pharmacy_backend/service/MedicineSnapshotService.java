@@ -0,0 +1,248 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.exception.ServiceUnavailableException;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole medicine catalog as ready-to-send JSON (and optionally gzip), so the full list costs
+ * a buffer copy instead of entity loading and Jackson on every request.
+ *
+ * A snapshot is tagged with the {@link CatalogVersions} medicine and stock versions read before
+ * its rows were loaded, and is always served under their ETag. A bump of either schedules a
+ * rebuild on a single background thread after {@code app.catalog.snapshot.rebuild-delay-ms}, and
+ * every bump until that rebuild starts is folded into it, so frequent changes (sales and the stock
+ * flush bump the stock version many times a second while tills are selling) cost one rebuild per
+ * delay.
+ * Requests never wait for a rebuild: they get the current snapshot, at most one delay plus one
+ * build behind, except before the first snapshot exists. With snapshot mode off nothing is kept:
+ * each request builds plain JSON for itself.
+ */
+@Service
+public class MedicineSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineSnapshotService.class);
+
+    static final int BUILD_PAGE_SIZE = 1000;
+
+    public static final class Snapshot {
+        private final long version;
+        private final long stockVersion;
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Snapshot(long version, long stockVersion, String etag, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.stockVersion = stockVersion;
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        // The catalog version; stock changes move only getStockVersion().
+        public long getVersion() {
+            return version;
+        }
+
+        public long getStockVersion() {
+            return stockVersion;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        // Shared buffers: write them out, never modify them.
+        public byte[] getJson() {
+            return json;
+        }
+
+        // Null when the gzip variant is disabled.
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+
+    private final MedicineRepository repository;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions versions;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final long rebuildDelayMs;
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Set while a rebuild is scheduled but has not started, so further bumps join it.
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private CompletableFuture<Snapshot> firstBuild;
+
+    public MedicineSnapshotService(MedicineRepository repository,
+                                   ObjectMapper objectMapper,
+                                   CatalogVersions versions,
+                                   @Value("${app.catalog.snapshot.enabled:true}") boolean enabled,
+                                   @Value("${app.catalog.snapshot.gzip:true}") boolean gzipEnabled,
+                                   @Value("${app.catalog.snapshot.rebuild-delay-ms:1000}") long rebuildDelayMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.rebuildDelayMs = Math.max(0, rebuildDelayMs);
+    }
+
+    // Whether snapshots carry a gzip variant.
+    public boolean hasGzip() {
+        return enabled && gzipEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(40)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        versions.onChange(CatalogVersions.Collection.MEDICINES, this::scheduleRebuild);
+        versions.onChange(CatalogVersions.Collection.STOCK, this::scheduleRebuild);
+        first();
+    }
+
+    /**
+     * The current snapshot, which may trail the latest medicine change while a rebuild is
+     * pending. Only waits when no snapshot has been built yet.
+     */
+    public Snapshot get() {
+        if (!enabled) {
+            return build(false);
+        }
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        try {
+            return first().join();
+        } catch (CompletionException e) {
+            throw new ServiceUnavailableException("The medicine catalog snapshot could not be built");
+        }
+    }
+
+    // The ETag get() would answer with right now; lets a conditional request skip the body.
+    public String currentEtag() {
+        Snapshot snapshot = enabled ? current.get() : null;
+        return snapshot != null ? snapshot.getEtag() : versions.medicinesEtag();
+    }
+
+    // Builds the first snapshot, or retries it after a failure; later snapshots come from rebuilds.
+    synchronized CompletableFuture<Snapshot> first() {
+        if (firstBuild == null || firstBuild.isCompletedExceptionally()) {
+            firstBuild = CompletableFuture.supplyAsync(this::rebuild, builder);
+        }
+        return firstBuild;
+    }
+
+    void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            builder.schedule(() -> {
+                // Cleared before building, so a bump during the build schedules the next one.
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    scheduleRebuild();
+                }
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Snapshot rebuild() {
+        Snapshot latest = current.get();
+        if (latest != null && latest.version == versions.version(CatalogVersions.Collection.MEDICINES)
+                && latest.stockVersion == versions.version(CatalogVersions.Collection.STOCK)) {
+            return latest;
+        }
+        try {
+            Snapshot built = build(gzipEnabled);
+            current.set(built);
+            return built;
+        } catch (RuntimeException e) {
+            logger.warn("Medicine catalog snapshot rebuild failed", e);
+            throw e;
+        }
+    }
+
+    // Streams the catalog in id order, one keyset page at a time, so only a page of entities is live.
+    Snapshot build(boolean withGzip) {
+        long started = System.nanoTime();
+        long version = versions.version(CatalogVersions.Collection.MEDICINES);
+        long stockVersion = versions.version(CatalogVersions.Collection.STOCK);
+        ByteArrayOutputStream json = new ByteArrayOutputStream(64 * 1024);
+        int count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartArray();
+            long after = 0;
+            while (true) {
+                List<Medicine> page = repository.findPageAfter(after, null, null, null, null, null,
+                        PageRequest.of(0, BUILD_PAGE_SIZE));
+                for (Medicine medicine : page) {
+                    objectMapper.writeValue(generator, medicine);
+                }
+                count += page.size();
+                if (page.size() < BUILD_PAGE_SIZE) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getId();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] bytes = json.toByteArray();
+        byte[] gzip = withGzip ? gzip(bytes) : null;
+        logger.debug("Built medicine catalog snapshot v{}.{}: {} medicines, {} bytes ({} gzipped) in {} ms",
+                version, stockVersion, count, bytes.length, gzip == null ? "-" : gzip.length,
+                (System.nanoTime() - started) / 1_000_000);
+        return new Snapshot(version, stockVersion, versions.medicinesEtag(version, stockVersion), bytes, gzip);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(512, bytes.length / 4));
+        try (GZIPOutputStream zip = new GZIPOutputStream(out, 8192)) {
+            zip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The last few committed sales, newest first, in a fixed-size ring buffer. Seeded from the
+ * newest rows at startup and appended to as each sale commits, so the dashboard tile never
+ * queries the sales table.
+ */
+@Service
+public class RecentSalesService {
+
+    private final SaleRepository saleRepository;
+    private final Sale[] ring;
+    private int next;
+    private int size;
+
+    public RecentSalesService(SaleRepository saleRepository,
+                              @Value("${app.dashboard.recent-sales-capacity:50}") int capacity) {
+        this.saleRepository = saleRepository;
+        this.ring = new Sale[Math.max(1, capacity)];
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public synchronized List<Sale> getRecentSales(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        List<Sale> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(ring[(next - i + ring.length) % ring.length]);
+        }
+        return result;
+    }
+
+    // Adds the sale once the surrounding transaction commits; a rolled-back sale never shows up.
+    public void recordAfterCommit(Sale sale) {
+        AfterCommit.run(() -> record(sale));
+    }
+
+    public synchronized void record(Sale sale) {
+        ring[next] = sale;
+        next = (next + 1) % ring.length;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<Sale> newestFirst = saleRepository.findByOrderByIdDesc(PageRequest.of(0, ring.length));
+        List<Sale> oldestFirst = new ArrayList<>(newestFirst);
+        Collections.reverse(oldestFirst);
+        synchronized (this) {
+            next = 0;
+            size = 0;
+            for (Sale sale : oldestFirst) {
+                record(sale);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What the downstream consumers need to know about a committed sale, copied out of the entities
+ * into primitive arrays so a queued event holds no persistence state and little memory.
+ * Line {@code i} is {@code medicineIds[i]} x {@code quantities[i]} at {@code prices[i]} (0 when
+ * the till sent no price).
+ */
+public final class SaleCommitted {
+
+    private final long saleId;
+    private final LocalDateTime soldAt;
+    private final String soldBy;
+    private final double totalAmount;
+    private final long[] medicineIds;
+    private final int[] quantities;
+    private final double[] prices;
+    // System.nanoTime() when the sale's transaction committed; 0 for sales replayed from the database.
+    private final long committedAtNanos;
+
+    SaleCommitted(long saleId, LocalDateTime soldAt, String soldBy, double totalAmount,
+                  long[] medicineIds, int[] quantities, double[] prices, long committedAtNanos) {
+        this.saleId = saleId;
+        this.soldAt = soldAt;
+        this.soldBy = soldBy;
+        this.totalAmount = totalAmount;
+        this.medicineIds = medicineIds;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.committedAtNanos = committedAtNanos;
+    }
+
+    public static SaleCommitted of(Sale sale, List<SalesItem> items) {
+        return of(sale, items, 0L);
+    }
+
+    static SaleCommitted of(Sale sale, List<SalesItem> items, long committedAtNanos) {
+        long[] medicineIds = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        double[] prices = new double[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            SalesItem item = items.get(i);
+            medicineIds[i] = item.getMedicineId();
+            quantities[i] = item.getQuantity();
+            prices[i] = item.getPrice() == null ? 0.0 : item.getPrice();
+        }
+        return new SaleCommitted(sale.getId(), sale.getSaleDate(), sale.getSoldBy(),
+                sale.getTotalAmount() == null ? 0.0 : sale.getTotalAmount(),
+                medicineIds, quantities, prices, committedAtNanos);
+    }
+
+    SaleCommitted committedAt(long nanos) {
+        return new SaleCommitted(saleId, soldAt, soldBy, totalAmount, medicineIds, quantities, prices, nanos);
+    }
+
+    public long getSaleId() {
+        return saleId;
+    }
+
+    public LocalDateTime getSoldAt() {
+        return soldAt;
+    }
+
+    public String getSoldBy() {
+        return soldBy;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public int getLineCount() {
+        return medicineIds.length;
+    }
+
+    public long getMedicineId(int line) {
+        return medicineIds[line];
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+
+    public double getPrice(int line) {
+        return prices[line];
+    }
+
+    public long getUnits() {
+        long units = 0;
+        for (int quantity : quantities) {
+            units += quantity;
+        }
+        return units;
+    }
+
+    long getCommittedAtNanos() {
+        return committedAtNanos;
+    }
+}
@@ -0,0 +1,303 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SaleAuditEntry;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.repository.SaleAuditRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import com.pharmacy.pharmacy_backend.repository.SalesItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Everything a sale changes besides its own rows: the dashboard totals, the per-medicine
+ * analytics rollup, the audit trail and the low-stock set. Checkout commits only the sale and
+ * its lines, with {@code eventsApplied = false}, and hands a {@link SaleCommitted} to a bounded
+ * in-memory buffer once the transaction commits. One consumer thread drains the buffer in
+ * batches and applies each batch in one transaction that also flips the flag, so a sale is
+ * applied exactly once however often it is offered.
+ *
+ * The buffer is only a fast path. When it is full the event is dropped and counted, and the
+ * consumer sweeps the database for unapplied sales instead, as it does on startup (replaying
+ * whatever the previous run left behind) and after a failed batch. Dashboard and analytics
+ * figures therefore trail checkout by the consumer's lag ({@code pharmacy.sale.events.lag}).
+ */
+@Service
+public class SaleEventPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleEventPipeline.class);
+
+    // How long an idle consumer waits for an event before checking whether it should stop.
+    static final long IDLE_POLL_MS = 200;
+    static final long MIN_BACKOFF_MS = 100;
+    static final long MAX_BACKOFF_MS = 30_000;
+
+    private final SaleRepository saleRepository;
+    private final SalesItemRepository itemRepository;
+    private final SaleAuditRepository auditRepository;
+    private final DashboardAggregateService aggregates;
+    private final SalesAnalyticsService analytics;
+    private final LowStockService lowStock;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<SaleCommitted> buffer;
+    private final int batchSize;
+    // Set whenever the database may hold unapplied sales the buffer does not: at startup, after
+    // an overflow and after a failed batch.
+    private final AtomicBoolean catchUp = new AtomicBoolean(true);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private Thread consumer;
+
+    private final Counter overflows;
+    private final Counter replayed;
+    private final Counter failures;
+    private final DistributionSummary batches;
+    private final Timer lag;
+
+    public SaleEventPipeline(SaleRepository saleRepository,
+                             SalesItemRepository itemRepository,
+                             SaleAuditRepository auditRepository,
+                             DashboardAggregateService aggregates,
+                             SalesAnalyticsService analytics,
+                             LowStockService lowStock,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry registry,
+                             @Value("${app.sales.events.buffer-capacity:4096}") int bufferCapacity,
+                             @Value("${app.sales.events.batch-size:256}") int batchSize) {
+        this.saleRepository = saleRepository;
+        this.itemRepository = itemRepository;
+        this.auditRepository = auditRepository;
+        this.aggregates = aggregates;
+        this.analytics = analytics;
+        this.lowStock = lowStock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        this.batchSize = Math.max(1, batchSize);
+
+        Gauge.builder("pharmacy.sale.events.buffered", buffer, BlockingQueue::size)
+                .description("Committed sales waiting in the event buffer")
+                .register(registry);
+        Gauge.builder("pharmacy.sale.events.buffer.capacity", buffer, b -> b.size() + b.remainingCapacity())
+                .description("Size of the event buffer")
+                .register(registry);
+        this.overflows = Counter.builder("pharmacy.sale.events.overflow")
+                .description("Sale events dropped because the buffer was full; applied later from the database")
+                .register(registry);
+        this.replayed = Counter.builder("pharmacy.sale.events.replayed")
+                .description("Sales applied by a catch-up sweep of the database rather than from the buffer")
+                .register(registry);
+        this.failures = Counter.builder("pharmacy.sale.events.failures")
+                .description("Event batches that failed and were left for a retry")
+                .register(registry);
+        this.batches = DistributionSummary.builder("pharmacy.sale.events.batch")
+                .description("Sales applied per consumer transaction")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) this.batchSize)
+                .register(registry);
+        this.lag = Timer.builder("pharmacy.sale.events.lag")
+                .description("Time from a sale's commit until its events were applied")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Queues the event once the current transaction commits (or straight away when there is
+     * none). Never blocks the caller: a full buffer leaves the sale to the catch-up sweep.
+     */
+    public void publishAfterCommit(SaleCommitted event) {
+        AfterCommit.run(() -> publish(event));
+    }
+
+    void publish(SaleCommitted event) {
+        if (!buffer.offer(event.committedAt(System.nanoTime()))) {
+            overflows.increment();
+            catchUp.set(true);
+        }
+    }
+
+    // After the dashboard and analytics have initialised their tables, so nothing is applied
+    // to rows a rebuild is about to replace.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(60)
+    public synchronized void start() {
+        if (consumer != null) {
+            return;
+        }
+        consumer = new Thread(this::run, "sale-events");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // Lets the batch in flight finish; whatever is still buffered is replayed on the next start.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped.countDown();
+        Thread running;
+        synchronized (this) {
+            running = consumer;
+        }
+        if (running != null) {
+            running.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        long backoff = 0;
+        while (stopped.getCount() > 0) {
+            try {
+                processNext(IDLE_POLL_MS);
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failures.increment();
+                catchUp.set(true);
+                backoff = Math.min(MAX_BACKOFF_MS, Math.max(MIN_BACKOFF_MS, backoff * 2));
+                logger.warn("Applying sale events failed; retrying from the database in {} ms", backoff, e);
+                try {
+                    stopped.await(backoff, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One step of the consumer: a page of unapplied sales from the database when a catch-up is
+     * due, otherwise the next batch from the buffer (waiting up to {@code waitMillis} for one).
+     * Returns how many sales were applied.
+     */
+    int processNext(long waitMillis) throws InterruptedException {
+        if (catchUp.getAndSet(false)) {
+            List<SaleCommitted> pending = loadPending();
+            if (pending.size() == batchSize) {
+                catchUp.set(true);
+            }
+            int applied = apply(pending);
+            replayed.increment(applied);
+            if (applied > 0) {
+                logger.info("Applied {} sales missing from the event buffer", applied);
+            }
+            return applied;
+        }
+
+        SaleCommitted first = buffer.poll(waitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<SaleCommitted> batch = new ArrayList<>(Math.min(batchSize, buffer.size() + 1));
+        batch.add(first);
+        buffer.drainTo(batch, batchSize - 1);
+        return apply(batch);
+    }
+
+    private List<SaleCommitted> loadPending() {
+        List<Sale> sales = saleRepository.findPendingEvents(PageRequest.of(0, batchSize));
+        if (sales.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<SalesItem>> itemsBySale = new HashMap<>();
+        List<Long> ids = new ArrayList<>(sales.size());
+        for (Sale sale : sales) {
+            ids.add(sale.getId());
+        }
+        for (SalesItem item : itemRepository.findBySaleIdIn(ids)) {
+            itemsBySale.computeIfAbsent(item.getSaleId(), id -> new ArrayList<>()).add(item);
+        }
+        List<SaleCommitted> events = new ArrayList<>(sales.size());
+        for (Sale sale : sales) {
+            events.add(SaleCommitted.of(sale, itemsBySale.getOrDefault(sale.getId(), List.of())));
+        }
+        return events;
+    }
+
+    // Applies the sales of the batch that are still unapplied; returns how many that was.
+    private int apply(List<SaleCommitted> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<SaleCommitted> applied = transactionTemplate.execute(status -> {
+            Map<Long, SaleCommitted> byId = new HashMap<>();
+            for (SaleCommitted event : batch) {
+                byId.put(event.getSaleId(), event);
+            }
+            List<Sale> claimable = saleRepository.lockPendingEvents(byId.keySet());
+            if (claimable.isEmpty()) {
+                return List.<SaleCommitted>of();
+            }
+
+            List<SaleCommitted> claimed = new ArrayList<>(claimable.size());
+            List<Long> ids = new ArrayList<>(claimable.size());
+            for (Sale sale : claimable) {
+                claimed.add(byId.get(sale.getId()));
+                ids.add(sale.getId());
+            }
+            claimed.sort(Comparator.comparingLong(SaleCommitted::getSaleId));
+
+            aggregates.applySales(claimed);
+            analytics.applySales(claimed);
+            auditRepository.batchInsert(auditEntries(claimed));
+            saleRepository.markEventsApplied(ids);
+            return claimed;
+        });
+        if (applied == null || applied.isEmpty()) {
+            return 0;
+        }
+
+        // Low stock is an in-memory view, refreshed only once the batch is committed.
+        Set<Long> medicineIds = new HashSet<>();
+        long now = System.nanoTime();
+        for (SaleCommitted event : applied) {
+            for (int line = 0; line < event.getLineCount(); line++) {
+                medicineIds.add(event.getMedicineId(line));
+            }
+            if (event.getCommittedAtNanos() != 0) {
+                lag.record(now - event.getCommittedAtNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        lowStock.refresh(medicineIds);
+        batches.record(applied.size());
+        return applied.size();
+    }
+
+    private static List<SaleAuditEntry> auditEntries(List<SaleCommitted> sales) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SaleAuditEntry> entries = new ArrayList<>(sales.size());
+        for (SaleCommitted sale : sales) {
+            entries.add(new SaleAuditEntry(sale.getSaleId(), sale.getSoldBy(), sale.getSoldAt(),
+                    sale.getLineCount(), sale.getUnits(), sale.getTotalAmount(), now));
+        }
+        return entries;
+    }
+}
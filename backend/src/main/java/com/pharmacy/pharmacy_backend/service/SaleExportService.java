@@ -0,0 +1,159 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full sales history straight from a database cursor to the response, one sale at a
+ * time. Nothing is collected in memory, and the first rows are flushed as soon as they are
+ * written so the download starts immediately.
+ */
+@Service
+public class SaleExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    public enum Format {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    private final SaleRepository saleRepository;
+    private final ObjectMapper objectMapper;
+
+    public SaleExportService(SaleRepository saleRepository, ObjectMapper objectMapper) {
+        this.saleRepository = saleRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // The transaction keeps the cursor open (Postgres only honours the fetch size inside one).
+    @Transactional(readOnly = true)
+    public void export(OutputStream out, Format format, boolean includeItems) throws IOException {
+        try (Stream<Object[]> rows = includeItems ? saleRepository.streamWithItemsForExport() : saleRepository.streamForExport()) {
+            if (format == Format.NDJSON) {
+                writeNdjson(rows.iterator(), out, includeItems);
+            } else {
+                writeCsv(rows.iterator(), out, includeItems);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<Object[]> rows, OutputStream out, boolean includeItems) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // One object per line; the newline is written by hand after each sale.
+        json.setRootValueSeparator(null);
+
+        long written = 0;
+        Object[] row = rows.hasNext() ? rows.next() : null;
+        while (row != null) {
+            Object saleId = row[0];
+            json.writeStartObject();
+            json.writeObjectField("id", saleId);
+            json.writeObjectField("customerName", row[1]);
+            json.writeObjectField("totalAmount", row[2]);
+            json.writeObjectField("saleDate", row[3]);
+            if (includeItems) {
+                json.writeArrayFieldStart("items");
+                // The join yields one row per line; consume every row of this sale.
+                while (row != null && row[0].equals(saleId)) {
+                    if (row[4] != null) {
+                        json.writeStartObject();
+                        json.writeObjectField("id", row[4]);
+                        json.writeObjectField("medicineId", row[5]);
+                        json.writeObjectField("quantity", row[6]);
+                        json.writeObjectField("price", row[7]);
+                        json.writeEndObject();
+                    }
+                    row = rows.hasNext() ? rows.next() : null;
+                }
+                json.writeEndArray();
+            } else {
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+            if (++written == 1 || written % FLUSH_EVERY == 0) {
+                json.flush();
+            }
+        }
+        json.flush();
+    }
+
+    private void writeCsv(Iterator<Object[]> rows, OutputStream out, boolean includeItems) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(includeItems
+                ? "saleId,customerName,totalAmount,saleDate,itemId,medicineId,quantity,price\n"
+                : "id,customerName,totalAmount,saleDate\n");
+
+        int columns = includeItems ? 8 : 4;
+        long written = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            for (int i = 0; i < columns; i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                csv.write(csvCell(row[i]));
+            }
+            csv.write('\n');
+            if (++written == 1 || written % FLUSH_EVERY == 0) {
+                csv.flush();
+            }
+        }
+        csv.flush();
+    }
+
+    // Text that a spreadsheet would run as a formula gets a leading apostrophe; numbers, including
+    // negative ones, are written as they are.
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
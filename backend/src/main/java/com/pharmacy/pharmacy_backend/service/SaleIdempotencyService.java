@@ -0,0 +1,197 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pharmacy.pharmacy_backend.exception.IdempotencyKeyReusedException;
+import com.pharmacy.pharmacy_backend.exception.ServiceUnavailableException;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SaleIdempotencyKey;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.monitoring.SaleMetrics;
+import com.pharmacy.pharmacy_backend.repository.SaleIdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Checkout with an optional client-chosen Idempotency-Key, so a till can retry (or hedge) a
+ * submission without selling twice. Keys are scoped to the seller ({@code Sale.soldBy}): the
+ * same key from two users is two unrelated sales.
+ *
+ * The key is claimed with an insert at the start of the sale's transaction and bound to the new
+ * sale before commit; if the sale fails, the claim rolls back with it and the key stays free. A
+ * second attempt with the same key either finds it in a bounded in-memory index of recent keys
+ * (no statement at all) or loses the insert, waiting if the first attempt is still running, and
+ * then reads the stored sale back. Either way it gets the original sale and nothing is executed
+ * again. Keys are kept for {@code app.sales.idempotency.retention-hours}; a retry later than that
+ * is treated as a new sale.
+ */
+@Service
+public class SaleIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleIdempotencyService.class);
+
+    public static final class Result {
+        private final Sale sale;
+        private final boolean replayed;
+
+        Result(Sale sale, boolean replayed) {
+            this.sale = sale;
+            this.replayed = replayed;
+        }
+
+        public Sale getSale() {
+            return sale;
+        }
+
+        // True when the sale was created by an earlier attempt with the same key.
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class Entry {
+        private final Sale sale;
+        private final String requestHash;
+
+        private Entry(Sale sale, String requestHash) {
+            this.sale = sale;
+            this.requestHash = requestHash;
+        }
+    }
+
+    private final SaleService saleService;
+    private final SaleIdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SaleMetrics metrics;
+    private final Duration retention;
+    private final Cache<String, Entry> recent;
+
+    public SaleIdempotencyService(SaleService saleService,
+                                  SaleIdempotencyKeyRepository keyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  SaleMetrics metrics,
+                                  @Value("${app.sales.idempotency.cache-size:10000}") long cacheSize,
+                                  @Value("${app.sales.idempotency.retention-hours:24}") long retentionHours) {
+        this.saleService = saleService;
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.retention = Duration.ofHours(Math.max(1, retentionHours));
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, cacheSize))
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Creates the sale, or returns the one an earlier attempt with {@code key} created. Without
+     * a key this is a plain {@link SaleService#createSale}.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     */
+    public Result submit(String key, Sale sale, List<SalesItem> items) {
+        if (key == null) {
+            return new Result(saleService.createSale(sale, items), false);
+        }
+        if (key.isBlank() || key.length() > SaleIdempotencyKey.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to "
+                    + SaleIdempotencyKey.MAX_KEY_LENGTH + " characters");
+        }
+        String soldBy = sale.getSoldBy() == null ? SaleIdempotencyKey.ANONYMOUS : sale.getSoldBy();
+        String scopedKey = soldBy.length() + ":" + soldBy + key;
+        String requestHash = requestHash(sale, items);
+
+        Entry known = recent.getIfPresent(scopedKey);
+        if (known != null) {
+            return replay(key, requestHash, known, SaleMetrics.MEMORY);
+        }
+
+        Sale created = transactionTemplate.execute(status -> {
+            if (!keyRepository.claim(soldBy, key, requestHash)) {
+                return null;
+            }
+            Sale saved = saleService.createSale(sale, items);
+            keyRepository.attachSale(soldBy, key, saved.getId());
+            return saved;
+        });
+        if (created != null) {
+            recent.put(scopedKey, new Entry(created, requestHash));
+            return new Result(created, false);
+        }
+
+        // An earlier attempt with this key has committed.
+        List<Object[]> rows = keyRepository.findReplay(soldBy, key);
+        if (rows.isEmpty()) {
+            // Purged between the claim and this read; a retry claims it afresh.
+            throw new ServiceUnavailableException("Idempotency-Key " + key + " is being released, retry");
+        }
+        Entry stored = new Entry((Sale) rows.get(0)[1], (String) rows.get(0)[0]);
+        recent.put(scopedKey, stored);
+        return replay(key, requestHash, stored, SaleMetrics.DATABASE);
+    }
+
+    private Result replay(String key, String requestHash, Entry entry, String source) {
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        metrics.recordIdempotentReplay(source);
+        return new Result(entry.sale, true);
+    }
+
+    // SHA-256 (hex) of the request's fields, each written length-prefixed so no two requests
+    // serialize alike. Same seller, customer, amount and lines in the same order give the same
+    // hash. The date is left out: the server stamps it, so a retry's request body may carry any value.
+    static String requestHash(Sale sale, List<SalesItem> items) {
+        StringBuilder canonical = new StringBuilder(64);
+        field(canonical, sale.getSoldBy());
+        field(canonical, sale.getCustomerName());
+        field(canonical, sale.getTotalAmount());
+        field(canonical, items == null ? null : items.size());
+        if (items != null) {
+            for (SalesItem item : items) {
+                field(canonical, item.getMedicineId());
+                field(canonical, item.getQuantity());
+                field(canonical, item.getPrice());
+            }
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // "~" for null, otherwise the text's length, a colon and the text.
+    private static void field(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append('~');
+            return;
+        }
+        String text = value.toString();
+        canonical.append(text.length()).append(':').append(text);
+    }
+
+    @Scheduled(initialDelayString = "${app.sales.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${app.sales.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                keyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
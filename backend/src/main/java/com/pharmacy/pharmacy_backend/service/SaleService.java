@@ -1,52 +1,208 @@
 package com.pharmacy.pharmacy_backend.service;
 
+import com.pharmacy.pharmacy_backend.exception.InsufficientStockException;
 import com.pharmacy.pharmacy_backend.model.Medicine;
 import com.pharmacy.pharmacy_backend.model.Sale;
 import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.monitoring.SaleMetrics;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
 import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
 import com.pharmacy.pharmacy_backend.repository.SaleRepository;
 import com.pharmacy.pharmacy_backend.repository.SalesItemRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class SaleService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Stand-ins for an open range, kept within what every database's timestamp type can hold.
+    static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final SaleRepository saleRepository;
     private final SalesItemRepository itemRepository;
     private final MedicineRepository medicineRepository;
+    private final StockReservationService stockReservations;
+    private final SaleEventPipeline events;
+    private final RecentSalesService recentSales;
+    private final CatalogCache catalogCache;
+    private final SaleMetrics metrics;
 
     public SaleService(SaleRepository saleRepository,
                        SalesItemRepository itemRepository,
-                       MedicineRepository medicineRepository) {
+                       MedicineRepository medicineRepository,
+                       StockReservationService stockReservations,
+                       SaleEventPipeline events,
+                       RecentSalesService recentSales,
+                       CatalogCache catalogCache,
+                       SaleMetrics metrics) {
         this.saleRepository = saleRepository;
         this.itemRepository = itemRepository;
         this.medicineRepository = medicineRepository;
+        this.stockReservations = stockReservations;
+        this.events = events;
+        this.recentSales = recentSales;
+        this.catalogCache = catalogCache;
+        this.metrics = metrics;
     }
 
+    /**
+     * Checkout in one transaction and a fixed number of statements regardless of basket size.
+     *
+     * With write-behind enabled, stock is reserved from the in-memory counters and the lines
+     * are stored as pending; the medicines rows are updated later by
+     * {@link StockReservationService#flush()}. Otherwise the referenced medicines are checked
+     * with one select and decremented with one batched guarded update. Either way a shortfall
+     * rolls the whole sale back.
+     *
+     * Dashboard totals, the analytics rollup, the audit trail and low stock are not touched
+     * here: the sale is stored with {@code eventsApplied = false} and {@link SaleEventPipeline}
+     * applies it after commit.
+     */
+    @Transactional
     public Sale createSale(Sale sale, List<SalesItem> items) {
 
-        Sale savedSale = saleRepository.save(sale);
+        if (items == null) {
+            items = List.of();
+        }
 
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (SalesItem item : items) {
+            if (item.getMedicineId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each sale item needs a medicineId and a positive quantity");
+            }
+            quantities.merge(item.getMedicineId(), item.getQuantity(), Integer::sum);
+        }
 
-            item.setSaleId(savedSale.getId());
-            itemRepository.save(item);
+        boolean writeBehind = stockReservations.isEnabled();
+        if (writeBehind) {
+            try {
+                stockReservations.reserve(quantities);
+            } catch (InsufficientStockException e) {
+                metrics.recordStockConflict(SaleMetrics.RESERVATION);
+                throw e;
+            }
+        } else {
+            requireKnownMedicines(quantities.keySet());
+        }
 
-            Medicine med = medicineRepository.findById(item.getMedicineId()).orElse(null);
+        // The till's clock is not trusted: every sale is stamped here, whatever the request said.
+        sale.setSaleDate(LocalDateTime.now());
+        sale.setEventsApplied(false);
+        Sale savedSale = saleRepository.save(sale);
+
+        if (!items.isEmpty()) {
+            for (SalesItem item : items) {
+                item.setSaleId(savedSale.getId());
+                item.setStockApplied(!writeBehind);
+            }
+            itemRepository.batchInsert(items);
 
-            if (med != null) {
-                med.setQuantity(med.getQuantity() - item.getQuantity());
-                medicineRepository.save(med);
+            if (!writeBehind) {
+                List<Long> rejected = medicineRepository.decrementStock(quantities);
+                if (!rejected.isEmpty()) {
+                    metrics.recordStockConflict(SaleMetrics.DECREMENT);
+                    throw new InsufficientStockException(rejected.get(0));
+                }
+                catalogCache.evictStock(quantities.keySet());
             }
         }
 
+        events.publishAfterCommit(SaleCommitted.of(savedSale, items));
+        recentSales.recordAfterCommit(savedSale);
+        metrics.recordSaleAfterCommit(items);
         return savedSale;
     }
 
-    public List<Sale> getAllSales() {
-        return saleRepository.findAll();
+    private void requireKnownMedicines(Set<Long> medicineIds) {
+        Set<Long> known = medicineRepository.findAllById(medicineIds)
+                .stream()
+                .map(Medicine::getId)
+                .collect(Collectors.toSet());
+        for (Long medicineId : medicineIds) {
+            if (!known.contains(medicineId)) {
+                throw new IllegalArgumentException("Medicine not found: " + medicineId);
+            }
+        }
     }
-}
 
+    /**
+     * Sales with {@code from <= saleDate < to}, oldest first. Either bound may be a date or a
+     * date-time; a bare {@code to} date includes that whole day, and a missing bound leaves that
+     * side open. {@code after} is the id of the last sale on the previous page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Sale> getSalePage(String from, String to, Long after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime lower = parseBound(from, false);
+        LocalDateTime upper = parseBound(to, true);
+
+        long afterId = 0L;
+        if (after != null) {
+            LocalDateTime cursorDate = saleRepository.findSaleDateById(after);
+            if (cursorDate == null) {
+                throw new IllegalArgumentException("Unknown cursor: " + after);
+            }
+            // A cursor from another range would skip rows at the lower bound, so it is refused.
+            if (cursorDate.isBefore(lower) || !cursorDate.isBefore(upper)) {
+                throw new IllegalArgumentException("Cursor " + after + " is outside the requested date range");
+            }
+            // Resume from the cursor row; ties on the timestamp are broken by id.
+            lower = cursorDate;
+            afterId = after;
+        }
+
+        // Ask for one extra row so we know whether another page exists without a count query.
+        List<Sale> rows = saleRepository.findRangeAfter(lower, upper, afterId, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Sale> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Sales without a timestamp, in id order. {@code after} is the id of the last sale on the
+     * previous page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Sale> getUndatedSalePage(Long after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Sale> rows = saleRepository.findUndatedAfter(after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Sale> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
+    static LocalDateTime parseBound(String value, boolean upper) {
+        if (!StringUtils.hasText(value)) {
+            return upper ? LATEST : EARLIEST;
+        }
+        String text = value.trim();
+        try {
+            if (text.length() == 10) {
+                LocalDate day = LocalDate.parse(text);
+                return upper ? day.plusDays(1).atStartOfDay() : day.atStartOfDay();
+            }
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value + " (use yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+}
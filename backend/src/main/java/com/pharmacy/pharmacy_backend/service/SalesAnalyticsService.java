@@ -0,0 +1,265 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.DailyMedicineSales;
+import com.pharmacy.pharmacy_backend.repository.DailyMedicineSalesRepository;
+import com.pharmacy.pharmacy_backend.repository.DailySalesTotalRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales analytics answered from rollup tables rather than from the sale lines. Revenue per day
+ * comes from the dashboard's daily totals; units and revenue per medicine per day are kept in
+ * {@link DailyMedicineSales}, updated by {@link SaleEventPipeline} shortly after each sale
+ * commits, so a report over years reads one row per medicine per day sold instead of every line
+ * item.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    public static final int DEFAULT_WINDOW_DAYS = 30;
+    public static final int DEFAULT_TOP = 10;
+    public static final int MAX_TOP = 100;
+    // Each backfill transaction covers at most this many days of history.
+    static final int BACKFILL_CHUNK_DAYS = 31;
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    public enum Interval {
+        DAY, MONTH;
+
+        public static Interval of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported interval: " + name + " (use day or month)");
+            }
+        }
+    }
+
+    public enum Ranking {
+        UNITS, REVENUE;
+
+        public static Ranking of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported ranking: " + name + " (use units or revenue)");
+            }
+        }
+    }
+
+    private final DailyMedicineSalesRepository medicineDailyRepository;
+    private final DailySalesTotalRepository dailyTotalsRepository;
+    private final SaleRepository saleRepository;
+    private final TransactionTemplate newTransaction;
+
+    public SalesAnalyticsService(DailyMedicineSalesRepository medicineDailyRepository,
+                                 DailySalesTotalRepository dailyTotalsRepository,
+                                 SaleRepository saleRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.medicineDailyRepository = medicineDailyRepository;
+        this.dailyTotalsRepository = dailyTotalsRepository;
+        this.saleRepository = saleRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the lines of a batch of committed sales to the per-medicine rollup, one batched update
+     * per day the batch touches. Joins the caller's transaction, the one in which
+     * {@link SaleEventPipeline} marks the sales applied.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applySales(List<SaleCommitted> sales) {
+        // Sorted by day and id so concurrent writers lock the shared rows in the same order.
+        Map<LocalDate, Map<Long, double[]>> perDay = new TreeMap<>();
+        for (SaleCommitted sale : sales) {
+            // Undated sales belong to no day, as on the dashboard.
+            if (sale.getLineCount() == 0 || sale.getSoldAt() == null) {
+                continue;
+            }
+            Map<Long, double[]> totals = perDay.computeIfAbsent(
+                    sale.getSoldAt().toLocalDate(), d -> new TreeMap<>());
+            for (int line = 0; line < sale.getLineCount(); line++) {
+                double[] medicine = totals.computeIfAbsent(sale.getMedicineId(line), id -> new double[2]);
+                medicine[0] += sale.getQuantity(line);
+                medicine[1] += sale.getQuantity(line) * sale.getPrice(line);
+            }
+        }
+
+        perDay.forEach((day, totals) -> {
+            List<Long> missing = medicineDailyRepository.addSales(day, totals);
+            if (!missing.isEmpty()) {
+                // In this transaction: a separate one would need a second pooled connection
+                // while this one holds row locks.
+                medicineDailyRepository.createMissingRows(day, missing);
+                Map<Long, double[]> retry = new TreeMap<>();
+                missing.forEach(id -> retry.put(id, totals.get(id)));
+                medicineDailyRepository.addSales(day, retry);
+            }
+        });
+    }
+
+    // Sale count and revenue per day or per calendar month, oldest first.
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRevenue(LocalDate from, LocalDate to, Interval interval) {
+        LocalDate[] window = window(from, to);
+        Map<Object, double[]> periods = new LinkedHashMap<>();
+        for (Object[] row : dailyTotalsRepository.findDailyTotalsBetween(window[0], window[1])) {
+            LocalDate day = (LocalDate) row[0];
+            Object period = interval == Interval.MONTH ? YearMonth.from(day) : day;
+            double[] totals = periods.computeIfAbsent(period, p -> new double[2]);
+            totals[0] += ((Number) row[1]).doubleValue();
+            totals[1] += ((Number) row[2]).doubleValue();
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(periods.size());
+        periods.forEach((period, totals) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("period", period.toString());
+            entry.put("totalSales", (long) totals[0]);
+            entry.put("totalRevenue", totals[1]);
+            result.add(entry);
+        });
+        return result;
+    }
+
+    // Units and revenue of one medicine for each day it sold in the window.
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getMedicineDaily(Long medicineId, LocalDate from, LocalDate to) {
+        LocalDate[] window = window(from, to);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : medicineDailyRepository.findDaily(medicineId, window[0], window[1])) {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("day", row[0]);
+            day.put("units", ((Number) row[1]).longValue());
+            day.put("revenue", ((Number) row[2]).doubleValue());
+            result.add(day);
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTopMedicines(LocalDate from, LocalDate to, Integer limit, Ranking ranking) {
+        LocalDate[] window = window(from, to);
+        PageRequest top = PageRequest.of(0, topSize(limit));
+        List<Object[]> rows = ranking == Ranking.REVENUE
+                ? medicineDailyRepository.findTopMedicinesByRevenue(window[0], window[1], top)
+                : medicineDailyRepository.findTopMedicinesByUnits(window[0], window[1], top);
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> medicine = new LinkedHashMap<>();
+            medicine.put("medicineId", row[0]);
+            medicine.put("name", row[1]);
+            medicine.put("units", ((Number) row[2]).longValue());
+            medicine.put("revenue", ((Number) row[3]).doubleValue());
+            result.add(medicine);
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTopCategories(LocalDate from, LocalDate to, Integer limit, Ranking ranking) {
+        LocalDate[] window = window(from, to);
+        PageRequest top = PageRequest.of(0, topSize(limit));
+        List<Object[]> rows = ranking == Ranking.REVENUE
+                ? medicineDailyRepository.findTopCategoriesByRevenue(window[0], window[1], top)
+                : medicineDailyRepository.findTopCategoriesByUnits(window[0], window[1], top);
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("category", row[0]);
+            category.put("units", ((Number) row[1]).longValue());
+            category.put("revenue", ((Number) row[2]).doubleValue());
+            result.add(category);
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes the per-medicine rollup for {@code [from, to]} from the raw tables, one chunk of
+     * days per transaction. Without bounds it covers the whole sales history. Sales committed
+     * on a day while that day is being rebuilt may be lost from it, so run it when tills are idle.
+     */
+    public Map<String, Object> backfill(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            LocalDateTime first = saleRepository.findFirstSaleDate();
+            LocalDateTime last = saleRepository.findLastSaleDate();
+            if (first == null) {
+                return backfillReport(from, to, 0);
+            }
+            from = from == null ? first.toLocalDate() : from;
+            to = to == null ? last.toLocalDate() : to;
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        int rows = 0;
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(BACKFILL_CHUNK_DAYS)) {
+            LocalDate chunkStart = start;
+            LocalDate chunkEnd = start.plusDays(BACKFILL_CHUNK_DAYS - 1L).isAfter(to) ? to : start.plusDays(BACKFILL_CHUNK_DAYS - 1L);
+            Integer written = newTransaction.execute(status -> {
+                medicineDailyRepository.deleteDays(chunkStart, chunkEnd);
+                return medicineDailyRepository.insertFromSales(chunkStart, chunkEnd);
+            });
+            rows += written == null ? 0 : written;
+        }
+        logger.info("Backfilled daily medicine sales from {} to {}: {} rows", from, to, rows);
+        return backfillReport(from, to, rows);
+    }
+
+    private static Map<String, Object> backfillReport(LocalDate from, LocalDate to, int rows) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("rows", rows);
+        return report;
+    }
+
+    // Builds the rollup for existing history the first time the application starts with it.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(50)
+    public void initialiseIfMissing() {
+        if (medicineDailyRepository.count() == 0) {
+            backfill(null, null);
+        }
+    }
+
+    // Missing bounds default to the DEFAULT_WINDOW_DAYS ending today; both ends are inclusive.
+    private static LocalDate[] window(LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_WINDOW_DAYS - 1L) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return new LocalDate[]{start, end};
+    }
+
+    private static int topSize(Integer limit) {
+        return limit == null ? DEFAULT_TOP : Math.max(1, Math.min(limit, MAX_TOP));
+    }
+}
@@ -0,0 +1,259 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.exception.InsufficientStockException;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import com.pharmacy.pharmacy_backend.repository.SalesItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stock reservations for checkout.
+ *
+ * Each medicine gets a {@link StripedStockCounter} seeded from its stored quantity minus any
+ * sold lines still waiting to be written back. A sale reserves against the counters without
+ * touching the medicines rows and records its lines with {@code stockApplied = false}; a
+ * scheduled flush later folds those lines into one batched quantity update per medicine and
+ * flips the flag in the same transaction. Because the pending lines are committed with the
+ * sale, a crash loses nothing: the flush that runs on startup applies whatever was left over.
+ *
+ * A counter, once seeded, is never reseeded while the application runs: reseeding would miss
+ * reservations held by sales that have not committed yet. Quantity edits move it by the change
+ * they committed instead ({@link #adjustAfterCommit}).
+ *
+ * While write-behind is on, {@code medicines.quantity} is the stored stock, and so is every
+ * medicine read (single medicine, pages, catalog snapshot): it trails checkout by up to one
+ * flush and may be above what is still sellable. {@link #available} gives the sellable figure.
+ *
+ * The counters are authoritative only within one JVM, so write-behind is off by default
+ * ({@code app.stock.write-behind.enabled=false}) and may only be turned on by a deployment with a
+ * single backend instance.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final MedicineRepository medicineRepository;
+    private final SalesItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // Bumped when a committed change finds no counter to adjust, so a seed read before that
+    // commit is discarded rather than installed.
+    private final AtomicLong unseededChanges = new AtomicLong();
+    private final int stripes;
+
+    @Value("${app.stock.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stock.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    public StockReservationService(MedicineRepository medicineRepository,
+                                   SalesItemRepository itemRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   CatalogCache catalogCache) {
+        this.medicineRepository = medicineRepository;
+        this.itemRepository = itemRepository;
+        this.catalogCache = catalogCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves every quantity or none of them. Must run inside the sale's transaction: if that
+     * transaction rolls back, the reservation is handed back automatically.
+     *
+     * @throws IllegalArgumentException   if a medicine does not exist
+     * @throws InsufficientStockException if any medicine cannot cover its quantity
+     */
+    public void reserve(Map<Long, Integer> quantitiesByMedicineId) {
+        seedMissing(quantitiesByMedicineId.keySet());
+
+        // Keyed by counter instance so a rollback never credits a counter that was removed since.
+        Map<StripedStockCounter, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantitiesByMedicineId.entrySet()) {
+            StripedStockCounter counter = counters.get(entry.getKey());
+            if (counter == null || !counter.tryReserve(entry.getValue())) {
+                release(reserved);
+                throw new InsufficientStockException(entry.getKey());
+            }
+            reserved.put(counter, entry.getValue());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(reserved);
+                }
+            }
+        });
+    }
+
+    public int available(Long medicineId) {
+        seedMissing(List.of(medicineId));
+        StripedStockCounter counter = counters.get(medicineId);
+        return counter == null ? 0 : counter.available();
+    }
+
+    /**
+     * Moves the medicine's counter by {@code delta} units once the current transaction commits
+     * (or straight away when there is none). The caller must hold the medicine's row lock while
+     * it computes the delta, so the flush cannot write back in between.
+     */
+    public void adjustAfterCommit(Long medicineId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> counters.compute(medicineId, (id, counter) -> {
+            if (counter == null) {
+                unseededChanges.incrementAndGet();
+            } else {
+                counter.adjust(delta);
+            }
+            return counter;
+        }));
+    }
+
+    // Forgets a deleted medicine once the delete has committed.
+    public void removeAfterCommit(Long medicineId) {
+        AfterCommit.run(() -> counters.compute(medicineId, (id, counter) -> {
+            unseededChanges.incrementAndGet();
+            return null;
+        }));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void reconcileOnStartup() {
+        int applied = 0;
+        int batch;
+        while ((batch = flushBatch()) > 0) {
+            applied += batch;
+        }
+        counters.clear();
+        if (applied > 0) {
+            logger.info("Applied {} sale lines left pending by the previous run", applied);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.flush-interval-ms:500}")
+    public void flush() {
+        if (enabled) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Writes back one batch of pending lines; returns how many lines were applied.
+     *
+     * The quantity never goes below zero. Lines sold after an edit lowered the quantity below
+     * them (a stock count taken while those sales were in flight) bring it to zero, and the
+     * shortfall is credited back to the counter, which had already charged it as a debt.
+     */
+    int flushBatch() {
+        Integer applied = transactionTemplate.execute(status -> {
+            List<SalesItem> pending = itemRepository.findPendingStock(PageRequest.of(0, flushBatchSize));
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            Map<Long, Integer> deltas = new HashMap<>();
+            List<Long> ids = new ArrayList<>(pending.size());
+            for (SalesItem item : pending) {
+                deltas.merge(item.getMedicineId(), item.getQuantity(), Integer::sum);
+                ids.add(item.getId());
+            }
+
+            // Lines of a medicine deleted since the sale have nothing left to decrement.
+            Map<Long, Integer> decrements = new HashMap<>();
+            Map<Long, Integer> shortfalls = new HashMap<>();
+            for (Medicine medicine : medicineRepository.lockByIdIn(deltas.keySet())) {
+                int delta = deltas.get(medicine.getId());
+                int onHand = Math.max(medicine.getQuantity(), 0);
+                if (delta > onHand) {
+                    shortfalls.put(medicine.getId(), delta - onHand);
+                }
+                if (Math.min(delta, onHand) > 0) {
+                    decrements.put(medicine.getId(), Math.min(delta, onHand));
+                }
+            }
+            if (!decrements.isEmpty() && !medicineRepository.decrementStock(decrements).isEmpty()) {
+                throw new IllegalStateException("Stock changed under the row lock while flushing");
+            }
+            if (!shortfalls.isEmpty()) {
+                logger.warn("Sold more than the stored quantity of medicines {}; set them to zero", shortfalls.keySet());
+                shortfalls.forEach(this::adjustAfterCommit);
+            }
+            catalogCache.evictStock(deltas.keySet());
+            itemRepository.markStockApplied(ids);
+            return pending.size();
+        });
+        return applied == null ? 0 : applied;
+    }
+
+    private void seedMissing(Iterable<Long> medicineIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : medicineIds) {
+            if (!counters.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        while (!missing.isEmpty()) {
+            long changesBefore = unseededChanges.get();
+            List<Object[]> rows = medicineRepository.findStockWithPending(missing);
+            if (rows.size() < missing.size()) {
+                for (Object[] row : rows) {
+                    missing.remove(((Number) row[0]).longValue());
+                }
+                throw new IllegalArgumentException("Medicine not found: " + missing.get(0));
+            }
+            for (Object[] row : rows) {
+                Long id = ((Number) row[0]).longValue();
+                int availableStock = ((Number) row[1]).intValue() - ((Number) row[2]).intValue();
+                StripedStockCounter counter = counters.compute(id, (key, existing) -> {
+                    if (existing != null || unseededChanges.get() != changesBefore) {
+                        return existing;
+                    }
+                    return new StripedStockCounter(availableStock, stripes);
+                });
+                if (counter != null) {
+                    missing.remove(id);
+                }
+            }
+        }
+    }
+
+    private static void release(Map<StripedStockCounter, Integer> reserved) {
+        reserved.forEach(StripedStockCounter::release);
+    }
+}
@@ -0,0 +1,135 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Available stock for one medicine, spread over several CAS cells so concurrent tills mostly
+ * touch different cache lines. A reservation drains its home cell first and only walks the
+ * other cells when that is not enough; a reservation that cannot be covered hands back what
+ * it took and fails. No locks are held at any point.
+ *
+ * A downward correction larger than what the cells hold is kept as a debt: it is paid from the
+ * next units released or added, and no reservation succeeds while any of it is outstanding, so
+ * {@link #available()} may be negative.
+ */
+final class StripedStockCounter {
+
+    // 16 ints = 64 bytes between live cells, so neighbouring stripes never share a cache line.
+    private static final int PAD = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+    private final AtomicInteger debt = new AtomicInteger();
+
+    StripedStockCounter(int initial, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PAD);
+        int share = Math.max(initial, 0) / stripes;
+        int remainder = Math.max(initial, 0) % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+        debt.set(Math.max(-initial, 0));
+    }
+
+    boolean tryReserve(int quantity) {
+        if (debt.get() > 0 && !settle()) {
+            return false;
+        }
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+        int remaining = quantity;
+        int[] taken = null;
+
+        for (int n = 0; n < stripes && remaining > 0; n++) {
+            int stripe = (home + n) % stripes;
+            int slot = stripe * PAD;
+            while (true) {
+                int current = cells.get(slot);
+                if (current <= 0) {
+                    break;
+                }
+                int take = Math.min(current, remaining);
+                if (cells.compareAndSet(slot, current, current - take)) {
+                    remaining -= take;
+                    if (remaining > 0) {
+                        if (taken == null) {
+                            taken = new int[stripes];
+                        }
+                        taken[stripe] += take;
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (remaining == 0) {
+            return true;
+        }
+        if (taken != null) {
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                if (taken[stripe] > 0) {
+                    cells.addAndGet(stripe * PAD, taken[stripe]);
+                }
+            }
+        }
+        return false;
+    }
+
+    void release(int quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, quantity);
+        if (debt.get() > 0) {
+            settle();
+        }
+    }
+
+    // Moves the stock by a committed change to the stored quantity, in either direction.
+    void adjust(int delta) {
+        if (delta >= 0) {
+            release(delta);
+        } else {
+            debt.addAndGet(-delta);
+            settle();
+        }
+    }
+
+    int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum - debt.get();
+    }
+
+    // Pays the debt from the cells; returns true once none is left. Two threads settling at once
+    // may take more than was owed between them, and the surplus goes back into a cell.
+    private boolean settle() {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int slot = stripe * PAD;
+            while (true) {
+                int owed = debt.get();
+                if (owed <= 0) {
+                    break;
+                }
+                int current = cells.get(slot);
+                if (current <= 0) {
+                    break;
+                }
+                int take = Math.min(current, owed);
+                if (cells.compareAndSet(slot, current, current - take)) {
+                    debt.addAndGet(-take);
+                }
+            }
+        }
+        int owed = debt.get();
+        while (owed < 0) {
+            if (debt.compareAndSet(owed, 0)) {
+                cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, -owed);
+                return true;
+            }
+            owed = debt.get();
+        }
+        return owed == 0;
+    }
+}
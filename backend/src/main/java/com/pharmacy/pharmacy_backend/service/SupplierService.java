@@ -1,30 +1,50 @@
 package com.pharmacy.pharmacy_backend.service;
 
+import com.pharmacy.pharmacy_backend.config.CacheConfig;
 import com.pharmacy.pharmacy_backend.model.Supplier;
 import com.pharmacy.pharmacy_backend.repository.SupplierRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class SupplierService {
 
     private final SupplierRepository repository;
+    private final CatalogVersions versions;
 
-    public SupplierService(SupplierRepository repository) {
+    public SupplierService(SupplierRepository repository, CatalogVersions versions) {
         this.repository = repository;
+        this.versions = versions;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
     public Supplier addSupplier(Supplier supplier) {
-        return repository.save(supplier);
+        Supplier saved = repository.save(supplier);
+        versions.bumpAfterCommit(CatalogVersions.Collection.SUPPLIERS);
+        return saved;
     }
 
+    @Cacheable(cacheNames = CacheConfig.SUPPLIERS, key = "'all'")
     public List<Supplier> getAllSuppliers() {
         return repository.findAll();
     }
 
+    // One row by primary key; never loads the whole list.
+    public Optional<Supplier> getSupplierById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
     public void deleteSupplier(Long id) {
         repository.deleteById(id);
+        versions.bumpAfterCommit(CatalogVersions.Collection.SUPPLIERS);
     }
 }
 
@@ -0,0 +1,60 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacyDateMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE sales (id BIGINT PRIMARY KEY, sale_date VARCHAR(255), sold_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE medicines (id BIGINT PRIMARY KEY, expiry_on DATE)");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void migrate_SeveralChunks_CopiesParseableDatesAndRetiresTheOldColumn() {
+        // Arrange
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= LegacyDateMigration.CHUNK_SIZE + 5; id++) {
+            rows.add(new Object[]{id, id == 3 ? "not a date" : "2025-01-31"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, sale_date) VALUES (?, ?)", rows);
+
+        // Act
+        new LegacyDateMigration(jdbcTemplate).migrate();
+
+        // Assert
+        assertEquals(LegacyDateMigration.CHUNK_SIZE + 4, count("SELECT COUNT(*) FROM sales WHERE sold_at IS NOT NULL"));
+        assertEquals(1, count("SELECT COUNT(*) FROM sales WHERE sold_at IS NULL AND sale_date_legacy = 'not a date'"));
+    }
+
+    @Test
+    void migrate_SecondStartup_FindsNothingToRead() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO sales (id, sale_date) VALUES (1, 'garbage')");
+        LegacyDateMigration migration = new LegacyDateMigration(jdbcTemplate);
+        migration.migrate();
+
+        // Act
+        migration.migrate();
+
+        // Assert
+        assertEquals(1, count("SELECT COUNT(*) FROM sales WHERE sale_date_legacy = 'garbage'"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Two embedded H2 databases stand in for the primary and the replica; each says which it is.
+class ReadWriteRoutingDataSourceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routing;
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + "-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag AS SELECT CAST(0 AS DOUBLE PRECISION) AS seconds");
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", 5000, 60_000);
+        lagMonitor.check();
+        routing = routing(replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.allowReplica(false);
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    private ReadWriteRoutingDataSource routing(DataSource replicaPool) {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replicaPool, lagMonitor);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    // Which database answers a query inside a transaction of the given kind.
+    private String readIn(boolean readOnlyTransaction, boolean serviceAllowsReplica) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnlyTransaction);
+        boolean previous = ReadWriteRoutingDataSource.allowReplica(serviceAllowsReplica);
+        try {
+            return transaction.execute(status -> new JdbcTemplate(routing).queryForObject("SELECT name FROM whoami", String.class));
+        } finally {
+            ReadWriteRoutingDataSource.allowReplica(previous);
+        }
+    }
+
+    private void setLag(double seconds) {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = ?", seconds);
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyServiceTransaction_ReadsFromReplica() {
+        // Act & Assert
+        assertEquals("replica", readIn(true, true));
+        assertEquals(0.0, lagMonitor.getLagSeconds());
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() {
+        // Act & Assert
+        assertEquals("primary", readIn(false, true));
+    }
+
+    @Test
+    void readOnlyTransactionOutsideService_UsesPrimary() {
+        // Act & Assert
+        assertEquals("primary", readIn(true, false));
+    }
+
+    @Test
+    void noTransaction_UsesPrimary() {
+        // Arrange
+        ReadWriteRoutingDataSource.allowReplica(true);
+
+        // Act & Assert
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @Test
+    void replicaLag_AboveLimitFallsBackUntilCaughtUp() {
+        // Act
+        setLag(12.5);
+
+        // Assert
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readIn(true, true));
+
+        // Act
+        setLag(0.2);
+
+        // Assert
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("replica", readIn(true, true));
+    }
+
+    @Test
+    void lagCheckFailing_UsesPrimary() {
+        // Arrange
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+
+        // Act
+        lagMonitor.check();
+
+        // Assert
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readIn(true, true));
+    }
+
+    @Test
+    void replicaRefusingConnections_FallsBackAndMarksUnavailable() throws SQLException {
+        // Arrange
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routing = routing(down);
+
+        // Act
+        String answeredBy = readIn(true, true);
+
+        // Assert
+        assertEquals("primary", answeredBy);
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    @Service
+    static class ReportService {
+
+        @Transactional(readOnly = true)
+        public boolean report() {
+            return ReadWriteRoutingDataSource.isReplicaAllowed();
+        }
+
+        @Transactional
+        public boolean write() {
+            return ReadWriteRoutingDataSource.isReplicaAllowed();
+        }
+    }
+
+    @Test
+    void aspect_OnlyReadOnlyServiceMethodsMayUseReplica() {
+        // Arrange
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ReportService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ReplicaReadAspect());
+        ReportService service = factory.getProxy();
+
+        // Act & Assert
+        assertTrue(service.report());
+        assertFalse(service.write());
+        assertFalse(ReadWriteRoutingDataSource.isReplicaAllowed());
+    }
+}
@@ -0,0 +1,71 @@
+package com.pharmacy.pharmacy_backend.config;
+
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import com.pharmacy.pharmacy_backend.service.DashboardAggregateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The replica pool points at the same database as the primary; which pool lent a connection tells
+// the routes apart.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica-routing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica-lag.query=SELECT 0",
+        "app.datasource.replica-lag.check-interval-ms=60000"
+})
+@ActiveProfiles("test")
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private DashboardAggregateService aggregates;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    private long replicaConnections() {
+        Timer usage = registry.find("hikaricp.connections.usage").tag("pool", "replica").timer();
+        return usage == null ? 0 : usage.count();
+    }
+
+    @Test
+    void readOnlyServiceMethods_UseReplicaPool() throws InterruptedException {
+        // Arrange
+        for (int i = 0; i < 100 && !lagMonitor.isReplicaUsable(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(lagMonitor.isReplicaUsable());
+        long before = replicaConnections();
+
+        // Act
+        aggregates.getSummary();
+        long afterReport = replicaConnections();
+        medicineRepository.count();
+        aggregates.rebuild();
+
+        // Assert
+        assertInstanceOf(ReadWriteRoutingDataSource.class, dataSource);
+        assertEquals(before + 1, afterReport);
+        assertEquals(afterReport, replicaConnections());
+        assertEquals(1.0, registry.get("db.replica.usable").gauge().value());
+        assertNotNull(registry.find("db.pool.saturation").tag("pool", "replica").gauge());
+        assertNotNull(registry.find("db.pool.saturation").tag("pool", "primary").gauge());
+    }
+}
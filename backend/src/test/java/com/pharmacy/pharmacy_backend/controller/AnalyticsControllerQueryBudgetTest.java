@@ -0,0 +1,39 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AnalyticsControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void getRevenue_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/analytics/revenue").param("interval", "month"), QueryBudget.statements(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getMedicineDaily_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/analytics/medicines/{id}/daily", 1L), QueryBudget.statements(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTopMedicines_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/analytics/top-medicines").param("limit", "10"), QueryBudget.statements(1).rows(10))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTopCategories_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/analytics/top-categories").param("limit", "10"), QueryBudget.statements(1).rows(10))
+                .andExpect(status().isOk());
+    }
+}
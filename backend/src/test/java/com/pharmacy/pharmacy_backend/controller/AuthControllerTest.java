@@ -6,6 +6,7 @@ import com.pharmacy.pharmacy_backend.payload.response.JwtResponse;
 import com.pharmacy.pharmacy_backend.payload.response.MessageResponse;
 import com.pharmacy.pharmacy_backend.repository.UserRepository;
 import com.pharmacy.pharmacy_backend.security.JwtTokenProvider;
+import com.pharmacy.pharmacy_backend.security.PasswordHashingExecutor;
 import com.pharmacy.pharmacy_backend.security.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,6 +46,9 @@ class AuthControllerTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private PasswordHashingExecutor hashingExecutor;
+
     @InjectMocks
     private AuthController authController;
 
@@ -66,6 +71,10 @@ class AuthControllerTest {
 
         userDetails = new UserDetailsImpl(1L, "testuser", "testpass", "test@example.com", 
                                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        // Run hashing work inline, as the real pool would on an idle system.
+        lenient().when(hashingExecutor.call(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Callable<?>>getArgument(1).call());
+
         authentication = mock(Authentication.class);
         lenient().when(authentication.getPrincipal()).thenReturn(userDetails);
     }
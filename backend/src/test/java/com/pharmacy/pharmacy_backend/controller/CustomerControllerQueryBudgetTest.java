@@ -0,0 +1,84 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.model.Customer;
+import com.pharmacy.pharmacy_backend.repository.CustomerRepository;
+import com.pharmacy.pharmacy_backend.service.CustomerService;
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CustomerControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customers.add(customerService.addCustomer(customer));
+        }
+    }
+
+    @Test
+    void getCustomers_OneSelectThenCached() throws Exception {
+        // Arrange
+        long rows = customerRepository.count();
+
+        // Act & Assert
+        perform(get("/api/customers"), QueryBudget.statements(1).rows(rows))
+                .andExpect(status().isOk());
+        perform(get("/api/customers"), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCustomers_NotModified_NoStatements() throws Exception {
+        // Arrange
+        String etag = mvc.perform(get("/api/customers")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        perform(get("/api/customers").header(HttpHeaders.IF_NONE_MATCH, etag), QueryBudget.statements(0))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void addCustomer_SingleInsert() throws Exception {
+        // Act & Assert
+        perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"New\"}"),
+                QueryBudget.statements(1).rows(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateCustomer_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(put("/api/customers/{id}", customers.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"),
+                QueryBudget.statements(2).rows(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteCustomer_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(delete("/api/customers/{id}", customers.get(0).getId()), QueryBudget.statements(2).rows(1))
+                .andExpect(status().isOk());
+    }
+}
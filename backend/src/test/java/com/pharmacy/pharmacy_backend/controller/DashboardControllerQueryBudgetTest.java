@@ -0,0 +1,53 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DashboardControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void getTotalMedicines_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/total-medicines"), QueryBudget.statements(1).rows(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTotalSales_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/total-sales"), QueryBudget.statements(1).rows(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getSummary_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/summary"), QueryBudget.statements(1).rows(3))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getDailySales_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/daily-sales").param("days", "30"), QueryBudget.statements(1).rows(30))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getLowStock_InMemory() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/low-stock"), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getRecentSales_InMemory() throws Exception {
+        // Act & Assert
+        perform(get("/api/dashboard/recent-sales"), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+}
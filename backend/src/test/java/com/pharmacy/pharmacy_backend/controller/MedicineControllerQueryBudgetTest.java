@@ -0,0 +1,130 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.service.MedicineService;
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class MedicineControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Autowired
+    private MedicineService medicineService;
+
+    private final List<Medicine> medicines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 30; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setName("Budgetol " + i);
+            medicine.setCompany("Acme");
+            medicine.setCategory("otc");
+            medicine.setPrice(2.5);
+            medicine.setQuantity(100);
+            medicine.setExpiryDate(LocalDate.now().plusDays(i));
+            medicines.add(medicineService.addMedicine(medicine));
+        }
+    }
+
+    @Test
+    void getMedicineById_OneSelectThenCached() throws Exception {
+        // Arrange
+        Long id = medicines.get(3).getId();
+        clearCaches();
+
+        // Act & Assert
+        perform(get("/api/medicines/{id}", id), QueryBudget.statements(1).rows(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Budgetol 3"));
+        perform(get("/api/medicines/{id}", id), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getMedicines_OnePageOneSelect() throws Exception {
+        // Act & Assert
+        perform(get("/api/medicines").param("limit", "10"), QueryBudget.statements(1).rows(11))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10));
+    }
+
+    @Test
+    void getMedicines_Filtered_OneSelect() throws Exception {
+        // Act & Assert
+        perform(get("/api/medicines").param("name", "budgetol").param("limit", "5"),
+                QueryBudget.statements(1).rows(6))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getMedicines_NotModified_NoStatements() throws Exception {
+        // Arrange
+        String etag = mvc.perform(get("/api/medicines").param("limit", "10"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        perform(get("/api/medicines").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, etag),
+                QueryBudget.statements(0))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getCatalogSnapshot_NoStatementsOnRequestThread() throws Exception {
+        // Act & Assert
+        perform(get("/api/medicines/snapshot"), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchMedicines_OneLookupForTheHits() throws Exception {
+        // Act & Assert
+        perform(get("/api/medicines/search").param("q", "budg").param("limit", "10"),
+                QueryBudget.statements(1).rows(10))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getExpiryReport_OneLookupForTheListedMedicines() throws Exception {
+        // Act & Assert
+        perform(get("/api/medicines/expiry").param("days", "10").param("limit", "10"),
+                QueryBudget.statements(1).rows(30))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addMedicine_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(post("/api/medicines").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Newol\",\"price\":1.0,\"quantity\":5}"),
+                QueryBudget.statements(3))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateMedicine_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(put("/api/medicines/{id}", medicines.get(0).getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"price\":1.0,\"quantity\":5}"),
+                QueryBudget.statements(3))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteMedicine_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(delete("/api/medicines/{id}", medicines.get(0).getId()), QueryBudget.statements(4))
+                .andExpect(status().isOk());
+    }
+}
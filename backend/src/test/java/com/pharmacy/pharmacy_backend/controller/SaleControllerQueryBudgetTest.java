@@ -0,0 +1,112 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.service.MedicineService;
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class SaleControllerQueryBudgetTest extends QueryBudgetTest {
+
+    private static final int BASKET_SIZE = 20;
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> medicineIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BASKET_SIZE; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setName("Saleol " + i);
+            medicine.setPrice(3.0);
+            medicine.setQuantity(1000);
+            medicineIds.add(medicineService.addMedicine(medicine).getId());
+        }
+    }
+
+    private String saleRequest(int lines) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"medicineId\":").append(medicineIds.get(i)).append(",\"quantity\":2,\"price\":3.0}");
+        }
+        return "{\"sale\":{\"customerName\":\"Walk-in\",\"totalAmount\":" + lines * 6.0 + "},\"items\":[" + items + "]}";
+    }
+
+    @Test
+    void createSale_FixedStatementCount() throws Exception {
+        // Write-behind is off by default: one select checks the medicines and one batched guarded
+        // update takes the stock. The dashboard, analytics and audit updates run after commit on
+        // the sale event consumer, outside the request.
+        // Act & Assert
+        perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(saleRequest(BASKET_SIZE)),
+                QueryBudget.statements(4).rows(BASKET_SIZE))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createSale_StatementsIndependentOfBasketSize() throws Exception {
+        // Arrange
+        mvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(saleRequest(BASKET_SIZE)));
+
+        // Act & Assert
+        perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(saleRequest(BASKET_SIZE)),
+                QueryBudget.statements(4).rows(BASKET_SIZE))
+                .andExpect(status().isOk());
+        perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(saleRequest(1)),
+                QueryBudget.statements(4).rows(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createSale_RetryWithIdempotencyKey_AnsweredWithoutStatements() throws Exception {
+        // Arrange
+        String body = mvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .header(SaleController.IDEMPOTENCY_KEY_HEADER, "budget-retry-1").content(saleRequest(2)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long saleId = objectMapper.readTree(body).get("id").asLong();
+
+        // Act & Assert
+        perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .header(SaleController.IDEMPOTENCY_KEY_HEADER, "budget-retry-1").content(saleRequest(2)),
+                QueryBudget.statements(0))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SaleController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(saleId));
+        perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .header(SaleController.IDEMPOTENCY_KEY_HEADER, "budget-retry-1").content(saleRequest(3)),
+                QueryBudget.statements(0))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void getSales_OnePageOneSelect() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(saleRequest(2)));
+        }
+
+        // Act & Assert
+        perform(get("/api/sales").param("limit", "2"), QueryBudget.statements(1).rows(3))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+}
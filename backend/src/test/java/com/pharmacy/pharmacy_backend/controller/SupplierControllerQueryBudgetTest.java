@@ -0,0 +1,95 @@
+package com.pharmacy.pharmacy_backend.controller;
+
+import com.pharmacy.pharmacy_backend.model.Supplier;
+import com.pharmacy.pharmacy_backend.repository.SupplierRepository;
+import com.pharmacy.pharmacy_backend.service.SupplierService;
+import com.pharmacy.pharmacy_backend.support.QueryBudget;
+import com.pharmacy.pharmacy_backend.support.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class SupplierControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    private final List<Supplier> suppliers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Supplier " + i);
+            suppliers.add(supplierService.addSupplier(supplier));
+        }
+    }
+
+    @Test
+    void getSupplierById_LoadsOneRow() throws Exception {
+        // Arrange
+        Supplier supplier = suppliers.get(7);
+
+        // Act & Assert
+        perform(get("/api/suppliers/{id}", supplier.getId()), QueryBudget.statements(1).rows(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Supplier 7"));
+    }
+
+    @Test
+    void getSuppliers_OneSelectThenCached() throws Exception {
+        // Arrange
+        long rows = supplierRepository.count();
+
+        // Act & Assert
+        perform(get("/api/suppliers"), QueryBudget.statements(1).rows(rows))
+                .andExpect(status().isOk());
+        perform(get("/api/suppliers"), QueryBudget.statements(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getSuppliers_NotModified_NoStatements() throws Exception {
+        // Arrange
+        String etag = mvc.perform(get("/api/suppliers")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        perform(get("/api/suppliers").header(HttpHeaders.IF_NONE_MATCH, etag), QueryBudget.statements(0))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void addSupplier_SingleInsert() throws Exception {
+        // Act & Assert
+        perform(post("/api/suppliers").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"New\"}"),
+                QueryBudget.statements(1).rows(0))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateSupplier_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(put("/api/suppliers/{id}", suppliers.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"),
+                QueryBudget.statements(2).rows(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteSupplier_WithinBudget() throws Exception {
+        // Act & Assert
+        perform(delete("/api/suppliers/{id}", suppliers.get(0).getId()), QueryBudget.statements(2).rows(1))
+                .andExpect(status().isOk());
+    }
+}
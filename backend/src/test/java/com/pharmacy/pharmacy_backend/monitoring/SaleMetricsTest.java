@@ -0,0 +1,66 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaleMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SaleMetrics metrics = new SaleMetrics(registry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static SalesItem item(int quantity) {
+        SalesItem item = new SalesItem();
+        item.setMedicineId(1L);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    @Test
+    void recordSaleAfterCommit_CountsOnlyOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.recordSaleAfterCommit(List.of(item(2), item(3)));
+
+        // Assert
+        assertEquals(0, registry.get("pharmacy.sales").counter().count());
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(1, registry.get("pharmacy.sales").counter().count());
+        DistributionSummary lines = registry.get("pharmacy.sales.basket.lines").summary();
+        DistributionSummary units = registry.get("pharmacy.sales.basket.units").summary();
+        assertEquals(2, lines.totalAmount());
+        assertEquals(5, units.totalAmount());
+    }
+
+    @Test
+    void recordStockConflict_TaggedByStage() {
+        // Act
+        metrics.recordStockConflict(SaleMetrics.RESERVATION);
+        metrics.recordStockConflict(SaleMetrics.DECREMENT);
+        metrics.recordStockConflict(SaleMetrics.DECREMENT);
+
+        // Assert
+        assertEquals(1, registry.get("pharmacy.stock.conflicts").tag("stage", "reservation").counter().count());
+        assertEquals(2, registry.get("pharmacy.stock.conflicts").tag("stage", "decrement").counter().count());
+    }
+}
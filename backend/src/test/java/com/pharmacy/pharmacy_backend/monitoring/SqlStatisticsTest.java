@@ -0,0 +1,97 @@
+package com.pharmacy.pharmacy_backend.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsTest {
+
+    private final SqlStatistics statistics = new SqlStatistics(200, 1.0);
+
+    private void execute(String sql) {
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        ExecutionInfo info = new ExecutionInfo();
+        statistics.beforeQuery(info, queries);
+        statistics.afterQuery(info, queries);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (pattern != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        }
+        return request;
+    }
+
+    private Map<String, SqlStatistics.Summary> byEndpoint() {
+        return statistics.summaries().stream()
+                .collect(Collectors.toMap(SqlStatistics.Summary::getEndpoint, Function.identity()));
+    }
+
+    @Test
+    void requests_BookedUnderMappingPatternWithRepeats() {
+        // Arrange
+        for (long id = 1; id <= 2; id++) {
+            SqlStatistics.RequestScope scope = statistics.begin(request("GET", "/api/sales/" + id, "/api/sales/{id}"));
+            execute("select * from sales where id=?");
+            for (int i = 0; i < 3 * id; i++) {
+                execute("select * from sales_items where sale_id=?");
+            }
+
+            // Act
+            statistics.end(scope);
+        }
+
+        // Assert
+        SqlStatistics.Summary summary = byEndpoint().get("GET /api/sales/{id}");
+        assertEquals(2, summary.getRequests());
+        assertEquals(11, summary.getStatements());
+        assertEquals(5.5, summary.getStatementsPerRequest());
+        assertEquals(7, summary.getMaxStatementsPerRequest());
+        assertEquals(6, summary.getMaxRepeatsPerRequest());
+        assertEquals("select * from sales_items where sale_id=?", summary.getMostRepeatedStatement());
+        assertEquals(0, summary.getSlowStatements());
+    }
+
+    @Test
+    void statementsOutsideRequests_BookedAsBackground() {
+        // Act
+        execute("update medicines set quantity=quantity-? where id=?");
+        SqlStatistics.RequestScope scope = statistics.begin(request("POST", "/nowhere", null));
+        statistics.end(scope);
+
+        // Assert
+        Map<String, SqlStatistics.Summary> summaries = byEndpoint();
+        assertEquals(1, summaries.get(SqlStatistics.BACKGROUND).getStatements());
+        assertEquals(0, summaries.get(SqlStatistics.BACKGROUND).getRequests());
+        assertEquals(1, summaries.get("POST [unmapped]").getRequests());
+        assertEquals(0, summaries.get("POST [unmapped]").getStatements());
+    }
+
+    @Test
+    void zeroThreshold_CountsEveryStatementAsSlow() {
+        // Arrange
+        SqlStatistics everythingSlow = new SqlStatistics(0, 0.0);
+        List<QueryInfo> queries = List.of(new QueryInfo("select 1"));
+
+        // Act
+        everythingSlow.beforeQuery(new ExecutionInfo(), queries);
+        everythingSlow.afterQuery(new ExecutionInfo(), queries);
+        everythingSlow.reset();
+        everythingSlow.beforeQuery(new ExecutionInfo(), queries);
+        everythingSlow.afterQuery(new ExecutionInfo(), queries);
+
+        // Assert
+        assertEquals(1, everythingSlow.summaries().size());
+        assertEquals(1, everythingSlow.summaries().get(0).getSlowStatements());
+    }
+}
@@ -0,0 +1,78 @@
+package com.pharmacy.pharmacy_backend.security;
+
+import com.pharmacy.pharmacy_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void call_ReturnsResultAndRecordsStages() {
+        executor = new PasswordHashingExecutor(1, 4, 1000, registry);
+
+        assertEquals("hash", executor.call("signup", () -> "hash"));
+        assertEquals(1, registry.get("auth.hashing.run").tag("operation", "signup").timer().count());
+        assertEquals(1, registry.get("auth.hashing.queue").tag("operation", "signup").timer().count());
+    }
+
+    @Test
+    void call_PropagatesWorkExceptions() {
+        executor = new PasswordHashingExecutor(1, 4, 1000, registry);
+
+        assertThrows(BadCredentialsException.class, () -> executor.call("signin", () -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    void call_QueueFull_RejectsImmediately() throws Exception {
+        executor = new PasswordHashingExecutor(1, 1, 5000, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        callers.submit(() -> executor.call("signin", () -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> executor.call("signin", () -> true));
+        Thread.sleep(100);
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> executor.call("signin", () -> true));
+            assertEquals(1.0, registry.get("auth.hashing.rejected").tag("operation", "signin").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void call_SlowWork_TimesOut() {
+        executor = new PasswordHashingExecutor(1, 1, 50, registry);
+
+        assertThrows(ServiceUnavailableException.class, () -> executor.call("signin", () -> {
+            Thread.sleep(2000);
+            return true;
+        }));
+    }
+}
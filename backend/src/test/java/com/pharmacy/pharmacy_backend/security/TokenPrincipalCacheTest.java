@@ -0,0 +1,68 @@
+package com.pharmacy.pharmacy_backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPrincipalCacheTest {
+
+    private static UserDetailsImpl principal(long id) {
+        return new UserDetailsImpl(id, "user" + id, "hash", "user" + id + "@example.com",
+                Collections.singletonList(new SimpleGrantedAuthority("USER")));
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() + 3_600_000;
+    }
+
+    @Test
+    void get_ExpiredToken_IsDropped() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(10);
+        cache.put("live", principal(1), inOneHour());
+        cache.put("stale", principal(1), System.currentTimeMillis() - 1);
+
+        assertEquals(1L, cache.get("live").getId());
+        assertNull(cache.get("stale"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictUser_RemovesOnlyThatUsersTokens() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(10);
+        cache.put("a1", principal(1), inOneHour());
+        cache.put("a2", principal(1), inOneHour());
+        cache.put("b1", principal(2), inOneHour());
+
+        cache.evictUser(1L);
+
+        assertNull(cache.get("a1"));
+        assertNull(cache.get("a2"));
+        assertNotNull(cache.get("b1"));
+    }
+
+    @Test
+    void onUserChanged_EvictsThatUser() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(10);
+        cache.put("a1", principal(1), inOneHour());
+        cache.put("b1", principal(2), inOneHour());
+
+        cache.onUserChanged(new UserChangedEvent(2L));
+
+        assertNotNull(cache.get("a1"));
+        assertNull(cache.get("b1"));
+    }
+
+    @Test
+    void put_AtCapacity_StaysBounded() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(20);
+        for (int i = 0; i < 100; i++) {
+            cache.put("token" + i, principal(i), inOneHour());
+        }
+
+        assertTrue(cache.size() <= 20);
+        assertNotNull(cache.get("token99"));
+    }
+}
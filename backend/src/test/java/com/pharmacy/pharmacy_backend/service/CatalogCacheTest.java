@@ -0,0 +1,138 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.config.CacheConfig;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    private CacheManager cacheManager;
+    private CatalogVersions versions;
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager("maximumSize=100", "maximumSize=10");
+        versions = new CatalogVersions();
+        catalogCache = new CatalogCache(cacheManager, versions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cacheManager_OnlyKnownCaches() {
+        // Assert
+        assertNotNull(cacheManager.getCache(CacheConfig.MEDICINES));
+        assertNotNull(cacheManager.getCache(CacheConfig.MEDICINE_PAGES));
+        assertNotNull(cacheManager.getCache(CacheConfig.SUPPLIERS));
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS));
+        assertNull(cacheManager.getCache("medicine"));
+    }
+
+    @Test
+    void evictMedicines_NoTransaction_EvictsImmediately() {
+        // Arrange
+        Cache medicines = cacheManager.getCache(CacheConfig.MEDICINES);
+        Cache pages = cacheManager.getCache(CacheConfig.MEDICINE_PAGES);
+        medicines.put(1L, "one");
+        medicines.put(2L, "two");
+        pages.put("first", List.of("one", "two"));
+
+        // Act
+        catalogCache.evictMedicines(List.of(1L));
+
+        // Assert
+        assertNull(medicines.get(1L));
+        assertNotNull(medicines.get(2L));
+        assertNull(pages.get("first"));
+        assertTrue(versions.etag(CatalogVersions.Collection.MEDICINES).endsWith("-1"));
+    }
+
+    @Test
+    void evictMedicines_InTransaction_WaitsForCommit() {
+        // Arrange
+        Cache medicines = cacheManager.getCache(CacheConfig.MEDICINES);
+        medicines.put(1L, "one");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        catalogCache.evictMedicines(List.of(1L));
+
+        // Assert
+        assertNotNull(medicines.get(1L));
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        assertNull(medicines.get(1L));
+    }
+
+    private static CursorPage<Medicine> page(long... ids) {
+        List<Medicine> items = new ArrayList<>();
+        for (long id : ids) {
+            Medicine medicine = new Medicine();
+            medicine.setId(id);
+            items.add(medicine);
+        }
+        return new CursorPage<>(items, null);
+    }
+
+    @Test
+    void evictStock_EvictsOnlyPagesListingTheMedicines() {
+        // Arrange
+        Cache medicines = cacheManager.getCache(CacheConfig.MEDICINES);
+        Cache pages = cacheManager.getCache(CacheConfig.MEDICINE_PAGES);
+        medicines.put(1L, "one");
+        medicines.put(3L, "three");
+        pages.put("first", page(1L, 2L));
+        pages.put("second", page(3L, 4L));
+        String catalogEtag = versions.etag(CatalogVersions.Collection.MEDICINES);
+        String medicinesEtag = versions.medicinesEtag();
+
+        // Act
+        catalogCache.evictStock(List.of(1L));
+
+        // Assert
+        assertNull(medicines.get(1L));
+        assertNotNull(medicines.get(3L));
+        assertNull(pages.get("first"));
+        assertNotNull(pages.get("second"));
+        assertEquals(catalogEtag, versions.etag(CatalogVersions.Collection.MEDICINES));
+        assertNotEquals(medicinesEtag, versions.medicinesEtag());
+    }
+
+    @Test
+    void evictStock_InTransaction_WaitsForCommit() {
+        // Arrange
+        Cache pages = cacheManager.getCache(CacheConfig.MEDICINE_PAGES);
+        pages.put("first", page(1L, 2L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        catalogCache.evictStock(List.of(2L));
+
+        // Assert
+        assertNotNull(pages.get("first"));
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertNull(pages.get("first"));
+    }
+}
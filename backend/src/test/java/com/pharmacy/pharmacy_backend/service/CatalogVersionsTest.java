@@ -0,0 +1,72 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionsTest {
+
+    private final CatalogVersions versions = new CatalogVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void bumpAfterCommit_NoTransaction_ChangesOnlyThatCollection() {
+        // Arrange
+        String medicines = versions.etag(CatalogVersions.Collection.MEDICINES);
+        String suppliers = versions.etag(CatalogVersions.Collection.SUPPLIERS);
+
+        // Act
+        versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
+
+        // Assert
+        assertNotEquals(medicines, versions.etag(CatalogVersions.Collection.MEDICINES));
+        assertEquals(suppliers, versions.etag(CatalogVersions.Collection.SUPPLIERS));
+        assertNotEquals(versions.etag(CatalogVersions.Collection.SUPPLIERS),
+                versions.etag(CatalogVersions.Collection.CUSTOMERS));
+    }
+
+    @Test
+    void bumpAfterCommit_InTransaction_WaitsForCommit() {
+        // Arrange
+        String before = versions.etag(CatalogVersions.Collection.CUSTOMERS);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versions.bumpAfterCommit(CatalogVersions.Collection.CUSTOMERS);
+
+        // Assert
+        assertEquals(before, versions.etag(CatalogVersions.Collection.CUSTOMERS));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertNotEquals(before, versions.etag(CatalogVersions.Collection.CUSTOMERS));
+    }
+
+    @Test
+    void bumpAfterCommit_RolledBack_KeepsVersion() {
+        // Arrange
+        String before = versions.etag(CatalogVersions.Collection.SUPPLIERS);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versions.bumpAfterCommit(CatalogVersions.Collection.SUPPLIERS);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(before, versions.etag(CatalogVersions.Collection.SUPPLIERS));
+    }
+}
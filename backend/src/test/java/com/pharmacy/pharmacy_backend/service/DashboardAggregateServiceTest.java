@@ -0,0 +1,99 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.repository.DailySalesTotalRepository;
+import com.pharmacy.pharmacy_backend.repository.DashboardCounterRepository;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardAggregateServiceTest {
+
+    @Mock
+    private DashboardCounterRepository counterRepository;
+
+    @Mock
+    private DailySalesTotalRepository dailyRepository;
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardAggregateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardAggregateService(counterRepository, dailyRepository, medicineRepository,
+                saleRepository, transactionManager);
+    }
+
+    @Test
+    void recordMedicinesAdded_MissingShard_CreatesShardsAndRetries() {
+        // Arrange
+        when(counterRepository.increment(eq(DashboardAggregateService.MEDICINES), anyInt(), eq(2L), eq(0.0)))
+                .thenReturn(0, 1);
+
+        // Act
+        service.recordMedicinesAdded(2);
+
+        // Assert
+        verify(counterRepository).createShards(DashboardAggregateService.MEDICINES, DashboardAggregateService.SHARDS);
+        verify(counterRepository, times(2)).increment(eq(DashboardAggregateService.MEDICINES), anyInt(), eq(2L), eq(0.0));
+    }
+
+    @Test
+    void recordMedicineRemoved_ShardStillMissing_Throws() {
+        // Arrange
+        when(counterRepository.increment(anyString(), anyInt(), anyLong(), anyDouble())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.recordMedicineRemoved());
+    }
+
+    @Test
+    void rebuild_LocksCountersBeforeReadingAndResetsInPlace() {
+        // Arrange
+        when(medicineRepository.count()).thenReturn(3L);
+        when(saleRepository.sumBySaleDay()).thenReturn(Collections.emptyList());
+        when(counterRepository.sumByName()).thenReturn(Collections.emptyList());
+        when(dailyRepository.findDailyTotalsSince(any())).thenReturn(Collections.emptyList());
+
+        // Act
+        service.rebuild();
+
+        // Assert
+        InOrder order = inOrder(counterRepository, medicineRepository);
+        order.verify(counterRepository).lockAll();
+        order.verify(medicineRepository).count();
+        order.verify(counterRepository).reset(DashboardAggregateService.MEDICINES, 3L, 0.0);
+        verify(counterRepository, never()).deleteAllInBatch();
+    }
+
+    @Test
+    void rebuild_UnexpectedDayType_Throws() {
+        // Arrange
+        when(saleRepository.sumBySaleDay()).thenReturn(List.<Object[]>of(new Object[]{"2024-01-01", 1L, 5.0}));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.rebuild());
+        verify(counterRepository, never()).reset(anyString(), anyLong(), anyDouble());
+    }
+}
@@ -0,0 +1,85 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.ExpiryReport;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    private ExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        expiryService = new ExpiryService(medicineRepository, clock);
+    }
+
+    private static Medicine medicine(long id, LocalDate expiryDate) {
+        Medicine m = new Medicine();
+        m.setId(id);
+        m.setExpiryDate(expiryDate);
+        return m;
+    }
+
+    @Test
+    void getReport_BucketsSeededMedicines() {
+        // Arrange
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, TODAY.minusDays(1)});
+        rows.add(new Object[]{2L, TODAY.plusDays(10)});
+        rows.add(new Object[]{3L, TODAY.plusYears(2)});
+        when(medicineRepository.findExpiryDates()).thenReturn(rows);
+        when(medicineRepository.findAllById(anyIterable())).thenReturn(List.of(
+                medicine(3L, TODAY.plusYears(2)), medicine(1L, TODAY.minusDays(1)), medicine(2L, TODAY.plusDays(10))));
+        expiryService.seed();
+
+        // Act
+        ExpiryReport report = expiryService.getReport(30, null);
+
+        // Assert
+        assertEquals(TODAY, report.getAsOf());
+        assertEquals(1, report.getExpiredCount());
+        assertEquals(1, report.getNearExpiryCount());
+        assertEquals(1, report.getSafeCount());
+        assertEquals(1L, report.getExpired().get(0).getId());
+        assertEquals(2L, report.getNearExpiry().get(0).getId());
+        assertEquals(3L, report.getSafe().get(0).getId());
+    }
+
+    @Test
+    void update_WithoutDate_DropsMedicineFromReport() {
+        // Arrange
+        expiryService.update(5L, TODAY.plusDays(3));
+        expiryService.update(5L, null);
+        when(medicineRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        ExpiryReport report = expiryService.getReport(null, null);
+
+        // Assert
+        assertEquals(ExpiryService.DEFAULT_HORIZON_DAYS, report.getHorizonDays());
+        assertEquals(0, report.getNearExpiryCount());
+        assertEquals(0, report.getSafeCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    private static final long TODAY = 20000;
+
+    @Test
+    void buckets_SplitByHorizon() {
+        ExpiryWheel wheel = new ExpiryWheel(TODAY);
+        wheel.put(1, TODAY - 3);
+        wheel.put(2, TODAY);
+        wheel.put(3, TODAY + 30);
+        wheel.put(4, TODAY + 31);
+        wheel.put(5, TODAY + 5000);
+
+        assertEquals(List.of(1L), wheel.expired(10));
+        assertEquals(List.of(2L, 3L), wheel.expiringWithin(30, 10));
+        assertEquals(List.of(4L, 5L), wheel.safeAfter(30, 10));
+        assertEquals(5, wheel.size());
+    }
+
+    @Test
+    void advanceTo_CascadesFarEntriesIntoDaySlots() {
+        ExpiryWheel wheel = new ExpiryWheel(TODAY);
+        wheel.put(1, TODAY + 1000);
+        wheel.put(2, TODAY + 3500);
+
+        wheel.advanceTo(TODAY + 995);
+
+        assertEquals(List.of(1L), wheel.expiringWithin(5, 10));
+        assertEquals(List.of(2L), wheel.safeAfter(5, 10));
+
+        wheel.advanceTo(TODAY + 1001);
+
+        assertEquals(List.of(1L), wheel.expired(10));
+        assertEquals(0, wheel.countExpiringWithin(ExpiryWheel.MAX_HORIZON));
+
+        wheel.advanceTo(TODAY + 3500);
+
+        assertEquals(List.of(2L), wheel.expiringWithin(0, 10));
+    }
+
+    @Test
+    void put_MovesAndRemoveForgets() {
+        ExpiryWheel wheel = new ExpiryWheel(TODAY);
+        wheel.put(1, TODAY + 2);
+        wheel.put(2, TODAY + 700);
+
+        wheel.put(1, TODAY - 1);
+        wheel.remove(2);
+
+        assertEquals(List.of(1L), wheel.expired(10));
+        assertEquals(1, wheel.countExpired());
+        assertTrue(wheel.safeAfter(0, 10).isEmpty());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void safeAfter_OrdersWithinChunkAndHonoursLimit() {
+        ExpiryWheel wheel = new ExpiryWheel(TODAY);
+        wheel.put(1, TODAY + 420);
+        wheel.put(2, TODAY + 410);
+        wheel.put(3, TODAY + 100);
+
+        assertEquals(List.of(3L, 2L), wheel.safeAfter(30, 2));
+    }
+}
@@ -0,0 +1,98 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.LowStockItem;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockServiceTest {
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    @InjectMocks
+    private LowStockService lowStockService;
+
+    private static LowStockItem item(long id, int quantity, int reorderLevel) {
+        return new LowStockItem(id, "Med " + id, "Co", "otc", 1.0, quantity, reorderLevel);
+    }
+
+    @Test
+    void seed_OrdersByUrgency() {
+        // Arrange
+        when(medicineRepository.findMaxReorderLevel()).thenReturn(20);
+        when(medicineRepository.findBelowReorderLevel(20))
+                .thenReturn(List.of(item(1L, 8, 10), item(2L, 5, 20), item(3L, 0, 10)));
+
+        // Act
+        lowStockService.seed();
+
+        // Assert
+        assertEquals(List.of(3L, 2L, 1L),
+                lowStockService.getLowStock(10).stream().map(LowStockItem::getId).toList());
+        assertEquals(1, lowStockService.getLowStock(1).size());
+    }
+
+    @Test
+    void refresh_RestockedMedicineLeavesAndSoldOneEnters() {
+        // Arrange
+        when(medicineRepository.findMaxReorderLevel()).thenReturn(10);
+        when(medicineRepository.findBelowReorderLevel(10)).thenReturn(List.of(item(1L, 2, 10)));
+        lowStockService.seed();
+        when(medicineRepository.findStockLevels(List.of(1L, 2L)))
+                .thenReturn(List.of(item(1L, 50, 10), item(2L, 4, 10)));
+
+        // Act
+        lowStockService.refresh(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(List.of(2L),
+                lowStockService.getLowStock(10).stream().map(LowStockItem::getId).toList());
+    }
+
+    @Test
+    void refresh_ReadsLevelsWhileHoldingTheLock() {
+        // Arrange
+        when(medicineRepository.findStockLevels(List.of(1L))).thenAnswer(invocation -> {
+            assertTrue(Thread.holdsLock(lowStockService), "stock read outside the lock");
+            return List.of(item(1L, 3, 10));
+        });
+
+        // Act
+        lowStockService.refresh(List.of(1L));
+
+        // Assert
+        assertEquals(1, lowStockService.getLowStock(10).size());
+    }
+
+    @Test
+    void applyDefaultReorderLevel_PrefersCategoryDefault() {
+        // Arrange
+        ReflectionTestUtils.setField(lowStockService, "defaultReorderLevel", 10);
+        ReflectionTestUtils.setField(lowStockService, "categoryReorderLevels", Map.of("prescription", 20));
+        Medicine prescription = new Medicine();
+        prescription.setCategory("prescription");
+        Medicine other = new Medicine();
+        other.setCategory("cosmetic");
+
+        // Act
+        lowStockService.applyDefaultReorderLevel(prescription);
+        lowStockService.applyDefaultReorderLevel(other);
+
+        // Assert
+        assertEquals(20, prescription.getReorderLevel());
+        assertEquals(10, other.getReorderLevel());
+    }
+}
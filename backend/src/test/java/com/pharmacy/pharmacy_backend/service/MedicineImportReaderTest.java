@@ -0,0 +1,63 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.service.MedicineImportService.Format;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MedicineImportReaderTest {
+
+    private static MedicineImportReader reader(String text, Format format) {
+        return new MedicineImportReader(new BufferedReader(new StringReader(text)), format,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void csv_MapsHeaderAliasesAndQuotedCells() throws IOException {
+        MedicineImportReader reader = reader(
+                "﻿Name,Company,Reorder Level,expiry_date,notes\n"
+                        + "\n"
+                        + "Paracetamol,\"Medi, \"\"Corp\"\"\",15,2026-05-01,ignored\n", Format.CSV);
+
+        MedicineImportReader.Line line = reader.next();
+
+        assertNull(line.error);
+        assertEquals(3, line.number);
+        assertEquals("Paracetamol", line.row.getName());
+        assertEquals("Medi, \"Corp\"", line.row.getCompany());
+        assertEquals(15, line.row.getReorderLevel());
+        assertEquals(LocalDate.of(2026, 5, 1), line.row.getExpiryDate());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csv_BadNumber_ReportsLineAndKeepsReading() throws IOException {
+        MedicineImportReader reader = reader("name,price\nA,abc\nB,2.5\n", Format.CSV);
+
+        MedicineImportReader.Line bad = reader.next();
+        MedicineImportReader.Line good = reader.next();
+
+        assertEquals("Invalid price 'abc'", bad.error);
+        assertEquals(2.5, good.row.getPrice());
+    }
+
+    @Test
+    void ndjson_ParsesEachLine() throws IOException {
+        MedicineImportReader reader = reader("{\"id\":7,\"quantity\":3}\nnot json\n", Format.NDJSON);
+
+        assertEquals(7L, reader.next().row.getId());
+        assertNotNull(reader.next().error);
+    }
+
+    @Test
+    void splitCsv_KeepsEmptyCells() {
+        assertEquals(List.of("a", "", "c", ""), MedicineImportReader.splitCsv("a,,c,"));
+    }
+}
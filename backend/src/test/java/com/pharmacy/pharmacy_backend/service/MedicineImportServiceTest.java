@@ -0,0 +1,145 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.ImportReport;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedicineImportServiceTest {
+
+    @Mock
+    private MedicineRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StockReservationService stockReservations;
+
+    @Mock
+    private DashboardAggregateService aggregates;
+
+    @Mock
+    private LowStockService lowStock;
+
+    @Mock
+    private ExpiryService expiry;
+
+    @Mock
+    private MedicineSearchService search;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    private MedicineImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new MedicineImportService(repository, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), stockReservations, aggregates, lowStock, expiry, search, catalogCache);
+    }
+
+    private ImportReport run(String csv) throws IOException {
+        return importService.importMedicines(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MedicineImportService.Format.CSV);
+    }
+
+    @Test
+    void importMedicines_InsertsNewAndUpdatesMatchedByNameAndCompany() throws IOException {
+        // Arrange
+        Medicine existing = new Medicine();
+        existing.setId(5L);
+        existing.setName("Aspirin");
+        existing.setCompany("HeartHealth");
+        existing.setQuantity(40);
+        when(repository.findByNameInOrderById(anyCollection())).thenReturn(List.of(existing));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Medicine> saved = invocation.getArgument(0);
+            saved.forEach(m -> m.setId(100L));
+            return saved;
+        });
+
+        // Act
+        ImportReport report = run("name,company,price\nAspirin,HeartHealth,3.5\nZinc,NutriPlus,7\n");
+
+        // Assert
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(3.5, existing.getPrice());
+        assertEquals(40, existing.getQuantity());
+        verify(aggregates).recordMedicinesAdded(1);
+        verify(stockReservations).adjustAfterCommit(5L, 0);
+        verify(stockReservations, never()).adjustAfterCommit(eq(100L), anyInt());
+    }
+
+    @Test
+    void importMedicines_Restock_MovesCounterByTheChange() throws IOException {
+        // Arrange
+        Medicine existing = new Medicine();
+        existing.setId(5L);
+        existing.setName("Aspirin");
+        existing.setQuantity(40);
+        when(repository.lockByIdIn(Set.of(5L))).thenReturn(List.of(existing));
+
+        // Act
+        ImportReport report = run("id,quantity\n5,55\n");
+
+        // Assert
+        assertEquals(1, report.getUpdated());
+        assertEquals(55, existing.getQuantity());
+        verify(stockReservations).adjustAfterCommit(5L, 15);
+    }
+
+    @Test
+    void importMedicines_BadRowsAreReportedNotFatal() throws IOException {
+        // Arrange
+        when(repository.lockByIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ImportReport report = run("id,name,quantity\n,Good,5\n,Neg,-1\n9,,1\n,,2\n");
+
+        // Assert
+        assertEquals(1, report.getInserted());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(3L, 4L, 5L), report.getErrors().stream().map(ImportReport.RowError::getLine).sorted().toList());
+    }
+
+    @Test
+    void importMedicines_ChunkFailure_RetriesRowByRow() throws IOException {
+        // Arrange
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Medicine> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(m -> "Broken".equals(m.getName()))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return batch;
+        });
+
+        // Act
+        ImportReport report = run("name\nFine\nBroken\n");
+
+        // Assert
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getFailed());
+        assertEquals(3L, report.getErrors().get(0).getLine());
+        assertEquals("value too long", report.getErrors().get(0).getMessage());
+    }
+}
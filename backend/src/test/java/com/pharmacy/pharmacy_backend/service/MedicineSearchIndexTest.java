@@ -0,0 +1,75 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MedicineSearchIndexTest {
+
+    private static MedicineSearchIndex catalog() {
+        MedicineSearchIndex index = new MedicineSearchIndex();
+        index.put(1, "Paracetamol 500mg", "MediCorp", "Pain Relief");
+        index.put(2, "Para", "Generic", "Pain Relief");
+        index.put(3, "Children's Paracetamol", "MediCorp", "Pain Relief");
+        index.put(4, "Ibuprofen", "Paramount Labs", "Pain Relief");
+        index.put(5, "Vitamin C", "Nutri", "Supplements");
+        return index;
+    }
+
+    @Test
+    void search_RanksExactThenNamePrefixThenWordThenOtherFields() {
+        MedicineSearchIndex index = catalog();
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), index.search("para", 10));
+        assertEquals(List.of(2L), index.search("para", 1));
+    }
+
+    @Test
+    void search_MatchesEveryWordAndFoldsCaseAndAccents() {
+        MedicineSearchIndex index = catalog();
+        index.put(6, "Crème Hydratante", "Lab", "Skin");
+
+        assertEquals(List.of(1L), index.search("PARA 500", 10));
+        assertEquals(List.of(3L), index.search("child para", 10));
+        assertEquals(List.of(6L), index.search("creme", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    void search_FallsBackToSubstrings() {
+        MedicineSearchIndex index = catalog();
+
+        assertEquals(List.of(1L, 3L), index.search("cetamol", 10));
+        assertEquals(List.of(), index.search("ce", 10));
+    }
+
+    @Test
+    void putAndRemove_ReindexIncrementally() {
+        MedicineSearchIndex index = catalog();
+
+        index.put(5, "Vitamin D3", "Nutri", "Supplements");
+        index.remove(2);
+
+        assertEquals(List.of(5L), index.search("vitamin d", 10));
+        assertEquals(List.of(), index.search("vitamin c", 10));
+        assertFalse(index.search("para", 10).contains(2L));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_ManyTombstones_CompactsWithoutLosingLiveDocuments() {
+        MedicineSearchIndex index = new MedicineSearchIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.put(id, "Medicine " + id, "Company", "otc");
+        }
+        for (long id = 1; id <= 2000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of(2500L), index.search("medicine 2500", 10));
+        assertEquals(List.of(), index.search("medicine 1500", 10));
+    }
+}
@@ -0,0 +1,131 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedicineServiceTest {
+
+    @Mock
+    private MedicineRepository repository;
+
+    @Mock
+    private StockReservationService stockReservations;
+
+    @Mock
+    private DashboardAggregateService aggregates;
+
+    @Mock
+    private LowStockService lowStock;
+
+    @Mock
+    private ExpiryService expiry;
+
+    @Mock
+    private MedicineSearchService search;
+
+    @Mock
+    private CatalogVersions versions;
+
+    @InjectMocks
+    private MedicineService service;
+
+    private static List<Medicine> medicines(long fromId, int count) {
+        List<Medicine> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Medicine m = new Medicine();
+            m.setId(fromId + i);
+            list.add(m);
+        }
+        return list;
+    }
+
+    @Test
+    void getMedicinePage_MoreRowsThanLimit_ReturnsCursor() {
+        // Arrange
+        when(repository.findPageAfter(eq(10L), any(), any(), any(), any(), any(), eq(PageRequest.of(0, 4))))
+                .thenReturn(medicines(11, 4));
+
+        // Act
+        CursorPage<Medicine> page = service.getMedicinePage(10L, 3, null, null, null, null, null);
+
+        // Assert
+        assertEquals(3, page.getItems().size());
+        assertEquals(13L, page.getNextCursor());
+    }
+
+    @Test
+    void getMedicinePage_LastPage_HasNoCursor() {
+        // Arrange
+        when(repository.findPageAfter(eq(0L), any(), any(), any(), any(), any(), any()))
+                .thenReturn(medicines(1, 2));
+
+        // Act
+        CursorPage<Medicine> page = service.getMedicinePage(null, 3, null, null, null, null, null);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getMedicinePage_ClampsLimitAndNormalisesFilters() {
+        // Arrange
+        when(repository.findPageAfter(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ArrayList<>());
+
+        // Act
+        service.getMedicinePage(null, 100000, " Para ", "", "otc", 5, null);
+
+        // Assert
+        verify(repository).findPageAfter(0L, "%para%", null, "otc", 5, null,
+                PageRequest.of(0, MedicineService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void addMedicine_IdWithNoRow_CountsAsAdded() {
+        // Arrange
+        Medicine medicine = medicines(42, 1).get(0);
+        when(repository.lockByIdIn(List.of(42L))).thenReturn(List.of());
+        when(repository.save(medicine)).thenReturn(medicine);
+
+        // Act
+        service.addMedicine(medicine);
+
+        // Assert
+        verify(aggregates).recordMedicinesAdded(1);
+        verify(stockReservations, never()).adjustAfterCommit(anyLong(), anyInt());
+    }
+
+    @Test
+    void addMedicine_ExistingRow_NotCountedAgain() {
+        // Arrange
+        Medicine stored = medicines(7, 1).get(0);
+        stored.setQuantity(10);
+        Medicine medicine = medicines(7, 1).get(0);
+        medicine.setQuantity(4);
+        when(repository.lockByIdIn(List.of(7L))).thenReturn(List.of(stored));
+        when(repository.save(medicine)).thenReturn(medicine);
+
+        // Act
+        service.addMedicine(medicine);
+
+        // Assert
+        verify(aggregates, never()).recordMedicinesAdded(anyLong());
+        verify(stockReservations).adjustAfterCommit(7L, -6);
+    }
+}
@@ -0,0 +1,178 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedicineSnapshotServiceTest {
+
+    @Mock
+    private MedicineRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final CatalogVersions versions = new CatalogVersions();
+    private MedicineSnapshotService snapshotService;
+
+    @AfterEach
+    void tearDown() {
+        if (snapshotService != null) {
+            snapshotService.shutdown();
+        }
+    }
+
+    private static List<Medicine> medicines(long fromId, int count) {
+        List<Medicine> list = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            Medicine medicine = new Medicine();
+            medicine.setId(id);
+            medicine.setName("Med " + id);
+            medicine.setQuantity(5);
+            list.add(medicine);
+        }
+        return list;
+    }
+
+    private void page(long after, List<Medicine> rows) {
+        when(repository.findPageAfter(eq(after), isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(rows);
+    }
+
+    @Test
+    void get_Enabled_SerializesEveryPageOnceAndGzips() throws IOException {
+        // Arrange
+        snapshotService = new MedicineSnapshotService(repository, objectMapper, versions, true, true, 0);
+        page(0L, medicines(1, MedicineSnapshotService.BUILD_PAGE_SIZE));
+        page(MedicineSnapshotService.BUILD_PAGE_SIZE, medicines(MedicineSnapshotService.BUILD_PAGE_SIZE + 1, 2));
+
+        // Act
+        MedicineSnapshotService.Snapshot first = snapshotService.get();
+        MedicineSnapshotService.Snapshot second = snapshotService.get();
+
+        // Assert
+        JsonNode json = objectMapper.readTree(first.getJson());
+        assertEquals(MedicineSnapshotService.BUILD_PAGE_SIZE + 2, json.size());
+        assertEquals(MedicineSnapshotService.BUILD_PAGE_SIZE + 2, json.get(json.size() - 1).get("id").asLong());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.getGzip()))) {
+            assertArrayEquals(first.getJson(), gzip.readAllBytes());
+        }
+        assertSame(first, second);
+        assertEquals(versions.medicinesEtag(), first.getEtag());
+        verify(repository, times(2)).findPageAfter(anyLong(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    // Polls until the served snapshot reaches the version, failing after five seconds.
+    private MedicineSnapshotService.Snapshot awaitVersion(long version) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        MedicineSnapshotService.Snapshot snapshot = snapshotService.get();
+        while (snapshot.getVersion() < version) {
+            assertTrue(System.nanoTime() < deadline, "snapshot stuck at v" + snapshot.getVersion());
+            Thread.sleep(10);
+            snapshot = snapshotService.get();
+        }
+        return snapshot;
+    }
+
+    @Test
+    void get_AfterChange_ServesCurrentSnapshotUntilRebuilt() throws InterruptedException {
+        // Arrange
+        snapshotService = new MedicineSnapshotService(repository, objectMapper, versions, true, false, 200);
+        page(0L, medicines(1, 1));
+        snapshotService.start();
+        MedicineSnapshotService.Snapshot before = snapshotService.get();
+        page(0L, medicines(1, 2));
+
+        // Act
+        versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
+        MedicineSnapshotService.Snapshot during = snapshotService.get();
+        String etagDuring = snapshotService.currentEtag();
+        MedicineSnapshotService.Snapshot after = awaitVersion(before.getVersion() + 1);
+
+        // Assert
+        assertSame(before, during);
+        assertEquals(before.getEtag(), etagDuring);
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals(after.getEtag(), snapshotService.currentEtag());
+        assertTrue(new String(after.getJson()).contains("Med 2"));
+        assertNull(after.getGzip());
+    }
+
+    @Test
+    void get_AfterStockChange_RebuildsUnderNewEtag() throws InterruptedException {
+        // Arrange
+        snapshotService = new MedicineSnapshotService(repository, objectMapper, versions, true, false, 0);
+        page(0L, medicines(1, 1));
+        snapshotService.start();
+        MedicineSnapshotService.Snapshot before = snapshotService.get();
+
+        // Act
+        versions.bumpAfterCommit(CatalogVersions.Collection.STOCK);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        MedicineSnapshotService.Snapshot after = snapshotService.get();
+        while (after.getStockVersion() == before.getStockVersion()) {
+            assertTrue(System.nanoTime() < deadline, "snapshot never picked up the stock change");
+            Thread.sleep(10);
+            after = snapshotService.get();
+        }
+
+        // Assert
+        assertEquals(before.getVersion(), after.getVersion());
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals(versions.medicinesEtag(), after.getEtag());
+    }
+
+    @Test
+    void scheduleRebuild_BurstOfChanges_RebuildsOnce() throws InterruptedException {
+        // Arrange
+        snapshotService = new MedicineSnapshotService(repository, objectMapper, versions, true, false, 200);
+        page(0L, medicines(1, 1));
+        snapshotService.start();
+        MedicineSnapshotService.Snapshot before = snapshotService.get();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            versions.bumpAfterCommit(CatalogVersions.Collection.MEDICINES);
+        }
+        MedicineSnapshotService.Snapshot after = awaitVersion(before.getVersion() + 5);
+
+        // Assert
+        assertEquals(before.getVersion() + 5, after.getVersion());
+        verify(repository, times(2)).findPageAfter(anyLong(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void get_Disabled_BuildsPlainJsonEachTime() {
+        // Arrange
+        snapshotService = new MedicineSnapshotService(repository, objectMapper, versions, false, true, 0);
+        page(0L, Collections.emptyList());
+
+        // Act
+        MedicineSnapshotService.Snapshot first = snapshotService.get();
+        MedicineSnapshotService.Snapshot second = snapshotService.get();
+
+        // Assert
+        assertEquals("[]", new String(first.getJson()));
+        assertNull(first.getGzip());
+        assertNotSame(first, second);
+        assertFalse(snapshotService.hasGzip());
+    }
+}
@@ -0,0 +1,55 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecentSalesServiceTest {
+
+    private SaleRepository saleRepository;
+    private RecentSalesService recentSales;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository = mock(SaleRepository.class);
+        recentSales = new RecentSalesService(saleRepository, 3);
+    }
+
+    private static Sale sale(long id) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        return sale;
+    }
+
+    private List<Long> ids(int limit) {
+        return recentSales.getRecentSales(limit).stream().map(Sale::getId).toList();
+    }
+
+    @Test
+    void record_WrapsAroundKeepingNewestFirst() {
+        for (long id = 1; id <= 5; id++) {
+            recentSales.record(sale(id));
+        }
+
+        assertEquals(List.of(5L, 4L, 3L), ids(10));
+        assertEquals(List.of(5L, 4L), ids(2));
+    }
+
+    @Test
+    void seed_LoadsNewestRowsInOrder() {
+        when(saleRepository.findByOrderByIdDesc(PageRequest.of(0, 3)))
+                .thenReturn(List.of(sale(9), sale(8), sale(7)));
+
+        recentSales.seed();
+        recentSales.record(sale(10));
+
+        assertEquals(List.of(10L, 9L, 8L), ids(5));
+    }
+}
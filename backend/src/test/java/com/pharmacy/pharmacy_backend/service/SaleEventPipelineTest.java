@@ -0,0 +1,176 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.repository.SaleAuditRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import com.pharmacy.pharmacy_backend.repository.SalesItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleEventPipelineTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SalesItemRepository itemRepository;
+
+    @Mock
+    private SaleAuditRepository auditRepository;
+
+    @Mock
+    private DashboardAggregateService aggregates;
+
+    @Mock
+    private SalesAnalyticsService analytics;
+
+    @Mock
+    private LowStockService lowStock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // A pipeline whose startup sweep has already run and found nothing.
+    private SaleEventPipeline pipeline(int capacity) throws InterruptedException {
+        SaleEventPipeline pipeline = new SaleEventPipeline(saleRepository, itemRepository, auditRepository,
+                aggregates, analytics, lowStock, transactionManager, registry, capacity, 10);
+        when(saleRepository.findPendingEvents(any(Pageable.class))).thenReturn(List.of());
+        assertEquals(0, pipeline.processNext(0));
+        return pipeline;
+    }
+
+    private static Sale sale(long id) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSaleDate(LocalDateTime.of(2026, 10, 5, 9, 0));
+        sale.setTotalAmount(4.0);
+        sale.setEventsApplied(false);
+        return sale;
+    }
+
+    private static SalesItem item(long saleId, long medicineId) {
+        SalesItem item = new SalesItem();
+        item.setSaleId(saleId);
+        item.setMedicineId(medicineId);
+        item.setQuantity(2);
+        item.setPrice(2.0);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SaleCommitted> appliedBatch() {
+        ArgumentCaptor<List<SaleCommitted>> batch = ArgumentCaptor.forClass(List.class);
+        verify(aggregates).applySales(batch.capture());
+        return batch.getValue();
+    }
+
+    @Test
+    void processNext_DrainsBufferIntoOneTransaction() throws InterruptedException {
+        // Arrange
+        SaleEventPipeline pipeline = pipeline(16);
+        pipeline.publish(SaleCommitted.of(sale(1L), List.of(item(1L, 7L))));
+        pipeline.publish(SaleCommitted.of(sale(2L), List.of(item(2L, 8L), item(2L, 7L))));
+        when(saleRepository.lockPendingEvents(Set.of(1L, 2L))).thenReturn(List.of(sale(2L), sale(1L)));
+
+        // Act
+        int applied = pipeline.processNext(0);
+
+        // Assert
+        assertEquals(2, applied);
+        assertEquals(List.of(1L, 2L), appliedBatch().stream().map(SaleCommitted::getSaleId).toList());
+        verify(analytics).applySales(anyList());
+        verify(auditRepository).batchInsert(argThat(entries -> entries.size() == 2));
+        verify(saleRepository).markEventsApplied(List.of(2L, 1L));
+        verify(lowStock).refresh(Set.of(7L, 8L));
+        verify(transactionManager).commit(any());
+        assertEquals(0, registry.get("pharmacy.sale.events.buffered").gauge().value());
+        assertEquals(2, registry.get("pharmacy.sale.events.lag").timer().count());
+    }
+
+    @Test
+    void processNext_AlreadyApplied_SkipsThoseSales() throws InterruptedException {
+        // Arrange
+        SaleEventPipeline pipeline = pipeline(16);
+        pipeline.publish(SaleCommitted.of(sale(1L), List.of(item(1L, 7L))));
+        pipeline.publish(SaleCommitted.of(sale(2L), List.of(item(2L, 8L))));
+        when(saleRepository.lockPendingEvents(any())).thenReturn(List.of(sale(2L)));
+
+        // Act
+        int applied = pipeline.processNext(0);
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(List.of(2L), appliedBatch().stream().map(SaleCommitted::getSaleId).toList());
+        verify(saleRepository).markEventsApplied(List.of(2L));
+        verify(lowStock).refresh(Set.of(8L));
+    }
+
+    @Test
+    void publish_BufferFull_DropsEventAndCatchesUpFromDatabase() throws InterruptedException {
+        // Arrange
+        SaleEventPipeline pipeline = pipeline(1);
+        pipeline.publish(SaleCommitted.of(sale(1L), List.of(item(1L, 7L))));
+        pipeline.publish(SaleCommitted.of(sale(2L), List.of(item(2L, 8L))));
+        when(saleRepository.findPendingEvents(any(Pageable.class))).thenReturn(List.of(sale(2L)));
+        when(itemRepository.findBySaleIdIn(List.of(2L))).thenReturn(List.of(item(2L, 8L)));
+        when(saleRepository.lockPendingEvents(any())).thenReturn(List.of(sale(2L)));
+
+        // Act
+        int applied = pipeline.processNext(0);
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(1, registry.get("pharmacy.sale.events.overflow").counter().count());
+        assertEquals(1, registry.get("pharmacy.sale.events.replayed").counter().count());
+        SaleCommitted replayed = appliedBatch().get(0);
+        assertEquals(2L, replayed.getSaleId());
+        assertEquals(8L, replayed.getMedicineId(0));
+        assertEquals(1, registry.get("pharmacy.sale.events.buffered").gauge().value());
+    }
+
+    @Test
+    void publishAfterCommit_InTransaction_WaitsForCommit() throws InterruptedException {
+        // Arrange
+        SaleEventPipeline pipeline = pipeline(16);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        pipeline.publishAfterCommit(SaleCommitted.of(sale(1L), List.of()));
+
+        // Assert
+        assertEquals(0, registry.get("pharmacy.sale.events.buffered").gauge().value());
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(1, registry.get("pharmacy.sale.events.buffered").gauge().value());
+    }
+}
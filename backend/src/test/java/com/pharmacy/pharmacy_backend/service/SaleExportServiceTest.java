@@ -0,0 +1,90 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleExportServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    private SaleExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new SaleExportService(saleRepository, new ObjectMapper());
+    }
+
+    private String export(SaleExportService.Format format, boolean items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, format, items);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void export_NdjsonWithItems_GroupsLinesUnderTheirSale() throws IOException {
+        // Arrange
+        when(saleRepository.streamWithItemsForExport()).thenReturn(Stream.of(
+                new Object[]{1L, "Ann", 6.0, "2026-01-02", 10L, 7L, 1, 2.0},
+                new Object[]{1L, "Ann", 6.0, "2026-01-02", 11L, 8L, 2, 2.0},
+                new Object[]{2L, "Bob", 0.0, "2026-01-03", null, null, null, null}));
+
+        // Act
+        String body = export(SaleExportService.Format.NDJSON, true);
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"items\":[{\"id\":10,"));
+        assertTrue(lines[0].contains("{\"id\":11,\"medicineId\":8,\"quantity\":2,\"price\":2.0}"));
+        assertTrue(lines[1].endsWith("\"items\":[]}"));
+    }
+
+    @Test
+    void export_Csv_QuotesCellsThatNeedIt() throws IOException {
+        // Arrange
+        when(saleRepository.streamForExport()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, "Doe, \"J\"", 4.0, null}));
+
+        // Act
+        String body = export(SaleExportService.Format.CSV, false);
+
+        // Assert
+        assertEquals("id,customerName,totalAmount,saleDate\n1,\"Doe, \"\"J\"\"\",4.0,\n", body);
+    }
+
+    @Test
+    void export_Csv_DefusesFormulasButKeepsNegativeNumbers() throws IOException {
+        // Arrange
+        when(saleRepository.streamForExport()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, "=HYPERLINK(\"http://x\")", -4.0, null},
+                new Object[]{2L, "@SUM(A1)", 4.0, null}));
+
+        // Act
+        String body = export(SaleExportService.Format.CSV, false);
+
+        // Assert
+        assertEquals("id,customerName,totalAmount,saleDate\n"
+                + "1,\"'=HYPERLINK(\"\"http://x\"\")\",-4.0,\n"
+                + "2,'@SUM(A1),4.0,\n", body);
+    }
+
+    @Test
+    void format_Unknown_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> SaleExportService.Format.of("xml"));
+    }
+}
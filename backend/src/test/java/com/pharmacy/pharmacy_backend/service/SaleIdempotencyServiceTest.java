@@ -0,0 +1,175 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.exception.IdempotencyKeyReusedException;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SaleIdempotencyKey;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.monitoring.SaleMetrics;
+import com.pharmacy.pharmacy_backend.repository.SaleIdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleIdempotencyServiceTest {
+
+    private static final String KEY = "3f1c2a9e-till-7";
+    private static final String ANONYMOUS = SaleIdempotencyKey.ANONYMOUS;
+
+    @Mock
+    private SaleService saleService;
+
+    @Mock
+    private SaleIdempotencyKeyRepository keyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SaleMetrics metrics;
+
+    private SaleIdempotencyService idempotency;
+
+    @BeforeEach
+    void setUp() {
+        idempotency = new SaleIdempotencyService(saleService, keyRepository, transactionManager, metrics, 100, 24);
+    }
+
+    private static Sale sale(double totalAmount) {
+        Sale sale = new Sale();
+        sale.setCustomerName("Walk-in");
+        sale.setTotalAmount(totalAmount);
+        return sale;
+    }
+
+    private static List<SalesItem> items(int quantity) {
+        SalesItem item = new SalesItem();
+        item.setMedicineId(1L);
+        item.setQuantity(quantity);
+        item.setPrice(2.0);
+        return List.of(item);
+    }
+
+    private static Sale saved(Sale sale, long id) {
+        sale.setId(id);
+        return sale;
+    }
+
+    @Test
+    void submit_NoKey_CreatesWithoutClaiming() {
+        // Arrange
+        Sale sale = sale(4.0);
+        when(saleService.createSale(eq(sale), any())).thenReturn(saved(sale, 1L));
+
+        // Act
+        SaleIdempotencyService.Result result = idempotency.submit(null, sale, items(2));
+
+        // Assert
+        assertFalse(result.isReplayed());
+        verifyNoInteractions(keyRepository);
+    }
+
+    @Test
+    void submit_RetryAfterSuccess_ReturnsOriginalFromMemory() {
+        // Arrange
+        Sale first = sale(4.0);
+        when(keyRepository.claim(eq(ANONYMOUS), eq(KEY), anyString())).thenReturn(true);
+        when(saleService.createSale(any(), any())).thenReturn(saved(first, 42L));
+        idempotency.submit(KEY, first, items(2));
+
+        // Act
+        SaleIdempotencyService.Result retry = idempotency.submit(KEY, sale(4.0), items(2));
+
+        // Assert
+        assertTrue(retry.isReplayed());
+        assertSame(first, retry.getSale());
+        verify(saleService, times(1)).createSale(any(), any());
+        verify(keyRepository, times(1)).claim(eq(ANONYMOUS), eq(KEY), anyString());
+        verify(keyRepository).attachSale(ANONYMOUS, KEY, 42L);
+        verify(metrics).recordIdempotentReplay(SaleMetrics.MEMORY);
+    }
+
+    @Test
+    void submit_KeyAlreadyCommitted_ReplaysFromDatabaseWithoutSelling() {
+        // Arrange
+        Sale retry = sale(4.0);
+        Sale original = saved(sale(4.0), 42L);
+        when(keyRepository.claim(eq(ANONYMOUS), eq(KEY), anyString())).thenReturn(false);
+        when(keyRepository.findReplay(ANONYMOUS, KEY)).thenReturn(List.<Object[]>of(
+                new Object[]{SaleIdempotencyService.requestHash(retry, items(2)), original}));
+
+        // Act
+        SaleIdempotencyService.Result result = idempotency.submit(KEY, retry, items(2));
+
+        // Assert
+        assertTrue(result.isReplayed());
+        assertSame(original, result.getSale());
+        verify(saleService, never()).createSale(any(), any());
+        verify(metrics).recordIdempotentReplay(SaleMetrics.DATABASE);
+    }
+
+    @Test
+    void submit_KeyReusedForDifferentBasket_Rejected() {
+        // Arrange
+        when(keyRepository.claim(eq(ANONYMOUS), eq(KEY), anyString())).thenReturn(true);
+        when(saleService.createSale(any(), any())).thenAnswer(inv -> saved(inv.getArgument(0), 42L));
+        idempotency.submit(KEY, sale(4.0), items(2));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotency.submit(KEY, sale(6.0), items(3)));
+        verify(saleService, times(1)).createSale(any(), any());
+    }
+
+    @Test
+    void submit_SameKeyFromAnotherSeller_CreatesItsOwnSale() {
+        // Arrange
+        Sale alice = sale(4.0);
+        alice.setSoldBy("alice");
+        Sale bob = sale(4.0);
+        bob.setSoldBy("bob");
+        when(keyRepository.claim(anyString(), eq(KEY), anyString())).thenReturn(true);
+        when(saleService.createSale(any(), any()))
+                .thenAnswer(inv -> saved(inv.getArgument(0), inv.getArgument(0) == alice ? 1L : 2L));
+        idempotency.submit(KEY, alice, items(2));
+
+        // Act
+        SaleIdempotencyService.Result result = idempotency.submit(KEY, bob, items(2));
+
+        // Assert
+        assertFalse(result.isReplayed());
+        assertSame(bob, result.getSale());
+        verify(keyRepository).claim(eq("alice"), eq(KEY), anyString());
+        verify(keyRepository).claim(eq("bob"), eq(KEY), anyString());
+    }
+
+    @Test
+    void requestHash_Sha256OfTheFields() {
+        // Arrange
+        Sale sale = sale(4.0);
+
+        // Act
+        String hash = SaleIdempotencyService.requestHash(sale, items(2));
+
+        // Assert
+        assertTrue(hash.matches("[0-9a-f]{64}"));
+        assertEquals(hash, SaleIdempotencyService.requestHash(sale(4.0), items(2)));
+        assertNotEquals(hash, SaleIdempotencyService.requestHash(sale(4.0), items(3)));
+        assertNotEquals(hash, SaleIdempotencyService.requestHash(sale(4.0), List.of()));
+    }
+
+    @Test
+    void submit_OversizedKey_Rejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> idempotency.submit("k".repeat(101), sale(4.0), items(2)));
+        verifyNoInteractions(keyRepository, saleService);
+    }
+}
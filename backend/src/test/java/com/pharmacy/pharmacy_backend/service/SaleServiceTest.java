@@ -0,0 +1,248 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.exception.InsufficientStockException;
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.monitoring.SaleMetrics;
+import com.pharmacy.pharmacy_backend.payload.response.CursorPage;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import com.pharmacy.pharmacy_backend.repository.SalesItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SalesItemRepository itemRepository;
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    @Mock
+    private StockReservationService stockReservations;
+
+    @Mock
+    private SaleEventPipeline events;
+
+    @Mock
+    private RecentSalesService recentSales;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private SaleMetrics metrics;
+
+    @InjectMocks
+    private SaleService saleService;
+
+    private Sale sale;
+
+    @BeforeEach
+    void setUp() {
+        sale = new Sale();
+        sale.setCustomerName("Walk-in");
+        sale.setTotalAmount(12.0);
+    }
+
+    private static SalesItem item(long medicineId, int quantity) {
+        SalesItem item = new SalesItem();
+        item.setMedicineId(medicineId);
+        item.setQuantity(quantity);
+        item.setPrice(2.0);
+        return item;
+    }
+
+    private static Medicine medicine(long id) {
+        Medicine medicine = new Medicine();
+        medicine.setId(id);
+        return medicine;
+    }
+
+    @Test
+    void createSale_BatchesItemsAndMergesStockDecrements() {
+        // Arrange
+        List<SalesItem> items = List.of(item(1L, 2), item(2L, 1), item(1L, 3));
+        when(medicineRepository.findAllById(any())).thenReturn(List.of(medicine(1L), medicine(2L)));
+        when(saleRepository.save(sale)).thenAnswer(inv -> {
+            sale.setId(42L);
+            return sale;
+        });
+        when(medicineRepository.decrementStock(any())).thenReturn(Collections.emptyList());
+
+        // Act
+        Sale saved = saleService.createSale(sale, items);
+
+        // Assert
+        assertEquals(42L, saved.getId());
+        assertTrue(items.stream().allMatch(i -> i.getSaleId() == 42L));
+        verify(itemRepository).batchInsert(items);
+        verify(medicineRepository).decrementStock(Map.of(1L, 5, 2L, 1));
+        verify(medicineRepository, never()).save(any(Medicine.class));
+        verify(catalogCache).evictStock(Map.of(1L, 5, 2L, 1).keySet());
+        assertFalse(saved.isEventsApplied());
+        ArgumentCaptor<SaleCommitted> event = ArgumentCaptor.forClass(SaleCommitted.class);
+        verify(events).publishAfterCommit(event.capture());
+        assertEquals(42L, event.getValue().getSaleId());
+        assertEquals(3, event.getValue().getLineCount());
+        assertEquals(6L, event.getValue().getUnits());
+        verify(recentSales).recordAfterCommit(saved);
+        verify(metrics).recordSaleAfterCommit(items);
+    }
+
+    @Test
+    void createSale_ClientSuppliedDate_ReplacedWithServerTime() {
+        // Arrange
+        sale.setSaleDate(LocalDateTime.of(2001, 1, 1, 0, 0));
+        when(saleRepository.save(sale)).thenAnswer(inv -> {
+            sale.setId(42L);
+            return sale;
+        });
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        Sale saved = saleService.createSale(sale, List.of());
+
+        // Assert
+        assertFalse(saved.getSaleDate().isBefore(before));
+        assertFalse(saved.getSaleDate().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void createSale_InsufficientStock_Throws() {
+        // Arrange
+        when(medicineRepository.findAllById(any())).thenReturn(List.of(medicine(1L)));
+        when(saleRepository.save(sale)).thenReturn(sale);
+        when(medicineRepository.decrementStock(any())).thenReturn(List.of(1L));
+
+        // Act & Assert
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> saleService.createSale(sale, List.of(item(1L, 99))));
+        assertEquals(1L, ex.getMedicineId());
+        verify(metrics).recordStockConflict(SaleMetrics.DECREMENT);
+    }
+
+    @Test
+    void createSale_UnknownMedicine_RejectedBeforeWriting() {
+        // Arrange
+        when(medicineRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> saleService.createSale(sale, List.of(item(7L, 1))));
+        verify(saleRepository, never()).save(any());
+        verify(itemRepository, never()).batchInsert(any());
+    }
+
+    @Test
+    void createSale_WriteBehind_ReservesInsteadOfUpdatingMedicines() {
+        // Arrange
+        List<SalesItem> items = List.of(item(1L, 2), item(1L, 1));
+        when(stockReservations.isEnabled()).thenReturn(true);
+        when(saleRepository.save(sale)).thenAnswer(inv -> {
+            sale.setId(43L);
+            return sale;
+        });
+
+        // Act
+        saleService.createSale(sale, items);
+
+        // Assert
+        verify(stockReservations).reserve(Map.of(1L, 3));
+        assertTrue(items.stream().noneMatch(SalesItem::isStockApplied));
+        verify(itemRepository).batchInsert(items);
+        verify(medicineRepository, never()).findAllById(any());
+        verify(medicineRepository, never()).decrementStock(any());
+        verify(events).publishAfterCommit(any(SaleCommitted.class));
+    }
+
+    @Test
+    void getSalePage_DateBounds_CoverWholeDaysAndFetchOneExtraRow() {
+        // Arrange
+        Sale first = new Sale();
+        first.setId(7L);
+        Sale second = new Sale();
+        second.setId(9L);
+        when(saleRepository.findRangeAfter(any(), any(), anyLong(), any())).thenReturn(List.of(first, second));
+
+        // Act
+        CursorPage<Sale> page = saleService.getSalePage("2026-10-01", "2026-10-31", null, 1);
+
+        // Assert
+        verify(saleRepository).findRangeAfter(LocalDateTime.of(2026, 10, 1, 0, 0),
+                LocalDateTime.of(2026, 11, 1, 0, 0), 0L, PageRequest.of(0, 2));
+        assertEquals(List.of(first), page.getItems());
+        assertEquals(7L, page.getNextCursor());
+    }
+
+    @Test
+    void getSalePage_WithCursor_ResumesFromTheCursorRow() {
+        // Arrange
+        LocalDateTime cursorDate = LocalDateTime.of(2026, 10, 5, 14, 30);
+        when(saleRepository.findSaleDateById(7L)).thenReturn(cursorDate);
+        when(saleRepository.findRangeAfter(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // Act
+        CursorPage<Sale> page = saleService.getSalePage("2026-10-01", null, 7L, null);
+
+        // Assert
+        verify(saleRepository).findRangeAfter(cursorDate, SaleService.LATEST, 7L,
+                PageRequest.of(0, SaleService.DEFAULT_PAGE_SIZE + 1));
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getSalePage_CursorBeforeFrom_Rejected() {
+        // Arrange
+        when(saleRepository.findSaleDateById(7L)).thenReturn(LocalDateTime.of(2026, 9, 30, 23, 59));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> saleService.getSalePage("2026-10-01", null, 7L, null));
+        verify(saleRepository, never()).findRangeAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getSalePage_InvalidDate_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> saleService.getSalePage("yesterday", null, null, null));
+        verifyNoInteractions(saleRepository);
+    }
+
+    @Test
+    void getUndatedSalePage_PagesById() {
+        // Arrange
+        Sale first = new Sale();
+        first.setId(3L);
+        Sale second = new Sale();
+        second.setId(8L);
+        when(saleRepository.findUndatedAfter(anyLong(), any())).thenReturn(List.of(first, second));
+
+        // Act
+        CursorPage<Sale> page = saleService.getUndatedSalePage(2L, 1);
+
+        // Assert
+        verify(saleRepository).findUndatedAfter(2L, PageRequest.of(0, 2));
+        assertEquals(List.of(first), page.getItems());
+        assertEquals(3L, page.getNextCursor());
+    }
+}
@@ -0,0 +1,145 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.repository.DailyMedicineSalesRepository;
+import com.pharmacy.pharmacy_backend.repository.DailySalesTotalRepository;
+import com.pharmacy.pharmacy_backend.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAnalyticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 5);
+
+    @Mock
+    private DailyMedicineSalesRepository medicineDailyRepository;
+
+    @Mock
+    private DailySalesTotalRepository dailyTotalsRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesAnalyticsService analytics;
+
+    @BeforeEach
+    void setUp() {
+        analytics = new SalesAnalyticsService(medicineDailyRepository, dailyTotalsRepository, saleRepository, transactionManager);
+    }
+
+    private static SaleCommitted sale(long id, LocalDate day, SalesItem... items) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSaleDate(day.atTime(14, 30));
+        return SaleCommitted.of(sale, List.of(items));
+    }
+
+    private static SalesItem item(long medicineId, int quantity, double price) {
+        SalesItem item = new SalesItem();
+        item.setMedicineId(medicineId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        return item;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applySales_MergesLinesPerMedicineAndDay() {
+        // Arrange
+        when(medicineDailyRepository.addSales(any(), any())).thenReturn(List.of());
+
+        // Act
+        analytics.applySales(List.of(
+                sale(1L, DAY, item(2L, 1, 3.0), item(1L, 2, 2.0)),
+                sale(2L, DAY.minusDays(1), item(1L, 7, 1.0)),
+                sale(3L, DAY, item(1L, 3, 2.0))));
+
+        // Assert
+        ArgumentCaptor<LocalDate> days = ArgumentCaptor.forClass(LocalDate.class);
+        ArgumentCaptor<Map<Long, double[]>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(medicineDailyRepository, times(2)).addSales(days.capture(), totals.capture());
+        assertEquals(List.of(DAY.minusDays(1), DAY), days.getAllValues());
+        assertArrayEquals(new double[]{7, 7.0}, totals.getAllValues().get(0).get(1L));
+        Map<Long, double[]> today = totals.getAllValues().get(1);
+        assertEquals(List.of(1L, 2L), List.copyOf(today.keySet()));
+        assertArrayEquals(new double[]{5, 10.0}, today.get(1L));
+        assertArrayEquals(new double[]{1, 3.0}, today.get(2L));
+        verify(medicineDailyRepository, never()).createMissingRows(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applySales_FirstSaleOfTheDay_CreatesRowThenRetries() {
+        // Arrange
+        when(medicineDailyRepository.addSales(any(), any())).thenReturn(List.of(2L), List.of());
+
+        // Act
+        analytics.applySales(List.of(sale(1L, DAY, item(1L, 1, 2.0), item(2L, 4, 1.5))));
+
+        // Assert
+        verify(medicineDailyRepository).createMissingRows(DAY, List.of(2L));
+
+        ArgumentCaptor<Map<Long, double[]>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(medicineDailyRepository, times(2)).addSales(eq(DAY), batches.capture());
+        assertEquals(List.of(2L), List.copyOf(batches.getAllValues().get(1).keySet()));
+        assertArrayEquals(new double[]{4, 6.0}, batches.getAllValues().get(1).get(2L));
+    }
+
+    @Test
+    void getRevenue_Monthly_FoldsDailyTotals() {
+        // Arrange
+        when(dailyTotalsRepository.findDailyTotalsBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 28)))
+                .thenReturn(List.of(
+                        new Object[]{LocalDate.of(2026, 1, 3), 2L, 10.0},
+                        new Object[]{LocalDate.of(2026, 1, 20), 1L, 5.0},
+                        new Object[]{LocalDate.of(2026, 2, 1), 4L, 8.0}));
+
+        // Act
+        List<Map<String, Object>> months = analytics.getRevenue(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 28), SalesAnalyticsService.Interval.MONTH);
+
+        // Assert
+        assertEquals(2, months.size());
+        assertEquals(Map.of("period", "2026-01", "totalSales", 3L, "totalRevenue", 15.0), months.get(0));
+        assertEquals(Map.of("period", "2026-02", "totalSales", 4L, "totalRevenue", 8.0), months.get(1));
+    }
+
+    @Test
+    void getTopMedicines_FromAfterTo_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> analytics.getTopMedicines(
+                DAY, DAY.minusDays(1), null, SalesAnalyticsService.Ranking.UNITS));
+        verifyNoInteractions(medicineDailyRepository);
+    }
+
+    @Test
+    void backfill_NoSales_WritesNothing() {
+        // Arrange
+        when(saleRepository.findFirstSaleDate()).thenReturn(null);
+        when(saleRepository.findLastSaleDate()).thenReturn(null);
+
+        // Act
+        Map<String, Object> report = analytics.backfill(null, null);
+
+        // Assert
+        assertEquals(0, report.get("rows"));
+        verify(medicineDailyRepository, never()).insertFromSales(any(), any());
+    }
+}
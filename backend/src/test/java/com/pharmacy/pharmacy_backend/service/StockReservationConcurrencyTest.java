@@ -0,0 +1,133 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import com.pharmacy.pharmacy_backend.model.Medicine;
+import com.pharmacy.pharmacy_backend.model.Sale;
+import com.pharmacy.pharmacy_backend.model.SalesItem;
+import com.pharmacy.pharmacy_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A stock edit that commits while a sale holds an uncommitted reservation, against the real
+ * write-behind path on H2. The counter must keep the sale's reservation and move by exactly what
+ * the edit changed, both before and after the sale commits and its lines are written back.
+ */
+@SpringBootTest(properties = "app.stock.write-behind.enabled=true")
+@ActiveProfiles("test")
+class StockReservationConcurrencyTest {
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private StockReservationService stockReservations;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long medicine(int quantity) {
+        Medicine medicine = new Medicine();
+        medicine.setName("Racetol");
+        medicine.setPrice(1.0);
+        medicine.setQuantity(quantity);
+        Long id = medicineService.addMedicine(medicine).getId();
+        assertEquals(quantity, stockReservations.available(id));
+        return id;
+    }
+
+    // Sells the units on another thread and holds the sale's transaction open until released.
+    private CompletableFuture<Sale> sellAndHold(Long medicineId, int units, CountDownLatch reserved,
+                                                CountDownLatch commit) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            SalesItem item = new SalesItem();
+            item.setMedicineId(medicineId);
+            item.setQuantity(units);
+            item.setPrice(1.0);
+            Sale sale = new Sale();
+            sale.setCustomerName("Walk-in");
+            sale.setTotalAmount((double) units);
+            Sale saved = saleService.createSale(sale, List.of(item));
+            reserved.countDown();
+            try {
+                assertTrue(commit.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return saved;
+        }));
+    }
+
+    private void setQuantity(Long medicineId, int quantity) {
+        Medicine edit = medicineRepository.findById(medicineId).orElseThrow();
+        edit.setQuantity(quantity);
+        medicineService.addMedicine(edit);
+    }
+
+    private int storedQuantity(Long medicineId) {
+        while (stockReservations.flushBatch() > 0) {
+            // Write back every pending line.
+        }
+        return medicineRepository.findById(medicineId).orElseThrow().getQuantity();
+    }
+
+    @Test
+    void editDuringSale_KeepsTheSalesReservation() throws Exception {
+        // Arrange
+        Long id = medicine(100);
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Sale> sale = sellAndHold(id, 10, reserved, commit);
+        assertTrue(reserved.await(10, TimeUnit.SECONDS));
+
+        // Act
+        setQuantity(id, 50);
+        int whileSaleOpen = stockReservations.available(id);
+        commit.countDown();
+        sale.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(40, whileSaleOpen);
+        assertEquals(40, stockReservations.available(id));
+        assertEquals(40, storedQuantity(id));
+        assertEquals(40, stockReservations.available(id));
+    }
+
+    @Test
+    void correctionBelowSaleInFlight_RefusesSalesAndNeverGoesNegative() throws Exception {
+        // Arrange
+        Long id = medicine(100);
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Sale> sale = sellAndHold(id, 10, reserved, commit);
+        assertTrue(reserved.await(10, TimeUnit.SECONDS));
+
+        // Act
+        setQuantity(id, 5);
+        int whileSaleOpen = stockReservations.available(id);
+        commit.countDown();
+        sale.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(-5, whileSaleOpen);
+        assertEquals(0, storedQuantity(id));
+        assertEquals(0, stockReservations.available(id));
+    }
+}
@@ -0,0 +1,91 @@
+package com.pharmacy.pharmacy_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @Test
+    void tryReserve_GathersAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertTrue(counter.tryReserve(9));
+        assertEquals(1, counter.available());
+    }
+
+    @Test
+    void tryReserve_Shortfall_LeavesStockUntouched() {
+        StripedStockCounter counter = new StripedStockCounter(5, 4);
+
+        assertFalse(counter.tryReserve(6));
+        assertEquals(5, counter.available());
+    }
+
+    @Test
+    void release_ReturnsStock() {
+        StripedStockCounter counter = new StripedStockCounter(3, 2);
+        counter.tryReserve(3);
+
+        counter.release(2);
+
+        assertEquals(2, counter.available());
+    }
+
+    @Test
+    void adjust_Up_AddsStock() {
+        StripedStockCounter counter = new StripedStockCounter(0, 4);
+
+        counter.adjust(7);
+
+        assertTrue(counter.tryReserve(7));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void adjust_DownPastZero_RefusesSalesUntilRepaid() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        counter.tryReserve(6);
+
+        counter.adjust(-9);
+
+        assertEquals(-5, counter.available());
+        assertFalse(counter.tryReserve(1));
+        counter.release(6);
+        assertEquals(1, counter.available());
+        assertTrue(counter.tryReserve(1));
+        assertFalse(counter.tryReserve(1));
+    }
+
+    @Test
+    void tryReserve_ConcurrentTills_NeverOversell() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(1000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (counter.tryReserve(3)) {
+                        sold.addAndGet(3);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(sold.get() <= 1000);
+        assertEquals(1000 - sold.get(), counter.available());
+    }
+}
@@ -0,0 +1,41 @@
+package com.pharmacy.pharmacy_backend.support;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Most statements (and optionally rows read) one endpoint call may cost, e.g.
+ * {@code QueryBudget.statements(3).rows(0)}. A call over budget fails with every statement it ran,
+ * which is usually enough to spot the N+1.
+ */
+public final class QueryBudget {
+
+    private final int statements;
+    private final long rows;
+
+    private QueryBudget(int statements, long rows) {
+        this.statements = statements;
+        this.rows = rows;
+    }
+
+    public static QueryBudget statements(int maxStatements) {
+        return new QueryBudget(maxStatements, Long.MAX_VALUE);
+    }
+
+    public QueryBudget rows(long maxRows) {
+        return new QueryBudget(statements, maxRows);
+    }
+
+    void check(String call, QueryCounter.Usage usage) {
+        if (usage.getStatements() <= statements && usage.getRows() <= rows) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append(call).append(" ran ").append(usage.getStatements()).append(" statements (budget ")
+                .append(statements).append(") and read ").append(usage.getRows()).append(" rows (budget ")
+                .append(rows == Long.MAX_VALUE ? "any" : String.valueOf(rows)).append("):");
+        for (String sql : usage.getSql()) {
+            message.append("\n  ").append(sql);
+        }
+        fail(message.toString());
+    }
+}
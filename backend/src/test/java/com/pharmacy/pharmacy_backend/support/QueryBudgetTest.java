@@ -0,0 +1,59 @@
+package com.pharmacy.pharmacy_backend.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Base for the per-controller query budget tests: the full application on the H2 test profile,
+ * called through MockMvc as an admin. Every cache is cleared before each test, so a budget holds
+ * for a cold cache; the second of two identical calls shows what a cache hit costs.
+ *
+ * Tests with the same configuration share one context and so one database: seed what a test
+ * needs and don't assume the tables are empty.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCounter.Config.class)
+@WithMockUser(authorities = "ADMIN")
+public abstract class QueryBudgetTest {
+
+    @Autowired
+    protected MockMvc mvc;
+
+    @Autowired
+    protected QueryCounter queries;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    protected void clearCaches() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /** Performs the call and fails the test if it went over budget. */
+    protected ResultActions perform(RequestBuilder request, QueryBudget budget) throws Exception {
+        QueryCounter.Measured<ResultActions> measured = queries.measure(() -> mvc.perform(request));
+        ResultActions result = measured.getResult();
+        MockHttpServletRequest sent = result.andReturn().getRequest();
+        budget.check(sent.getMethod() + " " + sent.getRequestURI(), measured.getUsage());
+        return result;
+    }
+}
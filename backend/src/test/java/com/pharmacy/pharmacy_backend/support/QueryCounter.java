@@ -0,0 +1,141 @@
+package com.pharmacy.pharmacy_backend.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts JDBC statements and the rows read from their result sets, for the calling thread only,
+ * while {@link #measure} runs. MockMvc serves a request on the test thread, so background work
+ * (stock flushes, snapshot builds) never lands in a measurement.
+ *
+ * {@link Config} wraps the application's DataSource in a counting proxy, so Hibernate and
+ * JdbcTemplate statements are both seen.
+ */
+public class QueryCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    /** Statements and rows seen during one measurement. */
+    public static final class Usage {
+        private final List<String> statements = new ArrayList<>();
+        private long rows;
+
+        public int getStatements() {
+            return statements.size();
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public List<String> getSql() {
+            return statements;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+
+    private final ThreadLocal<Usage> current = new ThreadLocal<>();
+
+    public <T> Measured<T> measure(Action<T> action) throws Exception {
+        Usage usage = new Usage();
+        current.set(usage);
+        try {
+            return new Measured<>(action.run(), usage);
+        } finally {
+            current.remove();
+        }
+    }
+
+    public static final class Measured<T> {
+        private final T result;
+        private final Usage usage;
+
+        Measured(T result, Usage usage) {
+            this.result = result;
+            this.usage = usage;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public Usage getUsage() {
+            return usage;
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Usage usage = current.get();
+        if (usage == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            usage.statements.add(execInfo.isBatch() ? sql + " [batch of " + execInfo.getBatchSize() + "]" : sql);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Usage usage = current.get();
+        if (usage != null
+                && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            usage.rows++;
+        }
+    }
+
+    /** Registers the counter and wraps the application's DataSource with it. */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        public static QueryCounter queryCounter() {
+            return new QueryCounter();
+        }
+
+        @Bean
+        public static BeanPostProcessor queryCounterDataSourceWrapper(QueryCounter counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        // Not itself a ProxyDataSource, so the SQL statistics proxy still wraps it
+                        // when that post-processor runs second.
+                        return new DelegatingDataSource(ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                                .listener(counter)
+                                .methodListener(counter)
+                                .proxyResultSet()
+                                .build());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -1,44 +1,44 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import { useNavigate } from "react-router-dom";
-import { createSale } from "../services/salesService";
-import { getMedicines } from "../services/medicineService";
+import { createSale, newIdempotencyKey } from "../services/salesService";
+import { searchMedicines } from "../services/medicineService";
 
 function CreateSale() {
   const navigate = useNavigate();
   
   const [customerName, setCustomerName] = useState("");
+  const [searchTerm, setSearchTerm] = useState("");
   const [medicines, setMedicines] = useState([]);
   const [cart, setCart] = useState([]);
   const [selectedMedicine, setSelectedMedicine] = useState("");
   const [quantity, setQuantity] = useState(1);
   const [loading, setLoading] = useState(false);
   const [errors, setErrors] = useState({});
+  // One key per basket: pressing save again after a failure cannot sell it twice.
+  const checkoutKey = useRef(null);
 
   useEffect(() => {
-    loadMedicines();
-  }, []);
+    checkoutKey.current = null;
+  }, [cart, customerName]);
 
-  const loadMedicines = async () => {
-    try {
-      const res = await getMedicines();
-      // Mock data if API fails
-      const mockData = [
-        { id: 1, name: "Paracetamol", price: 5.99, quantity: 150 },
-        { id: 2, name: "Amoxicillin", price: 12.50, quantity: 75 },
-        { id: 3, name: "Vitamin C", price: 8.75, quantity: 200 },
-        { id: 4, name: "Ibuprofen", price: 7.25, quantity: 89 }
-      ];
-      setMedicines(res.data || mockData);
-    } catch (error) {
-      console.error("Error loading medicines:", error);
-      setMedicines([
-        { id: 1, name: "Paracetamol", price: 5.99, quantity: 150 },
-        { id: 2, name: "Amoxicillin", price: 12.50, quantity: 75 },
-        { id: 3, name: "Vitamin C", price: 8.75, quantity: 200 },
-        { id: 4, name: "Ibuprofen", price: 7.25, quantity: 89 }
-      ]);
+  // Ask the server for matches as the cashier types instead of downloading the catalog.
+  useEffect(() => {
+    const q = searchTerm.trim();
+    if (!q) {
+      setMedicines([]);
+      return;
     }
-  };
+    const timer = setTimeout(async () => {
+      try {
+        const res = await searchMedicines(q);
+        setMedicines(res.data || []);
+      } catch (error) {
+        console.error("Error searching medicines:", error);
+        setMedicines([]);
+      }
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
 
   const addToCart = () => {
     if (!selectedMedicine || quantity <= 0) return;
@@ -66,6 +66,7 @@ function CreateSale() {
         medicineId: medicine.id,
         name: medicine.name,
         price: medicine.price,
+        stock: medicine.quantity,
         quantity: quantity
       }]);
     }
@@ -85,9 +86,9 @@ function CreateSale() {
       return;
     }
     
-    const medicine = medicines.find(m => m.id === medicineId);
-    if (newQuantity > medicine.quantity) {
-      alert(`Only ${medicine.quantity} units available in stock`);
+    const item = cart.find(i => i.medicineId === medicineId);
+    if (newQuantity > item.stock) {
+      alert(`Only ${item.stock} units available in stock`);
       return;
     }
     
@@ -120,8 +121,7 @@ function CreateSale() {
       const data = {
         sale: {
           customerName: customerName,
-          totalAmount: getTotalAmount(),
-          saleDate: new Date().toISOString().split('T')[0]
+          totalAmount: getTotalAmount()
         },
         items: cart.map(item => ({
           medicineId: item.medicineId,
@@ -130,7 +130,8 @@ function CreateSale() {
         }))
       };
 
-      await createSale(data);
+      if (!checkoutKey.current) checkoutKey.current = newIdempotencyKey();
+      await createSale(data, checkoutKey.current);
       alert("Sale created successfully!");
       navigate("/sales-history");
     } catch (error) {
@@ -175,12 +176,21 @@ function CreateSale() {
                 <div className="row g-3">
                   <div className="col-md-6">
                     <label className="form-label">Select Medicine</label>
+                    <input
+                      type="search"
+                      className="form-control mb-2"
+                      placeholder="Search by name, company or category..."
+                      value={searchTerm}
+                      onChange={(e) => setSearchTerm(e.target.value)}
+                    />
                     <select
                       className="form-select"
                       value={selectedMedicine}
                       onChange={(e) => setSelectedMedicine(e.target.value)}
                     >
-                      <option value="">Choose a medicine...</option>
+                      <option value="">
+                        {searchTerm.trim() ? `${medicines.length} matches` : "Type to search..."}
+                      </option>
                       {medicines.map(medicine => (
                         <option key={medicine.id} value={medicine.id}>
                           {medicine.name} - ${medicine.price.toFixed(2)} (Stock: {medicine.quantity})
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import { getMedicines } from "../services/medicineService";
+import { getExpiryReport } from "../services/medicineService";
 
 function ExpiryReport() {
   const [medicines, setMedicines] = useState([]);
@@ -7,10 +7,11 @@ function ExpiryReport() {
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState("all"); // all, expired, near-expiry, safe
   const [daysThreshold, setDaysThreshold] = useState(30);
+  const [counts, setCounts] = useState(null);
 
   useEffect(() => {
     loadData();
-  }, []);
+  }, [daysThreshold]);
 
   useEffect(() => {
     filterMedicines();
@@ -18,20 +19,22 @@ function ExpiryReport() {
 
   const loadData = async () => {
     try {
-      const res = await getMedicines();
-      // Mock data with expiry dates
-      const mockData = [
-        { id: 1, name: "Paracetamol", company: "MediCorp", batch: "PC2024001", expiryDate: "2025-12-31", quantity: 150, price: 5.99 },
-        { id: 2, name: "Amoxicillin", company: "PharmaPlus", batch: "AM2024002", expiryDate: "2025-02-15", quantity: 75, price: 12.50 },
-        { id: 3, name: "Vitamin C", company: "HealthFirst", batch: "VC2024003", expiryDate: "2024-12-20", quantity: 200, price: 8.75 },
-        { id: 4, name: "Ibuprofen", company: "PainRelief Inc", batch: "IB2024004", expiryDate: "2026-03-10", quantity: 89, price: 7.25 },
-        { id: 5, name: "Insulin", company: "DiabetesCare", batch: "IN2024005", expiryDate: "2024-11-30", quantity: 42, price: 45.99 },
-        { id: 6, name: "Aspirin", company: "HeartHealth", batch: "AS2024006", expiryDate: "2025-01-10", quantity: 120, price: 3.50 },
-        { id: 7, name: "Multivitamin", company: "NutriPlus", batch: "MV2024007", expiryDate: "2026-06-15", quantity: 95, price: 15.99 }
-      ];
-      setMedicines(res.data || mockData);
+      // The server already splits medicines into buckets; we only render them.
+      const res = await getExpiryReport(daysThreshold);
+      const report = res.data;
+      setCounts({
+        expired: report.expiredCount,
+        nearExpiry: report.nearExpiryCount,
+        safe: report.safeCount
+      });
+      setMedicines([
+        ...report.expired.map(med => ({ ...med, status: 'expired' })),
+        ...report.nearExpiry.map(med => ({ ...med, status: 'near-expiry' })),
+        ...report.safe.map(med => ({ ...med, status: 'safe' }))
+      ]);
     } catch (error) {
       console.error("Error loading medicines:", error);
+      setCounts(null);
       setMedicines([
         { id: 1, name: "Paracetamol", company: "MediCorp", batch: "PC2024001", expiryDate: "2025-12-31", quantity: 150, price: 5.99 },
         { id: 2, name: "Amoxicillin", company: "PharmaPlus", batch: "AM2024002", expiryDate: "2025-02-15", quantity: 75, price: 12.50 },
@@ -58,8 +61,8 @@ function ExpiryReport() {
       return {
         ...med,
         daysUntilExpiry,
-        status: daysUntilExpiry < 0 ? 'expired' : 
-                daysUntilExpiry <= daysThreshold ? 'near-expiry' : 'safe'
+        status: med.status || (daysUntilExpiry < 0 ? 'expired' :
+                daysUntilExpiry <= daysThreshold ? 'near-expiry' : 'safe')
       };
     });
     
@@ -97,11 +100,15 @@ function ExpiryReport() {
       return expiry >= today && expiry <= thresholdDate;
     }).length;
     const safe = medicines.length - expired - nearExpiry;
-    
+
     const totalValueAtRisk = medicines
       .filter(med => new Date(med.expiryDate) <= thresholdDate)
-      .reduce((sum, med) => sum + (med.price * med.quantity), 0);
+      .reduce((sum, med) => sum + ((med.price || 0) * med.quantity), 0);
     
+    // Counts from the server cover every medicine, not just the rows it sent back.
+    if (counts) {
+      return { ...counts, totalValueAtRisk };
+    }
     return { expired, nearExpiry, safe, totalValueAtRisk };
   };
 
@@ -237,8 +244,8 @@ function ExpiryReport() {
                     <td>{new Date(medicine.expiryDate).toLocaleDateString()}</td>
                     <td>{getStatusBadge(medicine.status, medicine.daysUntilExpiry)}</td>
                     <td>{medicine.quantity} units</td>
-                    <td>${medicine.price.toFixed(2)}</td>
-                    <td>${(medicine.price * medicine.quantity).toFixed(2)}</td>
+                    <td>${(medicine.price || 0).toFixed(2)}</td>
+                    <td>${((medicine.price || 0) * medicine.quantity).toFixed(2)}</td>
                     <td>
                       {medicine.status === 'expired' && (
                         <span className="badge bg-danger">Expired</span>
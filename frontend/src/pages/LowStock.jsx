@@ -4,7 +4,7 @@ import API from "../api/api";
 function LowStock() {
   const [medicines, setMedicines] = useState([]);
   const [loading, setLoading] = useState(true);
-  const [sortBy, setSortBy] = useState("quantity");
+  const [sortBy, setSortBy] = useState("urgency");
 
   useEffect(() => {
     loadData();
@@ -36,7 +36,9 @@ function LowStock() {
     }
   };
 
+  // "urgency" keeps the server order: least stock relative to each reorder level first
   const sortedMedicines = [...medicines].sort((a, b) => {
+    if (sortBy === "urgency") return 0;
     if (sortBy === "quantity") return a.quantity - b.quantity;
     if (sortBy === "name") return a.name.localeCompare(b.name);
     if (sortBy === "price") return a.price - b.price;
@@ -131,6 +133,7 @@ function LowStock() {
                 value={sortBy}
                 onChange={(e) => setSortBy(e.target.value)}
               >
+                <option value="urgency">Most Urgent First</option>
                 <option value="quantity">Lowest Quantity First</option>
                 <option value="name">Name (A-Z)</option>
                 <option value="price">Price (Low to High)</option>
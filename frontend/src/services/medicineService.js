@@ -1,8 +1,38 @@
 import API from "./api";
 
-export const getMedicines = () => API.get("/medicines");
+const NEXT_CURSOR_HEADER = "x-next-cursor";
+
+// One keyset page: params may carry after, limit, name, company, category, minQuantity, maxQuantity.
+export const getMedicinePage = (params = {}) => API.get("/medicines", { params });
+
+// The whole catalog in one pre-serialized response (gzipped on the wire).
+export const getMedicineSnapshot = () => API.get("/medicines/snapshot");
+
+// Full list as res.data: the snapshot when unfiltered, otherwise walks every filtered page.
+export const getMedicines = async (params = {}) => {
+  if (Object.keys(params).length === 0) {
+    return getMedicineSnapshot();
+  }
+  let res = await getMedicinePage({ ...params, limit: 500 });
+  const all = [...res.data];
+  let cursor = res.headers?.[NEXT_CURSOR_HEADER];
+  while (cursor) {
+    res = await getMedicinePage({ ...params, limit: 500, after: cursor });
+    all.push(...res.data);
+    cursor = res.headers?.[NEXT_CURSOR_HEADER];
+  }
+  return { ...res, data: all };
+};
+
+// Ranked type-ahead matches on name, company and category.
+export const searchMedicines = (q, limit = 20) =>
+  API.get("/medicines/search", { params: { q, limit } });
 
 export const addMedicine = (data) => API.post("/medicines", data);
 
 export const deleteMedicine = (id) => API.delete(`/medicines/${id}`);
 
+
+// Expired / near-expiry / safe buckets for the given horizon in days.
+export const getExpiryReport = (days, limit = 500) =>
+  API.get("/medicines/expiry", { params: { days, limit } });
@@ -1,6 +1,40 @@
 import API from "./api";
 
-export const getAllSales = () => API.get("/sales");
+const NEXT_CURSOR_HEADER = "x-next-cursor";
 
-export const createSale = (sale) =>
-  API.post("/sales", sale);
+// One keyset page: params may carry from, to (yyyy-MM-dd or date-time), after, limit.
+export const getSalesPage = (params = {}) => API.get("/sales", { params });
+
+// Walks every page in the range so existing screens still receive the full list as res.data.
+export const getAllSales = async (params = {}) => {
+  let res = await getSalesPage({ ...params, limit: 500 });
+  const all = [...res.data];
+  let cursor = res.headers?.[NEXT_CURSOR_HEADER];
+  while (cursor) {
+    res = await getSalesPage({ ...params, limit: 500, after: cursor });
+    all.push(...res.data);
+    cursor = res.headers?.[NEXT_CURSOR_HEADER];
+  }
+  return { ...res, data: all };
+};
+
+const IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+const CHECKOUT_ATTEMPTS = 3;
+
+export const newIdempotencyKey = () =>
+  globalThis.crypto?.randomUUID?.() ?? `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
+// The same key on every attempt lets the server answer a retry with the sale it already made,
+// so lost responses and 503s are retried instead of surfacing as failed checkouts.
+export const createSale = async (sale, idempotencyKey = newIdempotencyKey()) => {
+  for (let attempt = 1; ; attempt++) {
+    try {
+      return await API.post("/sales", sale, { headers: { [IDEMPOTENCY_KEY_HEADER]: idempotencyKey } });
+    } catch (error) {
+      const status = error.response?.status;
+      const retryable = !error.response || status === 503 || status === 502 || status === 504;
+      if (!retryable || attempt >= CHECKOUT_ATTEMPTS) throw error;
+      await new Promise((resolve) => setTimeout(resolve, 250 * attempt));
+    }
+  }
+};